@@ -0,0 +1,59 @@
+package com.jobScheduler.benchmarks;
+
+import com.jobScheduler.utils.CronExpressionCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.quartz.CronExpression;
+
+import java.text.ParseException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cron validation and next-fire computation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CronBenchmark {
+
+    @Param({"0 * * * * ?", "0 0/5 9-17 ? * MON-FRI", "0 15 10 L * ?"})
+    public String expression;
+
+    private final CronExpressionCache cache = new CronExpressionCache(4096);
+    private CronExpression compiled;
+    private Date now;
+
+    @Setup
+    public void setUp() throws ParseException {
+        compiled = new CronExpression(expression);
+        now = new Date();
+    }
+
+    @Benchmark
+    public Date parseAndComputeNextFire() throws ParseException {
+        return new CronExpression(expression).getNextValidTimeAfter(now);
+    }
+
+    @Benchmark
+    public CronExpression compileCached() throws ParseException {
+        return cache.get(expression, null);
+    }
+
+    @Benchmark
+    public Date nextFireOnCompiledExpression() {
+        return compiled.getNextValidTimeAfter(now);
+    }
+}
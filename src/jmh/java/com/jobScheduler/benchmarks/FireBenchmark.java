@@ -0,0 +1,96 @@
+package com.jobScheduler.benchmarks;
+
+import com.jobScheduler.model.Job;
+import com.jobScheduler.service.JobService;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.quartz.Scheduler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-fire overhead of JobService.doSomething for each action. Mongo is stubbed, console output
+ * is discarded, CALL_API hits a local stub server and WRITE_FILE appends to a temp file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FireBenchmark {
+
+    @Param({"PRINT_MESSAGE", "COUNTDOWN", "CALL_API", "WRITE_FILE", "MONGO_LOG", "SEND_EMAIL"})
+    public String action;
+
+    private Scheduler scheduler;
+    private JobService jobService;
+    private HttpServer server;
+    private Path tempDir;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() throws Exception {
+        // without TCP_NODELAY the stub server adds ~40 ms of delayed-ACK latency per call
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.sendResponseHeaders(200, 2);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write("ok".getBytes());
+            }
+        });
+        server.start();
+        tempDir = Files.createTempDirectory("fire-bench");
+
+        Job job = new Job();
+        job.setId("bench");
+        job.setName("bench");
+        job.setAction(action);
+        job.setPayload(switch (action) {
+            case "COUNTDOWN" -> String.valueOf(Integer.MAX_VALUE);
+            case "CALL_API" -> "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+            case "WRITE_FILE" -> tempDir.resolve("out.log").toString();
+            default -> "hello";
+        });
+
+        scheduler = Fixtures.ramScheduler();
+        jobService = Fixtures.jobService(scheduler, Fixtures.jobRepository(job));
+
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        System.setOut(originalOut);
+        server.stop(0);
+        scheduler.shutdown();
+        try (var files = Files.walk(tempDir)) {
+            files.sorted(java.util.Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException ignored) {
+        }
+    }
+
+    @Benchmark
+    public void fire() {
+        jobService.doSomething("bench").join();
+    }
+}
@@ -0,0 +1,127 @@
+package com.jobScheduler.benchmarks;
+
+import com.jobScheduler.config.FireExecutionMode;
+import com.jobScheduler.config.QuartzConfig;
+import org.junit.jupiter.api.Test;
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.Scheduler;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.quartz.listeners.TriggerListenerSupport;
+import org.springframework.scheduling.quartz.SchedulerFactoryBean;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires N blocking jobs at the same instant under each execution mode and compares
+ * misfires and fire lag. Timing-sensitive, so it only runs under the benchmarks profile, and
+ * the virtual-thread side only means something on Java 21+. Run at full scale with
+ * -Djobscheduler.comparison.jobs=10000.
+ */
+class FireExecutionModeComparisonTests {
+
+    private static final int JOBS = Integer.getInteger("jobscheduler.comparison.jobs", 200);
+    private static final long BLOCK_MS = Long.getLong("jobscheduler.comparison.block-ms", 100);
+
+    private static final ConcurrentLinkedQueue<Long> lags = new ConcurrentLinkedQueue<>();
+    private static volatile CountDownLatch done;
+    private static volatile long fireAtMillis;
+
+    public static class BlockingJob implements Job {
+        @Override
+        public void execute(JobExecutionContext context) {
+            // measured against the original fire time, since a misfire moves the scheduled time
+            lags.add(System.currentTimeMillis() - fireAtMillis);
+            try {
+                Thread.sleep(BLOCK_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        }
+    }
+
+    @Test
+    void virtualModeFiresBlockingJobsWithLessLag() throws Exception {
+        Result platform = run(FireExecutionMode.PLATFORM);
+        Result virtual = run(FireExecutionMode.VIRTUAL);
+
+        String summary = JOBS + " jobs blocking " + BLOCK_MS + " ms: PLATFORM " + platform + ", VIRTUAL " + virtual;
+        assertThat(virtual.misfires).as(summary).isLessThanOrEqualTo(platform.misfires);
+        assertThat(virtual.p99).as(summary).isLessThan(platform.p99);
+    }
+
+    private Result run(FireExecutionMode mode) throws Exception {
+        lags.clear();
+        done = new CountDownLatch(JOBS);
+        AtomicInteger misfires = new AtomicInteger();
+
+        SchedulerFactoryBean factory = new SchedulerFactoryBean();
+        Properties props = new Properties();
+        props.setProperty("org.quartz.jobStore.misfireThreshold", "500");
+        QuartzConfig.applyExecutionMode(factory, props, mode, 10);
+        factory.setQuartzProperties(props);
+        factory.setSchedulerName("comparison-" + mode);
+        factory.setAutoStartup(false);
+        factory.afterPropertiesSet();
+        Scheduler scheduler = factory.getObject();
+        scheduler.getListenerManager().addTriggerListener(new TriggerListenerSupport() {
+            @Override
+            public String getName() {
+                return "misfire-counter";
+            }
+
+            @Override
+            public void triggerMisfired(Trigger trigger) {
+                misfires.incrementAndGet();
+            }
+        });
+
+        Date fireAt = new Date(System.currentTimeMillis() + 1000);
+        fireAtMillis = fireAt.getTime();
+        for (int i = 0; i < JOBS; i++) {
+            JobDetail job = JobBuilder.newJob(BlockingJob.class).withIdentity("job" + i).build();
+            Trigger trigger = TriggerBuilder.newTrigger()
+                    .withIdentity("trigger" + i)
+                    .startAt(fireAt)
+                    .withSchedule(SimpleScheduleBuilder.simpleSchedule().withMisfireHandlingInstructionFireNow())
+                    .build();
+            scheduler.scheduleJob(job, trigger);
+        }
+        scheduler.start();
+        try {
+            assertThat(done.await(5, TimeUnit.MINUTES)).isTrue();
+        } finally {
+            factory.destroy();
+        }
+
+        List<Long> sorted = new ArrayList<>(lags);
+        Collections.sort(sorted);
+        return new Result(misfires.get(), percentile(sorted, 0.50), percentile(sorted, 0.99));
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        return sorted.get((int) Math.min(sorted.size() - 1, Math.ceil(p * sorted.size()) - 1));
+    }
+
+    private record Result(int misfires, long p50, long p99) {
+        @Override
+        public String toString() {
+            return "misfires=" + misfires + " p50=" + p50 + " ms p99=" + p99 + " ms";
+        }
+    }
+}
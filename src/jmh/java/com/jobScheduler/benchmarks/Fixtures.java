@@ -0,0 +1,106 @@
+package com.jobScheduler.benchmarks;
+
+import com.jobScheduler.actions.CallApiHandler;
+import com.jobScheduler.actions.CountdownHandler;
+import com.jobScheduler.actions.JobActionRegistry;
+import com.jobScheduler.actions.MongoLogHandler;
+import com.jobScheduler.actions.OutboundRateLimiter;
+import com.jobScheduler.actions.PrintMessageHandler;
+import com.jobScheduler.actions.PrintMessageSink;
+import com.jobScheduler.actions.SendEmailHandler;
+import com.jobScheduler.actions.WriteFileHandler;
+import com.jobScheduler.model.Job;
+import com.jobScheduler.repository.DeadLetterRepository;
+import com.jobScheduler.repository.JobLogRepository;
+import com.jobScheduler.repository.JobRepository;
+import com.jobScheduler.service.FileAppenderService;
+import com.jobScheduler.service.FireMetrics;
+import com.jobScheduler.service.JobDefinitionCache;
+import com.jobScheduler.service.JobEventStream;
+import com.jobScheduler.service.JobKeyIndex;
+import com.jobScheduler.service.JobPayloadStore;
+import com.jobScheduler.service.JobLogSink;
+import com.jobScheduler.service.JobRevisions;
+import com.jobScheduler.service.JobService;
+import com.jobScheduler.service.JobStatsService;
+import com.jobScheduler.service.QuartzTriggerEngine;
+import com.jobScheduler.service.RetryService;
+import com.jobScheduler.utils.CronExpressionCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.impl.StdSchedulerFactory;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Wires a JobService by hand: real handlers and Quartz, Mongo repositories stubbed with Mockito
+ * and a job log sink that discards, so benchmarks measure our code and not the database.
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static Scheduler ramScheduler() throws SchedulerException {
+        Properties props = new Properties();
+        props.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, "bench-" + UUID.randomUUID());
+        props.setProperty("org.quartz.threadPool.threadCount", "1");
+        props.setProperty(StdSchedulerFactory.PROP_JOB_STORE_CLASS, "org.quartz.simpl.RAMJobStore");
+        return new StdSchedulerFactory(props).getScheduler();
+    }
+
+    static JobRepository jobRepository(Job stored) {
+        JobRepository repository = mock(JobRepository.class);
+        when(repository.findById(anyString())).thenReturn(Optional.ofNullable(stored));
+        when(repository.save(any(Job.class))).thenAnswer(inv -> inv.getArgument(0));
+        return repository;
+    }
+
+    /**
+     * Answers every COUNTDOWN step with a counter that never runs out, like a started countdown.
+     */
+    static MongoTemplate countdownStore() {
+        Job counter = new Job();
+        counter.setRemaining(Long.MAX_VALUE);
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class), any(FindAndModifyOptions.class), eq(Job.class)))
+                .thenReturn(counter);
+        return mongoTemplate;
+    }
+
+    static JobService jobService(Scheduler scheduler, JobRepository jobRepository) throws SchedulerException {
+        JobLogSink discard = log -> { };
+        FileAppenderService fileAppenderService = new FileAppenderService(16, FileAppenderService.FsyncPolicy.NONE);
+        JobActionRegistry registry = new JobActionRegistry(List.of(
+                new PrintMessageHandler(PrintMessageSink.LOG, "print-message.log", fileAppenderService),
+                new CountdownHandler(countdownStore()),
+                new CallApiHandler(5000, 10000, 65536, new OutboundRateLimiter(0, 10, 0, Map.of(), new SimpleMeterRegistry())),
+                new WriteFileHandler(fileAppenderService),
+                new MongoLogHandler(),
+                new SendEmailHandler()));
+        JobDefinitionCache cache = new JobDefinitionCache(jobRepository, mock(JobPayloadStore.class));
+        JobKeyIndex jobKeyIndex = new JobKeyIndex(scheduler, "group1", "tenant-", false);
+        RetryService retryService = new RetryService(scheduler, jobKeyIndex, mock(MongoTemplate.class), cache,
+                mock(DeadLetterRepository.class), 1, 1000, 300_000, 0.5, 0);
+        return new JobService(new QuartzTriggerEngine(scheduler), jobRepository, mock(JobLogRepository.class), discard,
+                cache, registry, mock(MongoTemplate.class), new FireMetrics(new SimpleMeterRegistry()), retryService, jobKeyIndex,
+                new JobStatsService(mock(MongoTemplate.class), new SimpleMeterRegistry(), 48, 90),
+                new JobEventStream(new SimpleMeterRegistry(), 256, 100, 0), new CronExpressionCache(4096),
+                mock(JobRevisions.class), mock(JobPayloadStore.class), 0, 0, true, 16 * 1024 * 1024);
+    }
+}
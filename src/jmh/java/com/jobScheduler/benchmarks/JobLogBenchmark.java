@@ -0,0 +1,82 @@
+package com.jobScheduler.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.jobScheduler.model.JobLog;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building a JobLog the way the fire path does and of mapping it to BSON (what Mongo
+ * inserts) and to JSON (what the logs endpoint returns).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JobLogBenchmark {
+
+    private MappingMongoConverter converter;
+    private ObjectMapper objectMapper;
+    private JobLog sample;
+
+    @Setup
+    public void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        sample = newLog();
+    }
+
+    @Benchmark
+    public JobLog construct() {
+        return newLog();
+    }
+
+    @Benchmark
+    public Document toBson() {
+        Document document = new Document();
+        converter.write(sample, document);
+        return document;
+    }
+
+    @Benchmark
+    public String toJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(sample);
+    }
+
+    private static JobLog newLog() {
+        JobLog log = new JobLog();
+        log.setJobId("65f1c0ffee0000000000abcd");
+        log.setMessage("Executed action: PRINT_MESSAGE");
+        log.setTimestamp(LocalDateTime.ofInstant(new Date().toInstant(), ZoneId.systemDefault()));
+        return log;
+    }
+}
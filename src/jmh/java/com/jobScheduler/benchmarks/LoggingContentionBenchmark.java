@@ -0,0 +1,105 @@
+package com.jobScheduler.benchmarks;
+
+import com.jobScheduler.actions.PrintMessageHandler;
+import com.jobScheduler.actions.PrintMessageSink;
+import com.jobScheduler.model.Job;
+import com.jobScheduler.model.JobDefinition;
+import com.jobScheduler.service.FileAppenderService;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilder;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilderFactory;
+import org.apache.logging.log4j.core.config.builder.impl.BuiltConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PRINT_MESSAGE throughput with eight fire threads writing at once. CONSOLE is the old
+ * synchronized System.out path (pointed at a file so the terminal is not measured),
+ * LOG goes through the async logger's ring buffer, FILE through the group-committing appender.
+ *
+ * The fork uses the blocking queue-full policy so LOG is not flattered by discarded events.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j2.asyncQueueFullPolicy=Default")
+public class LoggingContentionBenchmark {
+
+    @Param({"CONSOLE", "LOG", "FILE"})
+    public PrintMessageSink sink;
+
+    private Path tempDir;
+    private PrintStream originalOut;
+    private FileAppenderService fileAppenderService;
+    private PrintMessageHandler handler;
+    private JobDefinition job;
+
+    @Setup
+    public void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("logging-bench");
+
+        ConfigurationBuilder<BuiltConfiguration> config = ConfigurationBuilderFactory.newConfigurationBuilder();
+        config.add(config.newAppender("File", "RandomAccessFile")
+                .addAttribute("fileName", tempDir.resolve("log.txt").toString())
+                .addAttribute("immediateFlush", false)
+                .add(config.newLayout("PatternLayout").addAttribute("pattern", "%d %t %m%n")));
+        config.add(config.newLogger("jobscheduler.print-message", Level.INFO)
+                .add(config.newAppenderRef("File"))
+                .addAttribute("additivity", false));
+        config.add(config.newRootLogger(Level.ERROR));
+        Configurator.reconfigure(config.build());
+
+        originalOut = System.out;
+        // built the way the JDK builds System.out: autoflush, so each println is a write under the lock
+        System.setOut(new PrintStream(new BufferedOutputStream(new FileOutputStream(tempDir.resolve("out.txt").toFile()), 128), true));
+
+        fileAppenderService = new FileAppenderService(16, FileAppenderService.FsyncPolicy.NONE);
+        handler = new PrintMessageHandler(sink, tempDir.resolve("print.txt").toString(), fileAppenderService);
+
+        Job stored = new Job();
+        stored.setId("bench");
+        stored.setName("bench");
+        stored.setAction("PRINT_MESSAGE");
+        stored.setPayload("hello from a benchmark fire");
+        job = JobDefinition.of(stored, 1);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        System.out.flush();
+        System.setOut(originalOut);
+        fileAppenderService.closeAll();
+        try (var files = Files.walk(tempDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public String print() {
+        return handler.execute(job);
+    }
+}
@@ -0,0 +1,65 @@
+package com.jobScheduler.benchmarks;
+
+import com.jobScheduler.model.Job;
+import com.jobScheduler.service.JobService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JobService.scheduleJob against an in-memory RAMJobStore (scheduler not started, so nothing fires).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScheduleJobBenchmark {
+
+    private Scheduler scheduler;
+    private JobService jobService;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SchedulerException {
+        scheduler = Fixtures.ramScheduler();
+        jobService = Fixtures.jobService(scheduler, Fixtures.jobRepository(null));
+    }
+
+    @Setup(Level.Iteration)
+    public void clearStore() throws SchedulerException {
+        scheduler.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SchedulerException {
+        scheduler.shutdown();
+    }
+
+    @Benchmark
+    public Job scheduleNewJob() throws SchedulerException {
+        long n = sequence++;
+        Job job = new Job();
+        job.setId("id-" + n);
+        job.setName("job-" + n);
+        job.setCronExpression("0 0/5 * * * ?");
+        job.setAction("PRINT_MESSAGE");
+        job.setPayload("hello");
+        jobService.scheduleJob(job);
+        return job;
+    }
+}
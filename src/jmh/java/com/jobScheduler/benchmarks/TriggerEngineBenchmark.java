@@ -0,0 +1,210 @@
+package com.jobScheduler.benchmarks;
+
+import com.jobScheduler.service.QuartzTriggerEngine;
+import com.jobScheduler.service.TriggerEngine;
+import com.jobScheduler.service.WheelTriggerEngine;
+import com.jobScheduler.utils.CronExpressionCache;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.Scheduler;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.quartz.impl.StdSchedulerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Fire-time accuracy and scheduler-thread CPU of the Quartz and timing-wheel trigger engines
+ * with a million second-level crons, spread evenly over each period. Fires only record their
+ * lag, so the numbers are the engines' and not the actions'. Fires, lag percentiles and the CPU
+ * time of the scheduler threads (Quartz's scheduler thread or the wheel shards) over the measured
+ * window are reported as secondary results; the score is the window itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class TriggerEngineBenchmark {
+
+    @Param({"quartz", "wheel"})
+    public String engine;
+
+    @Param({"1000000"})
+    public int triggers;
+
+    /** Seconds between fires of one trigger; must divide 60. */
+    @Param({"10"})
+    public int periodSeconds;
+
+    @Param({"30"})
+    public int windowSeconds;
+
+    /** Quartz instantiates job classes itself, so the fires record into static state. */
+    private static volatile Timer lag;
+    private static final LongAdder fired = new LongAdder();
+
+    private Scheduler scheduler;
+    private TriggerEngine triggerEngine;
+    private ExecutorService fireExecutor;
+
+    /** Secondary results of the measured window, reported by JMH next to the score. */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Report {
+        public long fires;
+        public long expectedFires;
+        public double lagP50Ms;
+        public double lagP99Ms;
+        public double lagP999Ms;
+        public double lagMaxMs;
+        public long schedulerCpuMs;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            fires = expectedFires = schedulerCpuMs = 0;
+            lagP50Ms = lagP99Ms = lagP999Ms = lagMaxMs = 0;
+        }
+    }
+
+    public static class LagJob implements Job {
+        @Override
+        public void execute(JobExecutionContext context) {
+            record(System.currentTimeMillis() - context.getScheduledFireTime().getTime());
+        }
+    }
+
+    private static void record(long lagMs) {
+        lag.record(Math.max(0, lagMs), TimeUnit.MILLISECONDS);
+        fired.increment();
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        Properties props = new Properties();
+        props.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, "bench-" + UUID.randomUUID());
+        props.setProperty("org.quartz.threadPool.threadCount", String.valueOf(threads));
+        props.setProperty(StdSchedulerFactory.PROP_JOB_STORE_CLASS, "org.quartz.simpl.RAMJobStore");
+        // let Quartz acquire as many triggers per pass as it has threads, its best setting for this load
+        props.setProperty("org.quartz.scheduler.batchTriggerAcquisitionMaxCount", String.valueOf(threads));
+        scheduler = new StdSchedulerFactory(props).getScheduler();
+
+        if ("wheel".equals(engine)) {
+            WheelTriggerEngine wheel = new WheelTriggerEngine(scheduler, new SimpleMeterRegistry(), new CronExpressionCache(4096), 10, 0, 256, false);
+            fireExecutor = Executors.newFixedThreadPool(threads);
+            wheel.setFireHandler(batch -> fireExecutor.execute(() -> {
+                long now = System.currentTimeMillis();
+                batch.forEach(fire -> record(now - fire.fireAt()));
+            }));
+            triggerEngine = wheel;
+        } else {
+            triggerEngine = new QuartzTriggerEngine(scheduler);
+        }
+
+        lag = newTimer();
+        Map<JobDetail, Set<? extends Trigger>> batch = new HashMap<>();
+        for (int i = 0; i < triggers; i++) {
+            String id = "bench-" + i;
+            JobDetail detail = JobBuilder.newJob(LagJob.class).withIdentity(id, "group1")
+                    .usingJobData("jobId", id)
+                    .usingJobData("action", "PRINT_MESSAGE")
+                    .build();
+            Trigger trigger = TriggerBuilder.newTrigger().withIdentity(id, "group1")
+                    .withSchedule(CronScheduleBuilder.cronSchedule((i % periodSeconds) + "/" + periodSeconds + " * * * * ?"))
+                    .build();
+            batch.put(detail, Set.of(trigger));
+            if (batch.size() == 10_000) {
+                triggerEngine.scheduleJobs(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) triggerEngine.scheduleJobs(batch);
+
+        if (triggerEngine instanceof WheelTriggerEngine wheel) {
+            wheel.start();
+        } else {
+            scheduler.start();
+        }
+        // one full period to settle, so the window does not include the first fires' catch-up
+        TimeUnit.SECONDS.sleep(periodSeconds);
+    }
+
+    @Benchmark
+    public long fireFor(Report report) throws InterruptedException {
+        lag = newTimer();
+        fired.reset();
+        long before = schedulerCpu();
+        TimeUnit.SECONDS.sleep(windowSeconds);
+        report.schedulerCpuMs = TimeUnit.NANOSECONDS.toMillis(schedulerCpu() - before);
+        report.fires = fired.sum();
+        report.expectedFires = (long) triggers * windowSeconds / periodSeconds;
+        HistogramSnapshot snapshot = lag.takeSnapshot();
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            double ms = value.value(TimeUnit.MILLISECONDS);
+            if (value.percentile() == 0.5) report.lagP50Ms = ms;
+            else if (value.percentile() == 0.99) report.lagP99Ms = ms;
+            else if (value.percentile() == 0.999) report.lagP999Ms = ms;
+        }
+        report.lagMaxMs = snapshot.max(TimeUnit.MILLISECONDS);
+        return report.fires;
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        if (triggerEngine instanceof WheelTriggerEngine wheel) wheel.stop();
+        scheduler.shutdown();
+        if (fireExecutor != null) fireExecutor.shutdownNow();
+    }
+
+    private static Timer newTimer() {
+        return Timer.builder("bench.fire.lag")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(new SimpleMeterRegistry());
+    }
+
+    /** CPU time of the threads that decide what fires, not of the threads that run fires. */
+    private long schedulerCpu() {
+        Predicate<String> schedulerThread = "wheel".equals(engine)
+                ? name -> name.startsWith("wheel-shard-")
+                : name -> name.endsWith("_QuartzSchedulerThread");
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> schedulerThread.test(thread.getName()))
+                .mapToLong(thread -> Math.max(0, threads.getThreadCpuTime(thread.getId())))
+                .sum();
+    }
+}
@@ -0,0 +1,18 @@
+package com.jobScheduler.actions;
+
+/**
+ * Thrown (or used to fail the returned future) by handlers when the action ran but did not succeed,
+ * so the fire is recorded as FAILED instead of being logged as a normal result.
+ */
+public class ActionFailedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ActionFailedException(String message) {
+        super(message);
+    }
+
+    public ActionFailedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
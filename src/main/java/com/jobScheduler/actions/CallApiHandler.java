@@ -0,0 +1,222 @@
+package com.jobScheduler.actions;
+
+import com.jobScheduler.model.JobAction;
+import com.jobScheduler.model.JobDefinition;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calls the URL in the payload with a shared, pooled {@link HttpClient}. The request runs
+ * asynchronously, so the fire thread is free while it is in flight.
+ *
+ * Calls are rate limited per target host and, with ratePerSecond, per job (see OutboundRateLimiter).
+ *
+ * Per-job config keys: readTimeoutMs, maxResponseBytes, logResponse and ratePerSecond. The connect
+ * timeout is the client's, so it is only configurable globally. readTimeoutMs bounds the wait for the
+ * response headers and then each gap between body chunks. Bodies beyond maxResponseBytes, or all of
+ * it when logResponse=false, are read and discarded.
+ */
+@Slf4j
+@Component
+public class CallApiHandler implements JobActionHandler {
+
+    // one client for every job: each HttpClient has its own selector thread and connection pool
+    private final HttpClient client;
+
+    private final long defaultReadTimeoutMs;
+    private final int defaultMaxResponseBytes;
+    private final OutboundRateLimiter rateLimiter;
+
+    public CallApiHandler(@Value("${jobscheduler.http.connect-timeout-ms:5000}") long defaultConnectTimeoutMs,
+                          @Value("${jobscheduler.http.read-timeout-ms:10000}") long defaultReadTimeoutMs,
+                          @Value("${jobscheduler.http.max-response-bytes:65536}") int defaultMaxResponseBytes,
+                          OutboundRateLimiter rateLimiter) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofMillis(defaultConnectTimeoutMs))
+                .build();
+        this.defaultReadTimeoutMs = defaultReadTimeoutMs;
+        this.defaultMaxResponseBytes = defaultMaxResponseBytes;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public JobAction getAction() {
+        return JobAction.CALL_API;
+    }
+
+    @Override
+    public ExecutionKind getExecutionKind() {
+        // waits on the network, though on the HTTP client's threads rather than the caller's
+        return ExecutionKind.BLOCKING;
+    }
+
+    @Override
+    public void validatePayload(String payload) {
+        URI uri;
+        try {
+            uri = URI.create(payload == null ? "" : payload.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("CALL_API payload is not a valid URL: " + e.getMessage());
+        }
+        if (!("http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme())) || uri.getHost() == null) {
+            throw new IllegalArgumentException("CALL_API payload must be an http or https URL");
+        }
+    }
+
+    @Override
+    public String execute(JobDefinition job) {
+        return executeAsync(job).join();
+    }
+
+    @Override
+    public CompletableFuture<String> executeAsync(JobDefinition job) {
+        HttpRequest request;
+        HttpResponse.BodyHandler<String> bodyHandler;
+        long waitNanos;
+        try {
+            long readTimeoutMs = configLong(job, "readTimeoutMs", defaultReadTimeoutMs);
+            int maxBytes = logResponse(job) ? (int) configLong(job, "maxResponseBytes", defaultMaxResponseBytes) : 0;
+            request = HttpRequest.newBuilder(URI.create(job.getPayload()))
+                    .timeout(Duration.ofMillis(readTimeoutMs))
+                    .GET()
+                    .build();
+            bodyHandler = info -> new CappedBodySubscriber(maxBytes, TimeUnit.MILLISECONDS.toNanos(readTimeoutMs));
+            String jobRate = job.getConfig("ratePerSecond", null);
+            double jobRatePerSecond = jobRate == null ? 0 : Double.parseDouble(jobRate);
+            String host = request.uri().getHost();
+            // the shared host bucket first; a call its own bucket refuses gives the host token back
+            waitNanos = rateLimiter.reserveHost(host);
+            if (waitNanos == OutboundRateLimiter.REJECTED) {
+                throw new IllegalStateException("rate limit for " + host + " would delay the call too long");
+            }
+            long jobWait = jobRatePerSecond <= 0 ? 0 : rateLimiter.reserveJob(job.getId(), jobRatePerSecond);
+            if (jobWait == OutboundRateLimiter.REJECTED) {
+                rateLimiter.releaseHost(host);
+                throw new IllegalStateException("job rate limit would delay the call too long");
+            }
+            waitNanos = Math.max(waitNanos, jobWait);
+        } catch (Exception e) {
+            log.warn("[Job {}] API call failed: {}", job.getName(), e.getMessage());
+            return CompletableFuture.failedFuture(new ActionFailedException("API call failed: " + e.getMessage(), e));
+        }
+
+        // a rate-limited call is started later on a timer, no thread waits for its token
+        CompletableFuture<HttpResponse<String>> sent = waitNanos == 0
+                ? client.sendAsync(request, bodyHandler)
+                : CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS))
+                        .thenCompose(ignored -> client.sendAsync(request, bodyHandler));
+        return sent
+                .exceptionally(e -> {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    log.warn("[Job {}] API call failed: {}", job.getName(), cause.toString());
+                    throw new ActionFailedException("API call failed: " + cause, cause);
+                })
+                .thenApply(response -> {
+                    if (response.statusCode() >= 400) {
+                        log.warn("[Job {}] API call failed: HTTP {}", job.getName(), response.statusCode());
+                        throw new ActionFailedException("API call failed: HTTP " + response.statusCode());
+                    }
+                    log.info("[Job {}] API Response ({}): {}", job.getName(), response.statusCode(), response.body());
+                    return "API call successful";
+                });
+    }
+
+    private static boolean logResponse(JobDefinition job) {
+        return Boolean.parseBoolean(job.getConfig("logResponse", "true"));
+    }
+
+    private static long configLong(JobDefinition job, String key, long defaultValue) {
+        String value = job.getConfig(key, null);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+
+    /**
+     * Keeps the first maxBytes of the body and reads past the rest, so the
+     * connection is fully drained and can go back to the pool. Fails the body, and drops
+     * the connection, once no data has arrived for the read timeout.
+     */
+    private static final class CappedBodySubscriber implements HttpResponse.BodySubscriber<String> {
+
+        private final int maxBytes;
+        private final long readTimeoutNanos;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private final CompletableFuture<String> body = new CompletableFuture<>();
+        private volatile Flow.Subscription subscription;
+        private volatile long lastReadNanos;
+
+        CappedBodySubscriber(int maxBytes, long readTimeoutNanos) {
+            this.maxBytes = maxBytes;
+            this.readTimeoutNanos = readTimeoutNanos;
+        }
+
+        @Override
+        public CompletionStage<String> getBody() {
+            return body;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            lastReadNanos = System.nanoTime();
+            checkIdleAfter(readTimeoutNanos);
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        /** One pending timer per body; it re-arms itself while data keeps arriving. */
+        private void checkIdleAfter(long delayNanos) {
+            if (readTimeoutNanos <= 0) return;
+            CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS).execute(() -> {
+                if (body.isDone()) return;
+                long idleNanos = System.nanoTime() - lastReadNanos;
+                if (idleNanos < readTimeoutNanos) {
+                    checkIdleAfter(readTimeoutNanos - idleNanos);
+                    return;
+                }
+                subscription.cancel();
+                body.completeExceptionally(new HttpTimeoutException(
+                        "no response data for " + TimeUnit.NANOSECONDS.toMillis(readTimeoutNanos) + " ms"));
+            });
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+            lastReadNanos = System.nanoTime();
+            for (ByteBuffer item : items) {
+                int room = maxBytes - buffer.size();
+                if (room <= 0) return;
+                int length = Math.min(room, item.remaining());
+                byte[] bytes = new byte[length];
+                item.get(bytes);
+                buffer.write(bytes, 0, length);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            body.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            body.complete(buffer.toString(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.jobScheduler.actions;
+
+import com.jobScheduler.model.Job;
+import com.jobScheduler.model.JobAction;
+import com.jobScheduler.model.JobDefinition;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Counts down from the number in the payload, one step per fire.
+ *
+ * The remaining count lives in the job's remaining field and is decremented on the server with
+ * a single conditional findAndModify, so overlapping fires and cluster nodes never lose or repeat
+ * a step. The payload only holds the start value and is copied into remaining on the first fire.
+ *
+ * Once a countdown is over, later fires with the same cached definition return without asking
+ * Mongo. Saving the job gives it a new definition, which checks the count again.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CountdownHandler implements JobActionHandler {
+
+    private static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+    private final MongoTemplate mongoTemplate;
+    /** Definitions whose countdown is over; weak, so an entry goes when the cache drops its definition. */
+    private final Set<JobDefinition> finished = Collections.newSetFromMap(Collections.synchronizedMap(new WeakHashMap<>()));
+
+    @Override
+    public JobAction getAction() {
+        return JobAction.COUNTDOWN;
+    }
+
+    @Override
+    public ExecutionKind getExecutionKind() {
+        return ExecutionKind.BLOCKING;
+    }
+
+    @Override
+    public void validatePayload(String payload) {
+        try {
+            if (payload != null && Long.parseLong(payload.trim()) > 0) return;
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("COUNTDOWN payload must be a positive whole number");
+    }
+
+    @Override
+    public String execute(JobDefinition job) {
+        Long remaining = null;
+        if (!finished.contains(job)) {
+            remaining = decrement(job.getId());
+            if (remaining == null) remaining = seed(job);
+            if (remaining == null) finished.add(job);
+        }
+        if (remaining != null) {
+            log.info("[Job {}] Countdown: {}", job.getName(), remaining + 1);
+        } else {
+            log.info("[Job {}] Countdown finished!", job.getName());
+        }
+        return "Countdown tick";
+    }
+
+    /**
+     * Takes one step off a started countdown. Returns the count left, or null if the countdown
+     * has not started yet or is already at zero.
+     */
+    private Long decrement(String jobId) {
+        Query query = Query.query(Criteria.where("_id").is(jobId).and("remaining").gt(0));
+        query.fields().include("remaining");
+        Job updated = mongoTemplate.findAndModify(query, new Update().inc("remaining", -1), RETURN_NEW, Job.class);
+        return updated == null ? null : updated.getRemaining();
+    }
+
+    /**
+     * Starts the countdown from the payload, taking the first step. Only one fire can start it;
+     * a fire that loses the race takes its step from the started countdown instead.
+     */
+    private Long seed(JobDefinition job) {
+        long start;
+        try {
+            start = Long.parseLong(String.valueOf(job.getPayload()).trim());
+        } catch (NumberFormatException e) {
+            log.warn("Invalid countdown number for job {}", job.getName());
+            return null;
+        }
+        if (start <= 0) return null;
+
+        Query query = Query.query(Criteria.where("_id").is(job.getId()).and("remaining").exists(false));
+        query.fields().include("remaining");
+        Job updated = mongoTemplate.findAndModify(query, Update.update("remaining", start - 1), RETURN_NEW, Job.class);
+        return updated != null ? updated.getRemaining() : decrement(job.getId());
+    }
+}
@@ -0,0 +1,12 @@
+package com.jobScheduler.actions;
+
+/**
+ * How a handler spends its time. ActionPools routes an action to the pool that lists its kind,
+ * unless a pool lists the action itself.
+ */
+public enum ExecutionKind {
+    /** Mostly waiting on I/O (network, disk, database). */
+    BLOCKING,
+    /** Runs on the CPU and returns quickly. */
+    CPU_BOUND
+}
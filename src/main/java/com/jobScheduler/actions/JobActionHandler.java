@@ -0,0 +1,41 @@
+package com.jobScheduler.actions;
+
+import com.jobScheduler.model.JobAction;
+import com.jobScheduler.model.JobDefinition;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Executes one {@link JobAction}. Implementations are Spring beans and are picked up
+ * by {@link JobActionRegistry}; exactly one handler may be registered per action.
+ */
+public interface JobActionHandler {
+
+    JobAction getAction();
+
+    ExecutionKind getExecutionKind();
+
+    /**
+     * Checks a job's payload when the job is scheduled, so fires never find it unusable.
+     * Throws IllegalArgumentException saying what is wrong. Any payload is accepted by default.
+     */
+    default void validatePayload(String payload) {
+    }
+
+    /**
+     * Runs the action for one fire and returns the message stored in the job log.
+     */
+    String execute(JobDefinition job) throws Exception;
+
+    /**
+     * Asynchronous variant used on the fire path. Handlers that wait on I/O override this
+     * so the calling worker thread is released while the operation is in flight.
+     */
+    default CompletableFuture<String> executeAsync(JobDefinition job) {
+        try {
+            return CompletableFuture.completedFuture(execute(job));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
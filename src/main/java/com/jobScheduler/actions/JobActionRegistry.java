@@ -0,0 +1,39 @@
+package com.jobScheduler.actions;
+
+import com.jobScheduler.model.JobAction;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class JobActionRegistry {
+
+    private final Map<JobAction, JobActionHandler> handlers = new EnumMap<>(JobAction.class);
+
+    public JobActionRegistry(List<JobActionHandler> discovered) {
+        for (JobActionHandler handler : discovered) {
+            JobActionHandler previous = handlers.putIfAbsent(handler.getAction(), handler);
+            if (previous != null) {
+                throw new IllegalStateException("Duplicate handlers for " + handler.getAction() + ": "
+                        + previous.getClass().getName() + " and " + handler.getClass().getName());
+            }
+        }
+    }
+
+    public JobActionHandler resolve(JobAction action) {
+        JobActionHandler handler = handlers.get(action);
+        if (handler == null) {
+            throw new IllegalArgumentException("No handler registered for action " + action);
+        }
+        return handler;
+    }
+
+    /** The execution kind of every action that has a handler, for routing fires to pools. */
+    public Map<JobAction, ExecutionKind> getExecutionKinds() {
+        Map<JobAction, ExecutionKind> kinds = new EnumMap<>(JobAction.class);
+        handlers.forEach((action, handler) -> kinds.put(action, handler.getExecutionKind()));
+        return kinds;
+    }
+}
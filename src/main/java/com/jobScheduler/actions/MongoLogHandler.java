@@ -0,0 +1,27 @@
+package com.jobScheduler.actions;
+
+import com.jobScheduler.model.JobAction;
+import com.jobScheduler.model.JobDefinition;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class MongoLogHandler implements JobActionHandler {
+
+    @Override
+    public JobAction getAction() {
+        return JobAction.MONGO_LOG;
+    }
+
+    @Override
+    public ExecutionKind getExecutionKind() {
+        return ExecutionKind.CPU_BOUND;
+    }
+
+    @Override
+    public String execute(JobDefinition job) {
+        log.info("[Job {}] Insert log into MongoDB: {}", job.getName(), job.getPayload());
+        return "Inserted MongoDB log: " + job.getPayload();
+    }
+}
@@ -0,0 +1,158 @@
+package com.jobScheduler.actions;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets for outbound calls, one per target host and one per job that sets its own rate.
+ *
+ * Callers reserve a token and are told how long to wait for it instead of being refused, so a
+ * burst of fires for one host is spread out at the configured rate rather than failed. Each bucket
+ * is a single AtomicLong holding the time its next token becomes free (GCRA), so reserving is one
+ * compare-and-set with no lock.
+ *
+ * A call that would wait longer than max-delay-ms is refused without taking a token, so a backlog
+ * for a slow host fails fast into the retry policy instead of holding pool slots while it waits.
+ * Buckets that have refilled carry no state and are dropped every prune-interval-ms, so buckets of
+ * deleted jobs and hosts no longer called do not pile up; a later call starts a fresh one.
+ */
+@Component
+public class OutboundRateLimiter {
+
+    /** Returned by the reserve methods when the wait would exceed the maximum delay. */
+    public static final long REJECTED = -1;
+
+    private final double defaultPerHost;
+    private final int burst;
+    private final long maxDelayNanos;
+    private final Map<String, Double> hostRates;
+    private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Timer delays;
+    private final Counter rejected;
+
+    @Autowired
+    public OutboundRateLimiter(Environment environment, MeterRegistry meterRegistry,
+                               @Value("${jobscheduler.rate-limit.per-host:0}") double defaultPerHost,
+                               @Value("${jobscheduler.rate-limit.burst:10}") int burst,
+                               @Value("${jobscheduler.rate-limit.max-delay-ms:10000}") long maxDelayMs) {
+        this(defaultPerHost, burst, maxDelayMs, Binder.get(environment)
+                .bind("jobscheduler.rate-limit.hosts", Bindable.mapOf(String.class, Double.class))
+                .orElse(Map.of()), meterRegistry);
+    }
+
+    /**
+     * @param maxDelayMs longest wait a call may be given before it is refused; 0 never refuses
+     */
+    public OutboundRateLimiter(double defaultPerHost, int burst, long maxDelayMs, Map<String, Double> hostRates,
+                               MeterRegistry meterRegistry) {
+        if (maxDelayMs < 0) throw new IllegalArgumentException("jobscheduler.rate-limit.max-delay-ms must not be negative");
+        this.defaultPerHost = defaultPerHost;
+        this.burst = Math.max(1, burst);
+        this.maxDelayNanos = maxDelayMs == 0 ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.hostRates = Map.copyOf(hostRates);
+        this.delays = Timer.builder("jobscheduler.rate-limit.delay")
+                .description("Time outbound calls waited for a rate limit token")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.rejected = meterRegistry.counter("jobscheduler.rate-limit.rejected");
+    }
+
+    /**
+     * Reserves a token for a call to the host and returns how many nanoseconds the caller must
+     * wait before making it; 0 when the host is not limited, REJECTED when the wait would be
+     * longer than the maximum delay.
+     */
+    public long reserveHost(String host) {
+        if (host == null) return 0;
+        double rate = hostRates.getOrDefault(host, defaultPerHost);
+        return reserve("host:" + host, rate, burst);
+    }
+
+    /**
+     * Hands back a token taken by reserveHost for a call that will not be made, so the next call
+     * to the host does not wait for it.
+     */
+    public void releaseHost(String host) {
+        if (host == null) return;
+        double rate = hostRates.getOrDefault(host, defaultPerHost);
+        if (rate <= 0) return;
+        Bucket bucket = buckets.get("host:" + host);
+        if (bucket != null) bucket.release((long) (TimeUnit.SECONDS.toNanos(1) / rate));
+    }
+
+    /**
+     * Reserves a token from the job's own bucket of ratePerSecond calls, without bursts.
+     */
+    public long reserveJob(String jobId, double ratePerSecond) {
+        return reserve("job:" + jobId, ratePerSecond, 1);
+    }
+
+    private long reserve(String key, double ratePerSecond, int burstSize) {
+        if (ratePerSecond <= 0) return 0;
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket());
+        long wait = bucket.reserve(System.nanoTime(), interval, (burstSize - 1) * interval, maxDelayNanos);
+        if (wait == REJECTED) {
+            rejected.increment();
+        } else {
+            delays.record(wait, TimeUnit.NANOSECONDS);
+        }
+        return wait;
+    }
+
+    /**
+     * Drops buckets that have refilled. A reservation racing with the removal may land in the
+     * dropped bucket, which at most lets one extra call through.
+     */
+    @Scheduled(initialDelayString = "${jobscheduler.rate-limit.prune-interval-ms:60000}",
+            fixedDelayString = "${jobscheduler.rate-limit.prune-interval-ms:60000}")
+    public void prune() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.idle(now));
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    static final class Bucket {
+        // theoretical arrival time: when the bucket would be empty again at the configured rate
+        private final AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+
+        long reserve(long now, long interval, long tolerance, long maxWait) {
+            while (true) {
+                long current = tat.get();
+                long start = current == Long.MIN_VALUE ? now : Math.max(current, now);
+                long wait = Math.max(0, start - tolerance - now);
+                if (wait > maxWait) return REJECTED;
+                if (tat.compareAndSet(current, start + interval)) {
+                    return wait;
+                }
+            }
+        }
+
+        void release(long interval) {
+            tat.getAndUpdate(current -> current == Long.MIN_VALUE ? current : current - interval);
+        }
+
+        /** Whether the bucket is full again, so a fresh one would behave the same. */
+        boolean idle(long now) {
+            long current = tat.get();
+            return current == Long.MIN_VALUE || current - now <= 0;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.jobScheduler.actions;
+
+import com.jobScheduler.model.JobAction;
+import com.jobScheduler.model.JobDefinition;
+import com.jobScheduler.service.FileAppenderService;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+
+@Component
+public class PrintMessageHandler implements JobActionHandler {
+
+    /**
+     * Job output is data, not diagnostics, so it is logged one step above INFO: the async ring buffer drops INFO and
+     * below when full, and this level waits for space instead.
+     */
+    static final Level OUTPUT = Level.forName("OUTPUT", 350);
+
+    private static final Logger output = LogManager.getLogger("jobscheduler.print-message");
+
+    private final PrintMessageSink sink;
+    private final String file;
+    private final FileAppenderService fileAppenderService;
+
+    public PrintMessageHandler(@Value("${jobscheduler.print-message.sink:LOG}") PrintMessageSink sink,
+                               @Value("${jobscheduler.print-message.file:print-message.log}") String file,
+                               FileAppenderService fileAppenderService) {
+        this.sink = sink;
+        this.file = file;
+        this.fileAppenderService = fileAppenderService;
+    }
+
+    @Override
+    public JobAction getAction() {
+        return JobAction.PRINT_MESSAGE;
+    }
+
+    @Override
+    public ExecutionKind getExecutionKind() {
+        return ExecutionKind.CPU_BOUND;
+    }
+
+    @Override
+    public String execute(JobDefinition job) {
+        return executeAsync(job).join();
+    }
+
+    @Override
+    public CompletableFuture<String> executeAsync(JobDefinition job) {
+        switch (sink) {
+            case LOG -> output.log(OUTPUT, "[Job {}] {}", job.getName(), job.getPayload());
+            case CONSOLE -> System.out.println("[Job " + job.getName() + "] " + job.getPayload());
+            case FILE -> {
+                try {
+                    return fileAppenderService.append(file, "[Job " + job.getName() + "] " + job.getPayload())
+                            .thenApply(v -> job.getPayload());
+                } catch (Exception e) {
+                    return CompletableFuture.failedFuture(new ActionFailedException("Print to file failed: " + e.getMessage(), e));
+                }
+            }
+            case NONE -> {
+            }
+        }
+        return CompletableFuture.completedFuture(job.getPayload());
+    }
+}
@@ -0,0 +1,10 @@
+package com.jobScheduler.actions;
+
+/**
+ * Where PRINT_MESSAGE writes its payload. LOG goes through the async logger, FILE appends to
+ * jobscheduler.print-message.file with group commit, CONSOLE is the old synchronized
+ * System.out path, and NONE only records the payload in the job log.
+ */
+public enum PrintMessageSink {
+    LOG, FILE, CONSOLE, NONE
+}
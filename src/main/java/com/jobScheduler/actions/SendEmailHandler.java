@@ -0,0 +1,38 @@
+package com.jobScheduler.actions;
+
+import com.jobScheduler.model.JobAction;
+import com.jobScheduler.model.JobDefinition;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.regex.Pattern;
+
+@Slf4j
+@Component
+public class SendEmailHandler implements JobActionHandler {
+
+    private static final Pattern ADDRESS = Pattern.compile("[^@\\s]+@[^@\\s]+\\.[^@\\s]+");
+
+    @Override
+    public JobAction getAction() {
+        return JobAction.SEND_EMAIL;
+    }
+
+    @Override
+    public ExecutionKind getExecutionKind() {
+        return ExecutionKind.CPU_BOUND;
+    }
+
+    @Override
+    public void validatePayload(String payload) {
+        if (payload == null || !ADDRESS.matcher(payload.trim()).matches()) {
+            throw new IllegalArgumentException("SEND_EMAIL payload must be an email address");
+        }
+    }
+
+    @Override
+    public String execute(JobDefinition job) {
+        log.info("[Job {}] Sending fake email to {}", job.getName(), job.getPayload());
+        return "Fake email sent to " + job.getPayload();
+    }
+}
@@ -0,0 +1,68 @@
+package com.jobScheduler.actions;
+
+import com.jobScheduler.model.JobAction;
+import com.jobScheduler.model.JobDefinition;
+import com.jobScheduler.service.FileAppenderService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WriteFileHandler implements JobActionHandler {
+
+    private final FileAppenderService fileAppenderService;
+
+    @Override
+    public JobAction getAction() {
+        return JobAction.WRITE_FILE;
+    }
+
+    @Override
+    public ExecutionKind getExecutionKind() {
+        return ExecutionKind.BLOCKING;
+    }
+
+    @Override
+    public void validatePayload(String payload) {
+        if (payload == null || payload.isBlank()) {
+            throw new IllegalArgumentException("WRITE_FILE payload must be a file path");
+        }
+        try {
+            Path.of(payload);
+        } catch (InvalidPathException e) {
+            throw new IllegalArgumentException("WRITE_FILE payload is not a valid path: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String execute(JobDefinition job) {
+        return executeAsync(job).join();
+    }
+
+    @Override
+    public CompletableFuture<String> executeAsync(JobDefinition job) {
+        CompletableFuture<Void> written;
+        try {
+            written = fileAppenderService.append(job.getPayload(), "Log from job " + job.getName() + " at " + new Date());
+        } catch (Exception e) {
+            written = CompletableFuture.failedFuture(e);
+        }
+        return written
+                .thenApply(v -> {
+                    log.debug("[Job {}] Wrote to file {}", job.getName(), job.getPayload());
+                    return "File write successful";
+                })
+                .exceptionally(e -> {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    log.warn("[Job {}] File write failed: {}", job.getName(), cause.getMessage());
+                    throw new ActionFailedException("File write failed: " + cause.getMessage(), cause);
+                });
+    }
+}
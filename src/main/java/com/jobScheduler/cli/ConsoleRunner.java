@@ -8,7 +8,8 @@ import org.springframework.stereotype.Component;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
-import java.util.List;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 
 @Component
 @RequiredArgsConstructor
@@ -31,6 +32,14 @@ public class ConsoleRunner implements CommandLineRunner {
         }).start();
     }
 
+    private static final String LOGS_USAGE =
+            "Usage: logs <jobId> [limit] [before] [after]  (timestamps like 2026-01-01T12:00:00, '-' to skip one)";
+
+    /** An ISO local timestamp, or null for "-". */
+    private static LocalDateTime timestamp(String value) {
+        return "-".equals(value) ? null : LocalDateTime.parse(value);
+    }
+
     private void printHelp() {
         System.out.println("Console CLI: available commands:");
         System.out.println("  list                      -> list all jobs");
@@ -38,7 +47,7 @@ public class ConsoleRunner implements CommandLineRunner {
         System.out.println("  pause <jobId>             -> pause job");
         System.out.println("  resume <jobId>            -> resume job");
         System.out.println("  delete <jobId>            -> delete job");
-        System.out.println("  logs <jobId>              -> show last logs for job");
+        System.out.println("  logs <jobId> [limit] [before] [after] -> show logs for job, newest first (before/after: ISO timestamps, '-' to skip)");
         System.out.println("  help                      -> show this help");
     }
 
@@ -51,9 +60,13 @@ public class ConsoleRunner implements CommandLineRunner {
 
             switch (cmd.toLowerCase()) {
                 case "list":
-                    List<Job> jobs = jobService.listAllJobs();
-                    jobs.forEach(j -> System.out.println(j.getId() + " | " + j.getName() + " | " + j.getStatus() + " | "
-                            + j.getCronExpression() + " | action=" + j.getAction()));
+                    String cursor = null;
+                    do {
+                        JobService.JobPage page = jobService.listJobs(null, null, null, cursor, 500, null);
+                        page.jobs().forEach(j -> System.out.println(j.getId() + " | " + j.getName() + " | " + j.getStatus() + " | "
+                                + j.getCronExpression() + " | action=" + j.getAction()));
+                        cursor = page.nextCursor();
+                    } while (cursor != null);
                     break;
 
                 case "schedule":
@@ -146,11 +159,24 @@ public class ConsoleRunner implements CommandLineRunner {
                     break;
 
                 case "logs":
-                    if (parts.length < 2) {
-                        System.out.println("Usage: logs <jobId>");
+                    if (parts.length < 2 || parts.length > 5) {
+                        System.out.println(LOGS_USAGE);
+                        break;
+                    }
+                    int limit;
+                    LocalDateTime before;
+                    LocalDateTime after;
+                    try {
+                        limit = parts.length > 2 && !"-".equals(parts[2]) ? Integer.parseInt(parts[2]) : 20;
+                        before = parts.length > 3 ? timestamp(parts[3]) : null;
+                        after = parts.length > 4 ? timestamp(parts[4]) : null;
+                    } catch (NumberFormatException | DateTimeParseException e) {
+                        System.out.println("Invalid argument: " + e.getMessage());
+                        System.out.println(LOGS_USAGE);
                         break;
                     }
-                    jobService.getJobLogs(parts[1]).forEach(System.out::println);
+                    jobService.getJobLogs(parts[1], limit, before, after).forEach(l -> System.out.println(
+                            l.getTimestamp() + " | " + l.getStatus() + " | " + l.getMessage()));
                     break;
 
                 case "help":
@@ -0,0 +1,11 @@
+package com.jobScheduler.config;
+
+/**
+ * Thread model used to run Quartz fires.
+ */
+public enum FireExecutionMode {
+    /** Quartz SimpleThreadPool with a fixed number of platform threads. */
+    PLATFORM,
+    /** One virtual thread per fire (Java 21+); falls back to a thread per fire on older JVMs. */
+    VIRTUAL
+}
@@ -0,0 +1,60 @@
+package com.jobScheduler.config;
+
+import com.jobScheduler.model.DeadLetter;
+import com.jobScheduler.model.Job;
+import com.jobScheduler.model.JobLog;
+import com.jobScheduler.model.JobStats;
+import com.jobScheduler.model.WorkflowRun;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Creates the indexes declared on the documents once the application is up. Spring Boot leaves
+ * auto-index-creation off, so without this the annotations would only be documentation.
+ * Runs in the background so startup does not wait for Mongo.
+ */
+@Slf4j
+@Component
+public class MongoIndexInitializer {
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+    private final boolean enabled;
+
+    public MongoIndexInitializer(MongoTemplate mongoTemplate, MongoMappingContext mappingContext,
+                                 @Value("${jobscheduler.mongo.ensure-indexes:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = mappingContext;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexesAsync() {
+        if (!enabled) return;
+        Thread thread = new Thread(this::ensureIndexes, "mongo-index-init");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void ensureIndexes() {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        for (Class<?> type : List.of(Job.class, JobLog.class, JobStats.class, DeadLetter.class, WorkflowRun.class)) {
+            try {
+                IndexOperations indexOps = mongoTemplate.indexOps(type);
+                resolver.resolveIndexFor(type).forEach(indexOps::ensureIndex);
+            } catch (Exception e) {
+                log.warn("Could not create indexes for {}: {}", type.getSimpleName(), e.getMessage());
+            }
+        }
+    }
+}
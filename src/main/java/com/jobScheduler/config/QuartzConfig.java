@@ -1,13 +1,33 @@
 package com.jobScheduler.config;
 
+import com.jobScheduler.jobs.ActionPools;
+import com.jobScheduler.service.FireMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 import org.springframework.scheduling.quartz.SchedulerFactoryBean;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Properties;
+
+@Slf4j
 @Configuration
 public class QuartzConfig {
 
+    /** Every node must use the same scheduler name to join the same cluster. */
+    public static final String CLUSTER_SCHEDULER_NAME = "job-scheduler";
+
     private final ApplicationContext applicationContext;
 
     public QuartzConfig(ApplicationContext applicationContext) {
@@ -22,9 +42,96 @@ public class QuartzConfig {
     }
 
     @Bean
-    public SchedulerFactoryBean schedulerFactoryBean(AutowiringSpringBeanJobFactory jobFactory) {
+    public SchedulerFactoryBean schedulerFactoryBean(AutowiringSpringBeanJobFactory jobFactory,
+                                                     FireMetrics fireMetrics,
+                                                     ActionPools actionPools,
+                                                     @Value("${jobscheduler.executor.mode:PLATFORM}") FireExecutionMode mode,
+                                                     @Value("${jobscheduler.executor.platform-threads:10}") int platformThreads,
+                                                     @Value("${jobscheduler.cluster.enabled:false}") boolean clustered,
+                                                     @Value("${jobscheduler.cluster.checkin-interval-ms:7500}") long checkinIntervalMs,
+                                                     @Value("${jobscheduler.cluster.driver-delegate:org.quartz.impl.jdbcjobstore.StdJDBCDelegate}") String driverDelegate,
+                                                     @Value("${jobscheduler.cluster.schema-script:classpath:org/quartz/impl/jdbcjobstore/tables_h2.sql}") Resource schemaScript,
+                                                     ObjectProvider<DataSource> dataSource,
+                                                     ObjectProvider<PlatformTransactionManager> transactionManager) {
         SchedulerFactoryBean factory = new SchedulerFactoryBean();
         factory.setJobFactory(jobFactory);
+        factory.setGlobalTriggerListeners(fireMetrics, actionPools);
+        Properties props = new Properties();
+        applyExecutionMode(factory, props, mode, platformThreads);
+        if (clustered) {
+            DataSource clusterDataSource = dataSource.getObject();
+            initializeSchema(clusterDataSource, schemaScript);
+            applyClusterMode(factory, props, clusterDataSource, transactionManager.getIfAvailable(),
+                    checkinIntervalMs, driverDelegate);
+        }
+        factory.setQuartzProperties(props);
         return factory;
     }
+
+    /**
+     * Moves Quartz from the in-memory RAMJobStore to the shared JDBC job store in clustered mode.
+     * Nodes take a row lock to acquire triggers, so each fire runs on exactly one node, and a node
+     * that stops checking in has its triggers and in-flight recoverable jobs taken over by the rest.
+     */
+    public static void applyClusterMode(SchedulerFactoryBean factory, Properties quartzProperties,
+                                        DataSource dataSource, PlatformTransactionManager transactionManager,
+                                        long checkinIntervalMs, String driverDelegate) {
+        factory.setDataSource(dataSource);
+        if (transactionManager != null) {
+            factory.setTransactionManager(transactionManager);
+        }
+        factory.setSchedulerName(CLUSTER_SCHEDULER_NAME);
+        quartzProperties.setProperty("org.quartz.scheduler.instanceId", "AUTO");
+        quartzProperties.setProperty("org.quartz.jobStore.isClustered", "true");
+        quartzProperties.setProperty("org.quartz.jobStore.clusterCheckinInterval", String.valueOf(checkinIntervalMs));
+        quartzProperties.setProperty("org.quartz.jobStore.driverDelegateClass", driverDelegate);
+        quartzProperties.setProperty("org.quartz.jobStore.tablePrefix", "QRTZ_");
+        quartzProperties.setProperty("org.quartz.jobStore.acquireTriggersWithinLock", "true");
+    }
+
+    /**
+     * Creates the Quartz tables from the given script unless they already exist, so the first
+     * node to start against an empty database sets it up and the others leave it alone.
+     */
+    public static void initializeSchema(DataSource dataSource, Resource schemaScript) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (hasTable(connection.getMetaData(), "QRTZ_JOB_DETAILS")) return;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot inspect the Quartz job store schema", e);
+        }
+        new ResourceDatabasePopulator(schemaScript).execute(dataSource);
+        log.info("Created Quartz job store tables from {}", schemaScript.getDescription());
+    }
+
+    private static boolean hasTable(DatabaseMetaData metaData, String table) throws SQLException {
+        for (String name : new String[]{table, table.toLowerCase()}) {
+            try (ResultSet tables = metaData.getTables(null, null, name, null)) {
+                if (tables.next()) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * PLATFORM keeps Quartz's SimpleThreadPool; VIRTUAL hands each fire to a new virtual thread
+     * through Quartz's LocalTaskExecutorThreadPool, so blocked jobs no longer hold a pool slot.
+     */
+    public static void applyExecutionMode(SchedulerFactoryBean factory, Properties quartzProperties,
+                                          FireExecutionMode mode, int platformThreads) {
+        if (mode == FireExecutionMode.VIRTUAL) {
+            factory.setTaskExecutor(fireExecutor());
+        } else {
+            quartzProperties.setProperty("org.quartz.threadPool.threadCount", String.valueOf(platformThreads));
+        }
+    }
+
+    private static SimpleAsyncTaskExecutor fireExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("quartz-fire-");
+        if (Runtime.version().feature() >= 21) {
+            executor.setVirtualThreads(true);
+        } else {
+            log.warn("Virtual threads need Java 21+, running fires on one platform thread each instead");
+        }
+        return executor;
+    }
 }
@@ -1,13 +1,35 @@
 package com.jobScheduler.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jobScheduler.model.BulkItemResult;
+import com.jobScheduler.model.BulkJobSelector;
 import com.jobScheduler.model.Job;
+import com.jobScheduler.model.JobAction;
+import com.jobScheduler.service.BulkJobService;
+import com.jobScheduler.service.JobEventStream;
 import com.jobScheduler.service.JobService;
+import com.jobScheduler.service.JobStatsService;
+import com.jobScheduler.service.RetryService;
+import com.jobScheduler.utils.CronUtils;
 import lombok.RequiredArgsConstructor;
 import org.quartz.SchedulerException;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/jobs")
@@ -15,12 +37,21 @@ import java.util.List;
 public class JobController {
 
     private final JobService jobService;
-    
+    private final BulkJobService bulkJobService;
+    private final RetryService retryService;
+    private final JobStatsService jobStatsService;
+    private final JobEventStream jobEventStream;
+    private final ObjectMapper objectMapper;
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
 
     @PostMapping("/schedule")
     public ResponseEntity<?> scheduleJob(@RequestBody Job job) {
         try {
             if (job.getId() == null) {
+                // validate before the first save, as the bulk path does, so a rejected job is not persisted
+                jobService.validatePayload(job);
+                jobService.compileCron(job.getCronExpression(), CronUtils.timeZone(job.getTimeZone()));
                 job = jobService.saveJob(job);
             }
             jobService.scheduleJob(job);
@@ -32,9 +63,74 @@ public class JobController {
         }
     }
 
+    /**
+     * One page of jobs as a JSON array. When more jobs follow, the X-Next-Cursor header holds
+     * the value to pass as after for the next page.
+     */
     @GetMapping("/list")
-    public ResponseEntity<List<Job>> listJobs() {
-        return ResponseEntity.ok(jobService.listAllJobs());
+    public ResponseEntity<List<Job>> listJobs(@RequestParam(required = false) String status,
+                                              @RequestParam(required = false) String action,
+                                              @RequestParam(required = false) String namePrefix,
+                                              @RequestParam(required = false) String after,
+                                              @RequestParam(defaultValue = "100") int limit,
+                                              @RequestParam(required = false) List<String> fields) {
+        JobService.JobPage page = jobService.listJobs(status, action, namePrefix, after, limit, fields);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header("X-Next-Cursor", page.nextCursor());
+        }
+        return response.body(page.jobs());
+    }
+
+    /**
+     * Every matching job as NDJSON, written straight from the Mongo cursor.
+     */
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamJobs(@RequestParam(required = false) String status,
+                                                            @RequestParam(required = false) String action,
+                                                            @RequestParam(required = false) String namePrefix,
+                                                            @RequestParam(required = false) List<String> fields) {
+        StreamingResponseBody body = out -> {
+            try (Stream<Job> jobs = jobService.streamJobs(status, action, namePrefix, fields)) {
+                Iterator<Job> it = jobs.iterator();
+                while (it.hasNext()) {
+                    out.write(objectMapper.writeValueAsBytes(it.next()));
+                    out.write('\n');
+                }
+            }
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    @GetMapping("/cron/next")
+    public ResponseEntity<?> previewCron(@RequestParam String expression,
+                                         @RequestParam(required = false) String timeZone,
+                                         @RequestParam(defaultValue = "5") int count) {
+        try {
+            return ResponseEntity.ok(jobService.previewCron(expression, timeZone, count));
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(iae.getMessage());
+        }
+    }
+
+    @GetMapping("/next/{jobId}")
+    public ResponseEntity<?> previewJob(@PathVariable String jobId,
+                                        @RequestParam(defaultValue = "5") int count) {
+        try {
+            return jobService.previewJob(jobId, count)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.badRequest().body("Job not found"));
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(iae.getMessage());
+        }
+    }
+
+    @GetMapping("/status/{jobId}")
+    public ResponseEntity<?> status(@PathVariable String jobId) {
+        return jobService.getScheduledStatus(jobId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.badRequest().body("Job not scheduled"));
     }
 
     @PostMapping("/pause/{jobId}")
@@ -71,7 +167,121 @@ public class JobController {
     }
 
     @GetMapping("/logs/{jobId}")
-    public ResponseEntity<?> logs(@PathVariable String jobId) {
-        return ResponseEntity.ok(jobService.getJobLogs(jobId));
+    public ResponseEntity<?> logs(@PathVariable String jobId,
+                                  @RequestParam(defaultValue = "50") int limit,
+                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime after) {
+        return ResponseEntity.ok(jobService.getJobLogs(jobId, limit, before, after));
+    }
+
+    /**
+     * Server-sent events for every fire (FIRED) and its outcome (SUCCESS, FAILED or SHED) as it
+     * happens, optionally narrowed to some jobs, actions or event types. Clients that fall
+     * events.buffer-size events behind are disconnected.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> events(@RequestParam(required = false) List<String> jobId,
+                                    @RequestParam(required = false) List<String> action,
+                                    @RequestParam(required = false) List<String> status) {
+        try {
+            Set<String> actions = new HashSet<>();
+            if (action != null) action.forEach(name -> actions.add(JobAction.fromString(name).name()));
+            Set<JobEventStream.Type> types = EnumSet.noneOf(JobEventStream.Type.class);
+            if (status != null) status.forEach(name -> types.add(eventType(name)));
+            JobEventStream.Filter filter = new JobEventStream.Filter(
+                    jobId == null ? Set.of() : Set.copyOf(jobId), actions, types);
+            return ResponseEntity.ok(jobEventStream.subscribe(filter));
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(iae.getMessage());
+        } catch (IllegalStateException ise) {
+            return ResponseEntity.status(503).body(ise.getMessage());
+        }
+    }
+
+    private static JobEventStream.Type eventType(String name) {
+        try {
+            return JobEventStream.Type.valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown event status: " + name + " (FIRED, SUCCESS, FAILED or SHED)");
+        }
+    }
+
+    /**
+     * Execution counts, failures and duration percentiles of one job: all-time totals plus the
+     * last minutes minute buckets and hours hour buckets, newest first, from pre-aggregated stats.
+     */
+    @GetMapping("/{jobId}/stats")
+    public ResponseEntity<?> stats(@PathVariable String jobId,
+                                   @RequestParam(defaultValue = "60") int minutes,
+                                   @RequestParam(defaultValue = "24") int hours) {
+        try {
+            return ResponseEntity.ok(jobStatsService.getStats(JobStatsService.Scope.JOB, jobId, minutes, hours));
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(iae.getMessage());
+        }
+    }
+
+    /** The same stats summed over every job with the given action. */
+    @GetMapping("/actions/{action}/stats")
+    public ResponseEntity<?> actionStats(@PathVariable String action,
+                                         @RequestParam(defaultValue = "60") int minutes,
+                                         @RequestParam(defaultValue = "24") int hours) {
+        try {
+            return ResponseEntity.ok(jobStatsService.getStats(JobStatsService.Scope.ACTION,
+                    JobAction.fromString(action).name(), minutes, hours));
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(iae.getMessage());
+        }
+    }
+
+    @GetMapping("/dead-letters")
+    public ResponseEntity<?> deadLetters(@RequestParam(required = false) String jobId,
+                                         @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(retryService.getDeadLetters(jobId, limit));
+    }
+
+    @PostMapping(value = "/bulk/schedule", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> bulkSchedule(@RequestBody List<Job> jobs) {
+        return ndjson(results -> bulkJobService.scheduleJobs(jobs, results));
+    }
+
+    @PostMapping(value = "/bulk/{operation}", produces = "application/x-ndjson")
+    public ResponseEntity<?> bulkApply(@PathVariable String operation, @RequestBody BulkJobSelector selector) {
+        BulkJobService.Operation op;
+        Query query;
+        try {
+            op = BulkJobService.Operation.valueOf(operation.toUpperCase());
+            query = bulkJobService.toQuery(selector);
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(iae.getMessage());
+        }
+        return ndjson(results -> bulkJobService.apply(op, query, results));
+    }
+
+    private interface BulkWork {
+        void run(Consumer<BulkItemResult> results) throws SchedulerException;
+    }
+
+    /**
+     * Streams one JSON line per job result as the bulk work produces them.
+     */
+    private ResponseEntity<StreamingResponseBody> ndjson(BulkWork work) {
+        StreamingResponseBody body = out -> {
+            Consumer<BulkItemResult> writer = result -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(result));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+            try {
+                work.run(writer);
+            } catch (SchedulerException se) {
+                writer.accept(new BulkItemResult(null, null, false, "Scheduler error: " + se.getMessage()));
+            }
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
     }
 }
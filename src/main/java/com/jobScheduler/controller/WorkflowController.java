@@ -0,0 +1,51 @@
+package com.jobScheduler.controller;
+
+import com.jobScheduler.model.Workflow;
+import com.jobScheduler.service.WorkflowService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/workflows")
+@RequiredArgsConstructor
+public class WorkflowController {
+
+    private final WorkflowService workflowService;
+
+    @PostMapping
+    public ResponseEntity<?> saveWorkflow(@RequestBody Workflow workflow) {
+        try {
+            return ResponseEntity.ok(workflowService.saveWorkflow(workflow));
+        } catch (IllegalArgumentException iae) {
+            return ResponseEntity.badRequest().body(iae.getMessage());
+        }
+    }
+
+    @GetMapping("/{workflowId}")
+    public ResponseEntity<?> getWorkflow(@PathVariable String workflowId) {
+        return workflowService.getWorkflow(workflowId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.badRequest().body("Workflow not found"));
+    }
+
+    @PostMapping("/{workflowId}/runs")
+    public ResponseEntity<?> startRun(@PathVariable String workflowId) {
+        return workflowService.startRun(workflowId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.badRequest().body("Workflow not found"));
+    }
+
+    @GetMapping("/{workflowId}/runs")
+    public ResponseEntity<?> runs(@PathVariable String workflowId,
+                                  @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(workflowService.getRuns(workflowId, limit));
+    }
+
+    @GetMapping("/runs/{runId}")
+    public ResponseEntity<?> getRun(@PathVariable String runId) {
+        return workflowService.getRun(runId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.badRequest().body("Workflow run not found"));
+    }
+}
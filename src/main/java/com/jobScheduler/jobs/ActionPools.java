@@ -0,0 +1,349 @@
+package com.jobScheduler.jobs;
+
+import com.jobScheduler.actions.ExecutionKind;
+import com.jobScheduler.actions.JobActionRegistry;
+import com.jobScheduler.model.JobAction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.JobExecutionContext;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.quartz.TriggerKey;
+import org.quartz.listeners.TriggerListenerSupport;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded worker pools for groups of actions, configured with
+ * jobscheduler.executor.pools.&lt;name&gt;.{actions,kinds,threads,queue-capacity,when-full,defer-ms}.
+ *
+ * A pool runs the actions it lists, and every other action whose handler reports one of its
+ * kinds through {@link com.jobScheduler.actions.JobActionHandler#getExecutionKind()}, so a new
+ * BLOCKING handler lands in the I/O pool without a config change.
+ *
+ * A Quartz thread only hands a pooled fire over, so slow actions in one pool cannot starve the
+ * others; actions without a pool still run on the Quartz thread. Each pool runs at most threads
+ * fires at once, async actions included, and queues up to queue-capacity more, highest trigger
+ * priority first. A fire that finds the pool full is deferred by defer-ms through a one-shot
+ * trigger (DEFER) or dropped and logged as SHED (SHED).
+ *
+ * A fire holds its slot until its future completes, not the pool thread: async actions count
+ * against threads while they are in flight, but the thread goes back to the pool as soon as the
+ * action has been started. Fires still queued at shutdown are shed.
+ *
+ * The per-action caps of jobscheduler.executor.limits.&lt;ACTION&gt; were replaced by the pools and
+ * are rejected at startup, so a cap that is still configured is not silently ignored.
+ *
+ * Also a global trigger listener, so misfires can be counted per pool.
+ */
+@Slf4j
+@Component
+public class ActionPools extends TriggerListenerSupport {
+
+    public static final String DEFERRED_GROUP = "deferred";
+    /** Pool tag for misfires of actions that run on the Quartz threads. */
+    public static final String QUARTZ_POOL = "quartz";
+
+    public enum WhenFull { DEFER, SHED }
+
+    @Getter @Setter
+    public static class Settings {
+        private List<JobAction> actions = List.of();
+        private List<ExecutionKind> kinds = List.of();
+        private int threads = 4;
+        private int queueCapacity = 100;
+        private WhenFull whenFull = WhenFull.DEFER;
+        private long deferMs = 1000;
+    }
+
+    private final Map<JobAction, Pool> pools = new EnumMap<>(JobAction.class);
+    private final List<Pool> all = new ArrayList<>();
+    private final Counter quartzMisfires;
+
+    @Autowired
+    public ActionPools(Environment environment, JobActionRegistry actionRegistry, MeterRegistry meterRegistry) {
+        this(bindPools(Binder.get(environment)), actionRegistry.getExecutionKinds(), meterRegistry);
+    }
+
+    /**
+     * Pools from the settings; kinds gives the execution kind of each action that has a handler.
+     */
+    public ActionPools(Map<String, Settings> settings, Map<JobAction, ExecutionKind> kinds, MeterRegistry meterRegistry) {
+        Map<ExecutionKind, Pool> byKind = new EnumMap<>(ExecutionKind.class);
+        settings.forEach((name, poolSettings) -> {
+            Pool pool = new Pool(name, poolSettings, meterRegistry);
+            all.add(pool);
+            for (JobAction action : poolSettings.getActions()) {
+                Pool previous = pools.putIfAbsent(action, pool);
+                if (previous != null) {
+                    throw new IllegalStateException("Action " + action + " is in pools " + previous.getName() + " and " + name);
+                }
+            }
+            for (ExecutionKind kind : poolSettings.getKinds()) {
+                Pool previous = byKind.putIfAbsent(kind, pool);
+                if (previous != null) {
+                    throw new IllegalStateException("Kind " + kind + " is in pools " + previous.getName() + " and " + name);
+                }
+            }
+        });
+        // an action listed by a pool stays there; the rest follow their handler's kind
+        kinds.forEach((action, kind) -> {
+            Pool pool = byKind.get(kind);
+            if (pool != null) pools.putIfAbsent(action, pool);
+        });
+        this.quartzMisfires = meterRegistry.counter("jobscheduler.pool.misfires", "pool", QUARTZ_POOL);
+    }
+
+    private static Map<String, Settings> bindPools(Binder binder) {
+        Map<String, Integer> limits = binder.bind("jobscheduler.executor.limits", Bindable.mapOf(String.class, Integer.class))
+                .orElse(Map.of());
+        if (!limits.isEmpty()) {
+            throw new IllegalStateException("jobscheduler.executor.limits is no longer supported, found limits for "
+                    + limits.keySet() + ": put those actions in a pool under jobscheduler.executor.pools.<name> "
+                    + "and cap them with its threads instead");
+        }
+        return binder.bind("jobscheduler.executor.pools", Bindable.mapOf(String.class, Settings.class)).orElse(Map.of());
+    }
+
+    /**
+     * The pool that runs the action, or null if it runs on the Quartz thread.
+     */
+    public Pool poolFor(JobAction action) {
+        return action == null ? null : pools.get(action);
+    }
+
+    @Override
+    public String getName() {
+        return "action-pools";
+    }
+
+    @Override
+    public void triggerMisfired(Trigger trigger) {
+        String name = trigger.getJobDataMap().getString("action");
+        Pool pool = null;
+        try {
+            pool = name == null ? null : poolFor(JobAction.fromString(name));
+        } catch (IllegalArgumentException ignored) {
+            // unknown action, counted with the Quartz threads
+        }
+        (pool == null ? quartzMisfires : pool.misfires).increment();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Pool pool : all) {
+            pool.shutdown();
+        }
+    }
+
+    public static final class Pool {
+
+        @Getter
+        private final String name;
+        @Getter
+        private final Settings settings;
+        private final ThreadPoolExecutor executor;
+        // fires waiting for a slot, highest priority first
+        private final PriorityBlockingQueue<PooledFire> waiting = new PriorityBlockingQueue<>();
+        // running plus waiting fires
+        private final Semaphore admitted;
+        // fires started whose future has not completed yet, async ones included
+        private final Semaphore running;
+        private final AtomicLong sequence = new AtomicLong();
+        private volatile boolean closed;
+        private final Timer queueWait;
+        private final Counter deferred;
+        private final Counter shed;
+        private final Counter misfires;
+
+        Pool(String name, Settings settings, MeterRegistry meterRegistry) {
+            if (settings.getThreads() < 1) throw new IllegalArgumentException("Pool " + name + " needs at least one thread");
+            this.name = name;
+            this.settings = settings;
+            AtomicInteger threadNumber = new AtomicInteger();
+            // never holds more than threads fires, since only fires that got a running slot are handed over
+            this.executor = new ThreadPoolExecutor(settings.getThreads(), settings.getThreads(), 0, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, "pool-" + name + "-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            this.admitted = new Semaphore(settings.getThreads() + Math.max(0, settings.getQueueCapacity()));
+            this.running = new Semaphore(settings.getThreads());
+
+            Gauge.builder("jobscheduler.pool.active", running, r -> settings.getThreads() - r.availablePermits())
+                    .description("Fires running in the pool")
+                    .tag("pool", name)
+                    .register(meterRegistry);
+            Gauge.builder("jobscheduler.pool.queued", waiting, PriorityBlockingQueue::size)
+                    .description("Fires waiting for a pool slot")
+                    .tag("pool", name)
+                    .register(meterRegistry);
+            this.queueWait = Timer.builder("jobscheduler.pool.queue-wait")
+                    .description("Time a fire waited for a pool slot")
+                    .tag("pool", name)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry);
+            this.deferred = meterRegistry.counter("jobscheduler.pool.deferred", "pool", name);
+            this.shed = meterRegistry.counter("jobscheduler.pool.shed", "pool", name);
+            this.misfires = meterRegistry.counter("jobscheduler.pool.misfires", "pool", name);
+        }
+
+        public CompletableFuture<Void> submit(int priority, Supplier<CompletableFuture<Void>> fire) {
+            return submit(priority, fire, () -> { });
+        }
+
+        /**
+         * Queues the fire. Returns a future that completes when the fire's action has finished,
+         * or null if the pool is full. If the pool shuts down before the fire starts, onShed is
+         * run and the future completes exceptionally.
+         */
+        public CompletableFuture<Void> submit(int priority, Supplier<CompletableFuture<Void>> fire, Runnable onShed) {
+            if (closed || !admitted.tryAcquire()) return null;
+            PooledFire pooled = new PooledFire(priority, sequence.incrementAndGet(), System.nanoTime(), fire, onShed,
+                    new CompletableFuture<>());
+            waiting.add(pooled);
+            startWaiting();
+            return pooled.done();
+        }
+
+        /**
+         * Hands waiting fires to the pool threads while there are free slots. Called after every
+         * submit and every completion, so a fire added while all slots are taken is started by
+         * whichever fire frees one next.
+         */
+        private void startWaiting() {
+            while (!closed && !waiting.isEmpty() && running.tryAcquire()) {
+                PooledFire next = waiting.poll();
+                if (next == null) {
+                    running.release();
+                    return;
+                }
+                try {
+                    executor.execute(new Handover(next, this));
+                } catch (RejectedExecutionException e) {
+                    running.release();
+                    shed(next);
+                }
+            }
+        }
+
+        private void start(PooledFire pooled) {
+            queueWait.record(System.nanoTime() - pooled.queuedAt(), TimeUnit.NANOSECONDS);
+            CompletableFuture<Void> execution;
+            try {
+                execution = pooled.fire().get();
+            } catch (RuntimeException e) {
+                execution = CompletableFuture.failedFuture(e);
+            }
+            // the slot is held until the action completes, the thread only until it has started
+            execution.whenComplete((result, error) -> {
+                running.release();
+                admitted.release();
+                if (error != null) pooled.done().completeExceptionally(error);
+                else pooled.done().complete(null);
+                startWaiting();
+            });
+        }
+
+        private void shed(PooledFire pooled) {
+            admitted.release();
+            shed.increment();
+            try {
+                pooled.onShed().run();
+            } catch (RuntimeException e) {
+                log.warn("Could not record a fire shed by pool {}: {}", name, e.getMessage());
+            }
+            pooled.done().completeExceptionally(new RejectedExecutionException("Pool " + name + " shut down"));
+        }
+
+        /**
+         * Stops taking fires and sheds the ones still waiting. Running fires are interrupted.
+         */
+        void shutdown() {
+            closed = true;
+            List<PooledFire> left = new ArrayList<>();
+            waiting.drainTo(left);
+            for (Runnable task : executor.shutdownNow()) {
+                if (task instanceof Handover handover) left.add(handover.pooled());
+            }
+            if (!left.isEmpty()) log.warn("Pool {} shed {} queued fires at shutdown", name, left.size());
+            left.forEach(this::shed);
+        }
+
+        /**
+         * A one-shot trigger that fires the same job again after defer-ms with the same trigger
+         * data and priority.
+         */
+        public Trigger deferredTrigger(JobExecutionContext context) {
+            recordDeferred();
+            return TriggerBuilder.newTrigger()
+                    .withIdentity(TriggerKey.triggerKey(context.getJobDetail().getKey().getName() + "Deferred" + UUID.randomUUID(), DEFERRED_GROUP))
+                    .forJob(context.getJobDetail().getKey())
+                    .withPriority(context.getTrigger().getPriority())
+                    .startAt(new Date(System.currentTimeMillis() + settings.getDeferMs()))
+                    .withSchedule(SimpleScheduleBuilder.simpleSchedule().withMisfireHandlingInstructionFireNow())
+                    .usingJobData(context.getTrigger().getJobDataMap())
+                    .build();
+        }
+
+        public void recordDeferred() {
+            deferred.increment();
+        }
+
+        public void recordShed() {
+            shed.increment();
+        }
+    }
+
+    /**
+     * A fire waiting for a slot. Orders the queue by trigger priority, then by arrival.
+     */
+    private record PooledFire(int priority, long sequence, long queuedAt, Supplier<CompletableFuture<Void>> fire,
+                              Runnable onShed, CompletableFuture<Void> done) implements Comparable<PooledFire> {
+
+        @Override
+        public int compareTo(PooledFire other) {
+            int byPriority = Integer.compare(other.priority, priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * A fire that got a slot and is waiting for a pool thread, so shutdown can tell which one it was.
+     */
+    private record Handover(PooledFire pooled, Pool pool) implements Runnable {
+
+        @Override
+        public void run() {
+            pool.start(pooled);
+        }
+    }
+}
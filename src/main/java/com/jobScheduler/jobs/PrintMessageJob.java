@@ -1,28 +1,107 @@
 package com.jobScheduler.jobs;
 
+import com.jobScheduler.model.JobAction;
+import com.jobScheduler.model.JobDefinition;
+import com.jobScheduler.service.FireMetrics;
 import com.jobScheduler.service.JobService;
+import com.jobScheduler.service.WorkflowService;
+import lombok.extern.slf4j.Slf4j;
 import org.quartz.Job;
+import org.quartz.JobDataMap;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
+import org.quartz.SchedulerException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+@Slf4j
 @Component
 public class PrintMessageJob implements Job {
 
     @Autowired
     private JobService jobService;
 
+    @Autowired
+    private ActionPools actionPools;
+
+    @Autowired
+    private FireMetrics fireMetrics;
+
     @Override
     public void execute(JobExecutionContext context) throws JobExecutionException {
-        String jobId = context.getJobDetail().getJobDataMap().getString("jobId");
-        String jobName = context.getJobDetail().getKey().getName();
+        JobDataMap dataMap = context.getJobDetail().getJobDataMap();
+        String jobId = dataMap.getString("jobId");
+        String jobName = dataMap.getString("jobName");
+        String revision = dataMap.getString("revision");
+        // retry triggers carry the attempt number; cron fires are the first attempt
+        String attempt = context.getMergedJobDataMap().getString("attempt");
+        String workflowRun = context.getMergedJobDataMap().getString(WorkflowService.RUN_KEY);
+        Map<String, String> fireData = workflowRun == null ? Map.of() : Map.of(WorkflowService.RUN_KEY, workflowRun);
 
-        System.out.println("Quartz fired job: " + jobName + " (jobId=" + jobId + ") at " + java.time.LocalDateTime.now());
+        log.debug("Quartz fired job {} (jobId={})", jobName, jobId);
+        long fireRevision = revision == null ? 0 : Long.parseLong(revision);
+        int fireAttempt = attempt == null ? 1 : Integer.parseInt(attempt);
+        // a fire that ends before its action runs is still reported, so a workflow run waiting on it fails
+        JobDefinition job;
+        ActionPools.Pool pool;
+        CompletableFuture<Void> execution;
         try {
-            jobService.doSomething(jobId);
+            // the cached definition carries the action parsed when the job was scheduled
+            job = jobService.definition(jobId, fireRevision);
+            if (job == null) {
+                jobService.abandon(jobId, fireData, "Job " + jobName + " no longer exists");
+                return;
+            }
+            JobAction action = job.getAction();
+            if (context.getScheduledFireTime() != null) {
+                fireMetrics.recordLag(action, System.currentTimeMillis() - context.getScheduledFireTime().getTime());
+            }
+            Supplier<CompletableFuture<Void>> fire = () -> jobService.doSomething(job, fireAttempt, fireData);
+            pool = actionPools.poolFor(action);
+            execution = pool == null ? fire.get() : pool.submit(context.getTrigger().getPriority(), fire,
+                    () -> jobService.shed(job, fireAttempt, fireData, "Shed: pool " + pool.getName() + " shut down"));
         } catch (Exception e) {
+            jobService.abandon(jobId, fireData, "Job " + jobName + " could not be started: " + e.getMessage());
             throw new JobExecutionException(e);
         }
+        if (execution == null) {
+            whenFull(context, pool, job, fireAttempt, fireData);
+            return;
+        }
+        if (execution.isDone() || waitForCompletion()) {
+            try {
+                execution.join();
+            } catch (CompletionException e) {
+                throw new JobExecutionException(e.getCause());
+            }
+        }
+    }
+
+    private void whenFull(JobExecutionContext context, ActionPools.Pool pool, JobDefinition job,
+                          int attempt, Map<String, String> fireData) throws JobExecutionException {
+        if (pool.getSettings().getWhenFull() == ActionPools.WhenFull.DEFER) {
+            try {
+                context.getScheduler().scheduleJob(pool.deferredTrigger(context));
+                log.debug("Pool {} is full, deferred job {}", pool.getName(), context.getJobDetail().getKey().getName());
+                return;
+            } catch (SchedulerException e) {
+                log.warn("Could not defer job {}: {}", context.getJobDetail().getKey().getName(), e.getMessage());
+            }
+        }
+        pool.recordShed();
+        jobService.shed(job, attempt, fireData, "Shed: pool " + pool.getName() + " is full");
+    }
+
+    /**
+     * Whether execute() waits for an async action to complete before returning. Quartz only
+     * holds back the next fire while execute() runs, so serial jobs must wait.
+     */
+    protected boolean waitForCompletion() {
+        return false;
     }
 }
@@ -0,0 +1,17 @@
+package com.jobScheduler.jobs;
+
+import org.quartz.DisallowConcurrentExecution;
+
+/**
+ * Quartz job for jobs that must not overlap: a fire that comes due while the previous one is
+ * still running waits until it has finished, across cluster nodes too. Async actions are
+ * awaited inside execute() so the whole action counts as running.
+ */
+@DisallowConcurrentExecution
+public class SerialPrintMessageJob extends PrintMessageJob {
+
+    @Override
+    protected boolean waitForCompletion() {
+        return true;
+    }
+}
@@ -0,0 +1,211 @@
+package com.jobScheduler.jobs;
+
+import com.jobScheduler.model.JobDefinition;
+import com.jobScheduler.service.FireMetrics;
+import com.jobScheduler.service.JobService;
+import com.jobScheduler.service.WheelTriggerEngine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the fires of the timing-wheel engine, the way PrintMessageJob runs Quartz fires.
+ *
+ * Each batch from a wheel shard becomes one task on a fixed pool of platform-threads threads.
+ * Pooled actions are only handed to their ActionPools pool there; other actions run on the
+ * fire thread. A fire that finds its pool full is deferred on the wheel or shed, as configured
+ * for the pool.
+ *
+ * At most queue-capacity batches wait for a fire thread. Like Quartz's misfire threshold, a
+ * fire that reaches a thread more than misfire-threshold-ms after it came due is dropped and
+ * counted as a misfire, since the job's next fire is already on the wheel; a batch that finds
+ * the queue full is dropped the same way. Fires of jobs paused, replaced or deleted while they
+ * waited are dropped, including the fire a serial job holds back until its running one ends.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "jobscheduler.engine", havingValue = "wheel")
+public class WheelFireHandler {
+
+    private final WheelTriggerEngine engine;
+    private final JobService jobService;
+    private final ActionPools actionPools;
+    private final FireMetrics fireMetrics;
+    private final ThreadPoolExecutor executor;
+    private final long misfireThresholdMs;
+
+    public WheelFireHandler(WheelTriggerEngine engine, JobService jobService, ActionPools actionPools, FireMetrics fireMetrics,
+                            @Value("${jobscheduler.executor.platform-threads:10}") int threads,
+                            @Value("${jobscheduler.engine.wheel.queue-capacity:1024}") int queueCapacity,
+                            @Value("${jobscheduler.engine.wheel.misfire-threshold-ms:60000}") long misfireThresholdMs) {
+        if (queueCapacity < 1) throw new IllegalArgumentException("jobscheduler.engine.wheel.queue-capacity must be at least 1");
+        if (misfireThresholdMs < 1) {
+            throw new IllegalArgumentException("jobscheduler.engine.wheel.misfire-threshold-ms must be at least 1");
+        }
+        this.engine = engine;
+        this.jobService = jobService;
+        this.actionPools = actionPools;
+        this.fireMetrics = fireMetrics;
+        this.misfireThresholdMs = misfireThresholdMs;
+        AtomicInteger threadNumber = new AtomicInteger();
+        int poolSize = Math.max(1, threads);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "wheel-fire-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, (task, rejectedBy) -> rejected(task));
+    }
+
+    @PostConstruct
+    void register() {
+        engine.setFireHandler(this::dispatch);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    void dispatch(List<WheelTriggerEngine.Fire> batch) {
+        executor.execute(new Batch(batch));
+    }
+
+    private void fire(WheelTriggerEngine.Fire fire) {
+        WheelTriggerEngine.WheelTrigger trigger = fire.trigger();
+        // paused, replaced or deleted while it waited for a thread
+        if (!trigger.isCurrent(fire.generation())) return;
+        if (System.currentTimeMillis() - fire.fireAt() > misfireThresholdMs) {
+            misfired(fire);
+            return;
+        }
+        // a serial job that is still running picks this fire up when it finishes
+        if (!trigger.tryStart()) return;
+        JobDefinition job = jobService.definition(trigger.getJobId(), trigger.getRevision());
+        fireMetrics.recordLag(job == null ? null : job.getAction(), System.currentTimeMillis() - fire.fireAt());
+        run(fire, job);
+    }
+
+    private void run(WheelTriggerEngine.Fire fire, JobDefinition job) {
+        WheelTriggerEngine.WheelTrigger trigger = fire.trigger();
+        ActionPools.Pool pool = job == null ? null : actionPools.poolFor(job.getAction());
+        Supplier<CompletableFuture<Void>> work = () -> jobService.doSomething(job, 1, Map.of());
+        CompletableFuture<Void> execution;
+        try {
+            execution = job == null ? CompletableFuture.completedFuture(null)
+                    : pool == null ? work.get() : pool.submit(trigger.getPriority(), work,
+                            () -> jobService.shed(job, 1, Map.of(), "Shed: pool " + pool.getName() + " shut down"));
+        } catch (RuntimeException e) {
+            execution = CompletableFuture.failedFuture(e);
+        }
+        if (execution == null) {
+            whenFull(fire, pool, job);
+            execution = CompletableFuture.completedFuture(null);
+        }
+        execution.whenComplete((result, error) -> {
+            if (trigger.finish()) executor.execute(new HeldBack(fire, job));
+        });
+    }
+
+    private void whenFull(WheelTriggerEngine.Fire fire, ActionPools.Pool pool, JobDefinition job) {
+        WheelTriggerEngine.WheelTrigger trigger = fire.trigger();
+        if (pool.getSettings().getWhenFull() == ActionPools.WhenFull.DEFER) {
+            pool.recordDeferred();
+            engine.defer(fire, pool.getSettings().getDeferMs());
+            log.debug("Pool {} is full, deferred job {}", pool.getName(), trigger.getJobId());
+            return;
+        }
+        pool.recordShed();
+        jobService.shed(job, 1, Map.of(), "Shed: pool " + pool.getName() + " is full");
+    }
+
+    /**
+     * Runs the fire a serial job held back while it was running, unless the job has been paused,
+     * replaced or deleted since.
+     */
+    private void runHeldBack(WheelTriggerEngine.Fire fire, JobDefinition job) {
+        if (!fire.trigger().isCurrent(fire.generation())) {
+            release(fire.trigger());
+            return;
+        }
+        run(fire, job);
+    }
+
+    /** Drops the fires a serial job holds back, so it is idle again. */
+    private static void release(WheelTriggerEngine.WheelTrigger trigger) {
+        while (trigger.finish()) {
+            // each call takes back one held fire
+        }
+    }
+
+    private void misfired(WheelTriggerEngine.Fire fire) {
+        fireMetrics.recordMisfire(fire.trigger().getAction());
+        log.debug("Fire of job {} misfired, {} ms late", fire.trigger().getJobId(), System.currentTimeMillis() - fire.fireAt());
+    }
+
+    private void rejected(Runnable task) {
+        if (executor.isShutdown()) return;
+        if (task instanceof Batch batch) {
+            log.warn("Wheel fire queue is full, {} fires misfired", batch.fires().size());
+            batch.fires().forEach(this::misfired);
+        } else if (task instanceof HeldBack heldBack) {
+            log.warn("Wheel fire queue is full, held back fire of job {} misfired", heldBack.fire().trigger().getJobId());
+            misfired(heldBack.fire());
+            release(heldBack.fire().trigger());
+        }
+    }
+
+    private final class Batch implements Runnable {
+        private final List<WheelTriggerEngine.Fire> fires;
+
+        Batch(List<WheelTriggerEngine.Fire> fires) {
+            this.fires = fires;
+        }
+
+        List<WheelTriggerEngine.Fire> fires() {
+            return fires;
+        }
+
+        @Override
+        public void run() {
+            for (WheelTriggerEngine.Fire fire : fires) {
+                try {
+                    fire(fire);
+                } catch (RuntimeException e) {
+                    log.warn("Fire of job {} failed to start: {}", fire.trigger().getJobId(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private final class HeldBack implements Runnable {
+        private final WheelTriggerEngine.Fire fire;
+        private final JobDefinition job;
+
+        HeldBack(WheelTriggerEngine.Fire fire, JobDefinition job) {
+            this.fire = fire;
+            this.job = job;
+        }
+
+        WheelTriggerEngine.Fire fire() {
+            return fire;
+        }
+
+        @Override
+        public void run() {
+            runHeldBack(fire, job);
+        }
+    }
+}
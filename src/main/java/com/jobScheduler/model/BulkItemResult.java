@@ -0,0 +1,15 @@
+package com.jobScheduler.model;
+
+import lombok.*;
+
+/**
+ * Outcome of a bulk operation for one job, streamed back as one NDJSON line.
+ */
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class BulkItemResult {
+
+    private String jobId;
+    private String name;
+    private boolean success;
+    private String message;
+}
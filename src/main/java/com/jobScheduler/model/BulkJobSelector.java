@@ -0,0 +1,18 @@
+package com.jobScheduler.model;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Selects jobs for a bulk operation: an explicit id list, or filters on status, action and
+ * name prefix. Filters are combined with AND; when jobIds is set the filters narrow it further.
+ */
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class BulkJobSelector {
+
+    private List<String> jobIds;
+    private String status;
+    private String action;
+    private String namePrefix;
+}
@@ -0,0 +1,28 @@
+package com.jobScheduler.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * A fire that failed on every attempt. Kept so the failure can be inspected and the
+ * job fixed or re-run; nothing retries it automatically.
+ */
+@Document(collection = "dead_letters")
+@CompoundIndex(name = "jobId_failedAt", def = "{'jobId': 1, 'failedAt': -1}")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class DeadLetter {
+    @Id
+    private String id;
+
+    private String jobId;
+    private String jobName;
+    private String action;
+    private String payload;          // payload at the time of the failure
+    private int attempts;            // attempts made, including the first
+    private String lastError;        // message of the last failure
+    private LocalDateTime failedAt;
+}
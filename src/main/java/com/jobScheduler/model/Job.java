@@ -1,23 +1,53 @@
 package com.jobScheduler.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.util.Map;
+
 @Document(collection = "jobs")
+@CompoundIndexes({
+        @CompoundIndex(name = "status_id", def = "{'status': 1, '_id': 1}"),
+        @CompoundIndex(name = "action_id", def = "{'action': 1, '_id': 1}")
+})
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Job {
     @Id
     private String id;
 
+    @Indexed
     private String name;           // job name
     private String cronExpression; // quartz cron
+    private String timeZone;       // zone id for the cron, JVM default when empty
     private String status;         // PENDING, SCHEDULED, PAUSED, RUNNING, SUCCESS, FAILED
+    private String tenant;         // Quartz group is the tenant's group; the default group when empty
     private String description;
 
     private String action;
 
     private String payload;
+    @Indexed(sparse = true)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String payloadRef;     // SHA-256 of a payload stored in GridFS instead of inline; set by JobPayloadStore before saves
+
+    private Map<String, String> config; // per-action options, e.g. timeouts
+
+    private Integer logRetentionDays; // logs expire after this many days; global default when null
+    private Integer maxLogs;          // newest logs kept per job; unlimited when null
+
+    private Integer maxAttempts;      // tries per fire including the first; global default when null
+    private Long retryBackoffMs;      // delay before the first retry, doubled for each further one
+    private Integer failureThreshold; // consecutive failed fires before the job is paused; 0 never pauses
+
+    private Boolean allowConcurrent;  // whether fires may overlap; global default when null
+    private Integer priority;         // Quartz trigger priority, higher first when fires compete; 5 when null
+    private Long jitterWindowMs;      // cron fires are delayed by a fixed, id-derived offset below this; global default when null
+    private Long remaining;           // COUNTDOWN steps left, updated in place with $inc
 
 	public String getId() {
 		return id;
@@ -74,4 +104,100 @@ public class Job {
 	public void setPayload(String payload) {
 		this.payload = payload;
 	}
+
+	public Map<String, String> getConfig() {
+		return config;
+	}
+
+	public void setConfig(Map<String, String> config) {
+		this.config = config;
+	}
+
+	public String getTimeZone() {
+		return timeZone;
+	}
+
+	public void setTimeZone(String timeZone) {
+		this.timeZone = timeZone;
+	}
+
+	public Integer getLogRetentionDays() {
+		return logRetentionDays;
+	}
+
+	public void setLogRetentionDays(Integer logRetentionDays) {
+		this.logRetentionDays = logRetentionDays;
+	}
+
+	public Integer getMaxLogs() {
+		return maxLogs;
+	}
+
+	public void setMaxLogs(Integer maxLogs) {
+		this.maxLogs = maxLogs;
+	}
+
+	public Integer getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	public void setMaxAttempts(Integer maxAttempts) {
+		this.maxAttempts = maxAttempts;
+	}
+
+	public Long getRetryBackoffMs() {
+		return retryBackoffMs;
+	}
+
+	public void setRetryBackoffMs(Long retryBackoffMs) {
+		this.retryBackoffMs = retryBackoffMs;
+	}
+
+	public Integer getFailureThreshold() {
+		return failureThreshold;
+	}
+
+	public void setFailureThreshold(Integer failureThreshold) {
+		this.failureThreshold = failureThreshold;
+	}
+
+	public Boolean getAllowConcurrent() {
+		return allowConcurrent;
+	}
+
+	public void setAllowConcurrent(Boolean allowConcurrent) {
+		this.allowConcurrent = allowConcurrent;
+	}
+
+	public Long getRemaining() {
+		return remaining;
+	}
+
+	public void setRemaining(Long remaining) {
+		this.remaining = remaining;
+	}
+
+	public Integer getPriority() {
+		return priority;
+	}
+
+	public void setPriority(Integer priority) {
+		this.priority = priority;
+	}
+
+	public Long getJitterWindowMs() {
+		return jitterWindowMs;
+	}
+
+	public void setJitterWindowMs(Long jitterWindowMs) {
+		this.jitterWindowMs = jitterWindowMs;
+	}
+
+	public String getTenant() {
+		return tenant;
+	}
+
+	public void setTenant(String tenant) {
+		this.tenant = tenant;
+	}
 }
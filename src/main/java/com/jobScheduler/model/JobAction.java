@@ -5,10 +5,20 @@ public enum JobAction {
     COUNTDOWN,
     CALL_API,
     WRITE_FILE,
-    INSERT_DB,
+    MONGO_LOG,
     SEND_EMAIL;
 
     public static JobAction fromString(String s) {
-        return JobAction.valueOf(s.toUpperCase());
+        if (s == null || s.isBlank()) {
+            throw new IllegalArgumentException("Missing job action");
+        }
+        String name = s.trim().toUpperCase();
+        // INSERT_DB was the enum's old name for MONGO_LOG
+        if (name.equals("INSERT_DB")) return MONGO_LOG;
+        try {
+            return JobAction.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown job action: " + s);
+        }
     }
 }
@@ -0,0 +1,53 @@
+package com.jobScheduler.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the parts of a Job that do not change between fires.
+ * Mutable state (e.g. the COUNTDOWN counter) is updated in Mongo by the handler itself.
+ */
+@Getter
+@AllArgsConstructor
+public final class JobDefinition {
+
+    private final String id;
+    private final String name;
+    private final String tenant;
+    private final JobAction action; // null if the stored action is unknown
+    private final String payload;
+    private final Map<String, String> config;
+    private final Integer logRetentionDays;
+    private final Integer maxAttempts;
+    private final Long retryBackoffMs;
+    private final Integer failureThreshold;
+    private final Integer priority;
+    private final long version;
+
+    /**
+     * Snapshot of the job at the given revision. A stored action that no longer parses gives
+     * a definition with a null action, so the cache keeps it instead of re-reading the job on
+     * every fire; JobService fails such a job once and pauses it.
+     */
+    public static JobDefinition of(Job job, long version) {
+        JobAction action;
+        try {
+            action = JobAction.fromString(job.getAction());
+        } catch (IllegalArgumentException e) {
+            action = null;
+        }
+        Map<String, String> config = job.getConfig() == null
+                ? Collections.emptyMap()
+                : Collections.unmodifiableMap(new HashMap<>(job.getConfig()));
+        return new JobDefinition(job.getId(), job.getName(), job.getTenant(), action, job.getPayload(), config,
+                job.getLogRetentionDays(), job.getMaxAttempts(), job.getRetryBackoffMs(), job.getFailureThreshold(), job.getPriority(), version);
+    }
+
+    public String getConfig(String key, String defaultValue) {
+        return config.getOrDefault(key, defaultValue);
+    }
+}
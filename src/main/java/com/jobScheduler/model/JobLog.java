@@ -2,11 +2,15 @@ package com.jobScheduler.model;
 
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
+import java.util.Date;
 
 @Document(collection = "job_logs")
+@CompoundIndex(name = "jobId_timestamp", def = "{'jobId': 1, 'timestamp': -1}")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class JobLog {
     @Id
@@ -15,10 +19,12 @@ public class JobLog {
     private String jobId;           // reference to Job.id
     private String jobName;         // convenience
     private LocalDateTime timestamp;
-    private String status;          // RUNNING / SUCCESS / FAILED
+    private String status;          // RUNNING / SUCCESS / FAILED / SHED
     private String message;         // error message or info
     private int attempt;            // attempt number
     private long durationMs;        // execution time in ms
+    @Indexed(name = "expireAt_ttl", expireAfterSeconds = 0)
+    private Date expireAt;          // removed by the TTL index after this time; null keeps the log
 	public String getId() {
 		return id;
 	}
@@ -67,6 +73,12 @@ public class JobLog {
 	public void setDurationMs(long durationMs) {
 		this.durationMs = durationMs;
 	}
+	public Date getExpireAt() {
+		return expireAt;
+	}
+	public void setExpireAt(Date expireAt) {
+		this.expireAt = expireAt;
+	}
 	public static Object builder() {
 		// TODO Auto-generated method stub
 		return null;
@@ -0,0 +1,17 @@
+package com.jobScheduler.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Revision counter of one job, bumped with $inc whenever its definition changes. Kept apart from
+ * the job document because saving a Job replaces the whole document and would reset it.
+ */
+@Document(collection = "job_revisions")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class JobRevision {
+    @Id
+    private String id;      // job id
+    private long revision;
+}
@@ -0,0 +1,36 @@
+package com.jobScheduler.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Executions of one job or one action in one minute or hour. The id is derived from the scope,
+ * key, granularity and bucket start, so a bucket is written with a single $inc upsert and read
+ * back by id without a query.
+ */
+@Document(collection = "job_stats")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class JobStats {
+    @Id
+    private String id;               // scope:key:granularity:bucketStart
+
+    private String scope;            // JOB or ACTION
+    private String key;              // job id or action name
+    private String granularity;      // MINUTE, HOUR or TOTAL (bucketStart 0, never expires)
+    private Date bucketStart;
+    private long executions;         // attempts that ran, successful or not
+    private long failures;
+    private long shed;               // fires dropped by admission control, not counted as executions
+    private long totalDurationMs;
+    private long maxDurationMs;
+    private Map<String, Long> durations = new LinkedHashMap<>(); // executions per duration bucket: le1ms ... le60000ms, over60000ms
+    private Date lastSuccessAt;
+    @Indexed(name = "expireAt_ttl", expireAfterSeconds = 0)
+    private Date expireAt;
+}
@@ -0,0 +1,21 @@
+package com.jobScheduler.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.List;
+
+/**
+ * A DAG of existing jobs. A run starts every step without dependencies, and each step whose
+ * upstream steps have all succeeded is started in turn, so independent branches run in parallel.
+ */
+@Document(collection = "workflows")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class Workflow {
+    @Id
+    private String id;
+
+    private String name;
+    private List<WorkflowStep> steps;
+}
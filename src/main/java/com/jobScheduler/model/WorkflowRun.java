@@ -0,0 +1,36 @@
+package com.jobScheduler.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Progress of one workflow run. Steps are added to dispatched and completed with $addToSet,
+ * so concurrent step completions never overwrite each other and a restart can pick up
+ * where the run left off.
+ */
+@Document(collection = "workflow_runs")
+@CompoundIndexes({
+        @CompoundIndex(name = "workflowId_startedAt", def = "{'workflowId': 1, 'startedAt': -1}"),
+        @CompoundIndex(name = "status_id", def = "{'status': 1, '_id': 1}")
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class WorkflowRun {
+    @Id
+    private String id;
+
+    private String workflowId;
+    private String status;                              // RUNNING, SUCCEEDED, FAILED
+    private Set<String> dispatched = new LinkedHashSet<>(); // steps handed to Quartz
+    private Set<String> completed = new LinkedHashSet<>();  // steps that succeeded
+    private String failedStep;
+    private String error;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,14 @@
+package com.jobScheduler.model;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * One node of a workflow: the job to run and the jobs that must have succeeded first.
+ */
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class WorkflowStep {
+    private String jobId;
+    private List<String> dependsOn; // job ids of upstream steps; none for a root step
+}
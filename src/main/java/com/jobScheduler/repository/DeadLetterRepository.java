@@ -0,0 +1,13 @@
+package com.jobScheduler.repository;
+
+import com.jobScheduler.model.DeadLetter;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface DeadLetterRepository extends MongoRepository<DeadLetter, String> {
+    List<DeadLetter> findByJobIdOrderByFailedAtDesc(String jobId, Pageable page);
+
+    List<DeadLetter> findAllByOrderByFailedAtDesc(Pageable page);
+}
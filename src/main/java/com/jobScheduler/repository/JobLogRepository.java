@@ -1,10 +1,22 @@
 package com.jobScheduler.repository;
 
 import com.jobScheduler.model.JobLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * All queries are bounded by a Pageable and served by the (jobId, timestamp) index,
+ * so a page costs the same however many logs the job has.
+ */
 public interface JobLogRepository extends MongoRepository<JobLog, String> {
-    List<JobLog> findByJobIdOrderByTimestampDesc(String jobId);
+    List<JobLog> findByJobIdOrderByTimestampDesc(String jobId, Pageable page);
+
+    List<JobLog> findByJobIdAndTimestampBeforeOrderByTimestampDesc(String jobId, LocalDateTime before, Pageable page);
+
+    List<JobLog> findByJobIdAndTimestampAfterOrderByTimestampAsc(String jobId, LocalDateTime after, Pageable page);
+
+    List<JobLog> findByJobIdAndTimestampBetweenOrderByTimestampDesc(String jobId, LocalDateTime after, LocalDateTime before, Pageable page);
 }
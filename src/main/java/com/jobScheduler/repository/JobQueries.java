@@ -0,0 +1,38 @@
+package com.jobScheduler.repository;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Criteria shared by job listing and bulk selection.
+ */
+public final class JobQueries {
+
+    private JobQueries() {
+    }
+
+    /**
+     * AND of the given filters; null filters are skipped. Name prefixes use an anchored regex
+     * so they can be served by an index on name.
+     */
+    public static List<Criteria> filters(String status, String action, String namePrefix) {
+        List<Criteria> criteria = new ArrayList<>();
+        if (status != null && !status.isBlank()) {
+            criteria.add(Criteria.where("status").is(status));
+        }
+        if (action != null && !action.isBlank()) {
+            criteria.add(Criteria.where("action").is(action));
+        }
+        if (namePrefix != null && !namePrefix.isBlank()) {
+            criteria.add(Criteria.where("name").regex("^" + Pattern.quote(namePrefix)));
+        }
+        return criteria;
+    }
+
+    public static Criteria and(List<Criteria> criteria) {
+        return criteria.isEmpty() ? new Criteria() : new Criteria().andOperator(criteria.toArray(new Criteria[0]));
+    }
+}
@@ -0,0 +1,7 @@
+package com.jobScheduler.repository;
+
+import com.jobScheduler.model.Workflow;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface WorkflowRepository extends MongoRepository<Workflow, String> {
+}
@@ -0,0 +1,11 @@
+package com.jobScheduler.repository;
+
+import com.jobScheduler.model.WorkflowRun;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface WorkflowRunRepository extends MongoRepository<WorkflowRun, String> {
+    List<WorkflowRun> findByWorkflowIdOrderByStartedAtDesc(String workflowId, Pageable page);
+}
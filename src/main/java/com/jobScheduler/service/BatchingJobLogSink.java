@@ -0,0 +1,161 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.model.JobLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffers logs in a bounded queue and writes them to Mongo with a single
+ * insertMany per batch. A batch is flushed when it reaches batch-size or when
+ * flush-interval-ms has passed since the last flush, whichever comes first.
+ *
+ * When the queue is full the overflow policy decides what happens:
+ * BLOCK waits up to block-timeout-ms for space before dropping, DROP drops immediately.
+ * Logs written after shutdown has begun are inserted directly, since nothing drains the queue then.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "jobscheduler.joblog.sink", havingValue = "batching", matchIfMissing = true)
+public class BatchingJobLogSink implements JobLogSink {
+
+    public enum OverflowPolicy { BLOCK, DROP }
+
+    private final MongoTemplate mongoTemplate;
+    private final BlockingQueue<JobLog> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutMs;
+
+    private final Timer flushTimer;
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+
+    private volatile boolean running = true;
+    private Thread flusher;
+
+    public BatchingJobLogSink(MongoTemplate mongoTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${jobscheduler.joblog.capacity:10000}") int capacity,
+                              @Value("${jobscheduler.joblog.batch-size:500}") int batchSize,
+                              @Value("${jobscheduler.joblog.flush-interval-ms:200}") long flushIntervalMs,
+                              @Value("${jobscheduler.joblog.overflow:BLOCK}") OverflowPolicy overflowPolicy,
+                              @Value("${jobscheduler.joblog.block-timeout-ms:50}") long blockTimeoutMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutMs = blockTimeoutMs;
+
+        Gauge.builder("jobscheduler.joblog.queue.depth", queue, BlockingQueue::size)
+                .description("Job logs waiting to be flushed")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("jobscheduler.joblog.flush")
+                .description("Latency of one bulk insert of job logs")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.writtenCounter = meterRegistry.counter("jobscheduler.joblog.written");
+        this.droppedCounter = meterRegistry.counter("jobscheduler.joblog.dropped");
+        this.failedCounter = meterRegistry.counter("jobscheduler.joblog.failed");
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher = new Thread(this::runFlusher, "joblog-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @Override
+    public void write(JobLog log) {
+        if (!running) {
+            flush(new ArrayList<>(List.of(log)));
+            return;
+        }
+        boolean accepted;
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            try {
+                accepted = queue.offer(log, blockTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                accepted = false;
+            }
+        } else {
+            accepted = queue.offer(log);
+        }
+        if (!accepted) {
+            droppedCounter.increment();
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void runFlusher() {
+        List<JobLog> batch = new ArrayList<>(batchSize);
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (running || !queue.isEmpty()) {
+            long wait = deadline - System.nanoTime();
+            JobLog next;
+            try {
+                next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (next != null) {
+                batch.add(next);
+                queue.drainTo(batch, batchSize - batch.size());
+            }
+            if (batch.size() >= batchSize || System.nanoTime() - deadline >= 0) {
+                flush(batch);
+                deadline = System.nanoTime() + flushIntervalNanos;
+            }
+        }
+        queue.drainTo(batch);
+        flush(batch);
+    }
+
+    private void flush(List<JobLog> batch) {
+        if (batch.isEmpty()) return;
+        long start = System.nanoTime();
+        try {
+            mongoTemplate.insert(batch, JobLog.class);
+            writtenCounter.increment(batch.size());
+        } catch (Exception e) {
+            failedCounter.increment(batch.size());
+            log.warn("Failed to flush {} job logs: {}", batch.size(), e.getMessage());
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (flusher != null) {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+            if (flusher.isAlive()) {
+                log.warn("Job log flusher did not finish within 10s; {} job logs still queued", queue.size());
+            }
+        }
+    }
+}
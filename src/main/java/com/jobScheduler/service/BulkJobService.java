@@ -0,0 +1,199 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.model.BulkItemResult;
+import com.jobScheduler.model.BulkJobSelector;
+import com.jobScheduler.model.Job;
+import com.jobScheduler.repository.JobQueries;
+import com.jobScheduler.repository.JobRepository;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Schedules, pauses, resumes and deletes many jobs per request. Work is done in chunks:
+ * each chunk is loaded with one query, applied to Quartz in one call where Quartz has a
+ * batch API, and persisted with one multi-document write. Results are reported per job
+ * as each chunk completes so callers can stream them.
+ */
+@Service
+public class BulkJobService {
+
+    public enum Operation { PAUSE, RESUME, DELETE }
+
+    private final TriggerEngine triggerEngine;
+    private final JobKeyIndex jobKeyIndex;
+    private final JobService jobService;
+    private final JobRepository jobRepository;
+    private final JobDefinitionCache jobDefinitionCache;
+    private final MongoTemplate mongoTemplate;
+    private final JobRevisions jobRevisions;
+    private final JobPayloadStore payloadStore;
+    private final int chunkSize;
+
+    public BulkJobService(TriggerEngine triggerEngine, JobKeyIndex jobKeyIndex, JobService jobService, JobRepository jobRepository,
+                          JobDefinitionCache jobDefinitionCache, MongoTemplate mongoTemplate, JobRevisions jobRevisions,
+                          JobPayloadStore payloadStore, @Value("${jobscheduler.bulk.chunk-size:1000}") int chunkSize) {
+        this.triggerEngine = triggerEngine;
+        this.jobKeyIndex = jobKeyIndex;
+        this.jobService = jobService;
+        this.jobRepository = jobRepository;
+        this.jobDefinitionCache = jobDefinitionCache;
+        this.mongoTemplate = mongoTemplate;
+        this.jobRevisions = jobRevisions;
+        this.payloadStore = payloadStore;
+        this.chunkSize = chunkSize;
+    }
+
+    public void scheduleJobs(List<Job> jobs, Consumer<BulkItemResult> results) throws SchedulerException {
+        for (int from = 0; from < jobs.size(); from += chunkSize) {
+            scheduleChunk(jobs.subList(from, Math.min(jobs.size(), from + chunkSize)), results);
+        }
+    }
+
+    private void scheduleChunk(List<Job> chunk, Consumer<BulkItemResult> results) throws SchedulerException {
+        // validate and build before touching Mongo, so rejected jobs are not persisted
+        List<Job> valid = new ArrayList<>(chunk.size());
+        Map<JobDetail, Set<? extends Trigger>> schedules = new LinkedHashMap<>();
+        // new jobs start at revision 0; existing ones are bumped together so other nodes reload them
+        List<String> existingIds = chunk.stream().map(Job::getId).filter(Objects::nonNull).toList();
+        Map<String, Long> revisions = new HashMap<>(jobRevisions.next(existingIds));
+        for (Job job : chunk) {
+            // the Quartz job data needs the id, so new jobs get theirs here rather than from the insert
+            boolean assigned = job.getId() == null;
+            if (assigned) job.setId(new ObjectId().toHexString());
+            try {
+                jobService.validatePayload(job);
+                JobService.QuartzSchedule schedule = jobService.buildSchedule(job, revisions.getOrDefault(job.getId(), 0L));
+                schedules.put(schedule.jobDetail(), Set.of(schedule.trigger()));
+                revisions.put(job.getId(), schedule.revision());
+                valid.add(job);
+            } catch (IllegalArgumentException e) {
+                if (assigned) job.setId(null);
+                results.accept(new BulkItemResult(job.getId(), job.getName(), false, e.getMessage()));
+            }
+        }
+        if (valid.isEmpty()) return;
+
+        // like scheduleJob: register with Quartz, then persist each job once in its final state
+        triggerEngine.scheduleJobs(schedules);
+        valid.forEach(job -> job.setStatus("SCHEDULED"));
+        payloadStore.offload(valid);
+        List<Job> saved = jobRepository.saveAll(valid);
+        for (Job job : saved) {
+            jobDefinitionCache.put(job, revisions.get(job.getId()));
+            results.accept(new BulkItemResult(job.getId(), job.getName(), true, "Scheduled"));
+        }
+    }
+
+    /**
+     * Applies the operation to every job matched by the query from {@link #toQuery(BulkJobSelector)}.
+     */
+    public void apply(Operation operation, Query query, Consumer<BulkItemResult> results) throws SchedulerException {
+        query.fields().include("_id", "name", "tenant");
+        List<Job> chunk = new ArrayList<>(chunkSize);
+        try (Stream<Job> jobs = mongoTemplate.stream(query, Job.class)) {
+            Iterator<Job> cursor = jobs.iterator();
+            while (cursor.hasNext()) {
+                chunk.add(cursor.next());
+                if (chunk.size() == chunkSize) {
+                    applyChunk(operation, chunk, results);
+                    chunk.clear();
+                }
+            }
+        }
+        applyChunk(operation, chunk, results);
+    }
+
+    private void applyChunk(Operation operation, List<Job> chunk, Consumer<BulkItemResult> results) throws SchedulerException {
+        if (chunk.isEmpty()) return;
+        Map<String, Job> byId = new LinkedHashMap<>();
+        Map<String, String> failures = new HashMap<>();
+        for (Job job : chunk) {
+            byId.put(job.getId(), job);
+        }
+
+        switch (operation) {
+            case PAUSE, RESUME -> {
+                for (Job job : chunk) {
+                    JobKey key = jobKeyIndex.jobKey(job.getId(), job.getTenant());
+                    if (key == null || !triggerEngine.checkExists(key)) {
+                        failures.put(job.getId(), "Job is not scheduled");
+                    } else if (operation == Operation.PAUSE) {
+                        triggerEngine.pauseJob(key);
+                    } else {
+                        triggerEngine.resumeJob(key);
+                    }
+                }
+            }
+            case DELETE -> {
+                List<JobKey> keys = new ArrayList<>(chunk.size());
+                for (Job job : chunk) {
+                    JobKey key = jobKeyIndex.jobKey(job.getId(), job.getTenant());
+                    if (key != null && triggerEngine.checkExists(key)) {
+                        keys.add(key);
+                    } else {
+                        failures.put(job.getId(), "Job is not scheduled");
+                    }
+                }
+                triggerEngine.deleteJobs(keys);
+            }
+        }
+
+        List<String> succeeded = byId.keySet().stream().filter(id -> !failures.containsKey(id)).toList();
+        updateStatus(succeeded, switch (operation) {
+            case PAUSE -> "PAUSED";
+            case RESUME -> "SCHEDULED";
+            case DELETE -> "DELETED";
+        });
+        String done = switch (operation) {
+            case PAUSE -> "Paused";
+            case RESUME -> "Resumed";
+            case DELETE -> "Deleted";
+        };
+        byId.forEach((id, job) -> {
+            jobDefinitionCache.invalidate(id);
+            String failure = failures.get(id);
+            results.accept(new BulkItemResult(id, job.getName(), failure == null, failure == null ? done : failure));
+        });
+    }
+
+    private void updateStatus(List<String> ids, String status) {
+        if (ids.isEmpty()) return;
+        mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(ids)), Update.update("status", status), Job.class);
+    }
+
+    /**
+     * Builds the Mongo query for a selector. Throws IllegalArgumentException for an empty selector,
+     * so callers can reject the request before they start streaming results.
+     */
+    public Query toQuery(BulkJobSelector selector) {
+        List<Criteria> criteria = JobQueries.filters(selector.getStatus(), selector.getAction(), selector.getNamePrefix());
+        if (selector.getJobIds() != null) {
+            criteria.add(Criteria.where("_id").in(selector.getJobIds()));
+        }
+        if (criteria.isEmpty()) {
+            throw new IllegalArgumentException("Selector needs jobIds or at least one filter");
+        }
+        return Query.query(JobQueries.and(criteria));
+    }
+}
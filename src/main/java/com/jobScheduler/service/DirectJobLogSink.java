@@ -0,0 +1,24 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.model.JobLog;
+import com.jobScheduler.repository.JobLogRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Saves every log synchronously, one insert per fire.
+ * Enable with jobscheduler.joblog.sink=direct.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "jobscheduler.joblog.sink", havingValue = "direct")
+public class DirectJobLogSink implements JobLogSink {
+
+    private final JobLogRepository jobLogRepository;
+
+    @Override
+    public void write(JobLog log) {
+        jobLogRepository.save(log);
+    }
+}
@@ -0,0 +1,264 @@
+package com.jobScheduler.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Appends lines to files through FileChannels that stay open between writes.
+ *
+ * Lines for the same path are group-committed: the first caller to find the file idle
+ * becomes the writer and writes everything queued so far in one call, so concurrent jobs
+ * never interleave within a line and share the cost of each write (and fsync).
+ * At most max-open-files channels are kept; the least recently used idle one is closed first.
+ * The files themselves are tracked up to the same bound: past it, the least recently used
+ * idle files are forgotten, so jobs writing to ever-new paths do not grow the map.
+ */
+@Slf4j
+@Service
+public class FileAppenderService {
+
+    public enum FsyncPolicy { NONE, BATCH, LINE }
+
+    private final int maxOpenFiles;
+    private final FsyncPolicy fsyncPolicy;
+
+    // access-ordered, so iteration starts at the least recently used file
+    private final LinkedHashMap<Path, Appender> appenders = new LinkedHashMap<>(16, 0.75f, true);
+    private int openChannels;
+
+    public FileAppenderService(@Value("${jobscheduler.file.max-open-files:64}") int maxOpenFiles,
+                               @Value("${jobscheduler.file.fsync:NONE}") FsyncPolicy fsyncPolicy) {
+        this.maxOpenFiles = maxOpenFiles;
+        this.fsyncPolicy = fsyncPolicy;
+    }
+
+    /**
+     * Queues one line (a newline is added) and returns a future that completes once it is written.
+     */
+    public CompletableFuture<Void> append(String file, String line) {
+        Path path = Path.of(file).toAbsolutePath().normalize();
+        PendingLine pending = new PendingLine(line + "\n");
+        Appender appender;
+        // queued under the map lock, so an appender is never dropped with a line on its way in
+        synchronized (appenders) {
+            appender = appenders.computeIfAbsent(path, Appender::new);
+            appender.queue.add(pending);
+            if (appenders.size() > maxOpenFiles) {
+                forgetIdle(appender);
+            }
+        }
+        appender.drain();
+        return pending.written;
+    }
+
+    public int getOpenFileCount() {
+        synchronized (appenders) {
+            return openChannels;
+        }
+    }
+
+    int getTrackedFileCount() {
+        synchronized (appenders) {
+            return appenders.size();
+        }
+    }
+
+    /**
+     * Closes every file once its current write has finished. Lines still queued are failed.
+     */
+    @PreDestroy
+    public void closeAll() {
+        List<Appender> closing;
+        synchronized (appenders) {
+            closing = new ArrayList<>(appenders.values());
+            appenders.clear();
+        }
+        // outside the map lock: a writer finishing its batch may need it
+        for (Appender appender : closing) {
+            appender.shutdown();
+        }
+    }
+
+    /**
+     * Drops least recently used files that have nothing queued or being written. Caller holds
+     * the map lock.
+     */
+    private void forgetIdle(Appender keep) {
+        Iterator<Appender> it = appenders.values().iterator();
+        while (appenders.size() > maxOpenFiles && it.hasNext()) {
+            Appender candidate = it.next();
+            if (candidate != keep && candidate.queue.isEmpty() && candidate.writing.compareAndSet(false, true)) {
+                // left marked as writing: nothing reaches a forgotten appender's queue any more
+                if (candidate.close()) openChannels--;
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Called before opening a new channel; closes idle channels until there is room.
+     */
+    private void reserveChannel(Appender opening) {
+        synchronized (appenders) {
+            Iterator<Map.Entry<Path, Appender>> it = appenders.entrySet().iterator();
+            while (openChannels >= maxOpenFiles && it.hasNext()) {
+                Appender candidate = it.next().getValue();
+                if (candidate != opening && candidate.closeIfIdle()) {
+                    openChannels--;
+                }
+            }
+            openChannels++;
+        }
+    }
+
+    private boolean overLimit() {
+        synchronized (appenders) {
+            return openChannels > maxOpenFiles;
+        }
+    }
+
+    private void releaseChannel() {
+        synchronized (appenders) {
+            openChannels--;
+        }
+    }
+
+    private record PendingLine(String text, CompletableFuture<Void> written) {
+        PendingLine(String text) {
+            this(text, new CompletableFuture<>());
+        }
+    }
+
+    private final class Appender {
+
+        private final Path path;
+        private final ConcurrentLinkedQueue<PendingLine> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean writing = new AtomicBoolean();
+        private FileChannel channel; // guarded by writing
+
+        Appender(Path path) {
+            this.path = path;
+        }
+
+        void drain() {
+            // re-check after releasing the flag so a line queued in between is not stranded
+            while (!queue.isEmpty() && writing.compareAndSet(false, true)) {
+                try {
+                    writeBatch();
+                } finally {
+                    writing.set(false);
+                }
+            }
+        }
+
+        private void writeBatch() {
+            List<PendingLine> batch = new ArrayList<>();
+            PendingLine next;
+            while ((next = queue.poll()) != null) {
+                batch.add(next);
+            }
+            try {
+                if (channel == null) {
+                    reserveChannel(this);
+                    try {
+                        channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                    } catch (IOException e) {
+                        releaseChannel();
+                        throw e;
+                    }
+                }
+                if (fsyncPolicy == FsyncPolicy.LINE) {
+                    for (PendingLine line : batch) {
+                        write(line.text());
+                        channel.force(false);
+                    }
+                } else {
+                    StringBuilder joined = new StringBuilder();
+                    for (PendingLine line : batch) {
+                        joined.append(line.text());
+                    }
+                    write(joined.toString());
+                    if (fsyncPolicy == FsyncPolicy.BATCH) {
+                        channel.force(false);
+                    }
+                }
+                batch.forEach(line -> line.written().complete(null));
+            } catch (IOException e) {
+                batch.forEach(line -> line.written().completeExceptionally(e));
+            }
+            // the limit can be exceeded while every open file is mid-write; give the handle back now
+            if (channel != null && overLimit()) {
+                close();
+                releaseChannel();
+            }
+        }
+
+        private void write(String text) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        /**
+         * Closes the channel unless a write is in progress. Returns true if a channel was closed.
+         */
+        boolean closeIfIdle() {
+            if (!writing.compareAndSet(false, true)) return false;
+            try {
+                return close();
+            } finally {
+                writing.set(false);
+                // a writer that arrived while we held the flag gave up; finish its lines elsewhere
+                if (!queue.isEmpty()) {
+                    ForkJoinPool.commonPool().execute(this::drain);
+                }
+            }
+        }
+
+        /**
+         * Waits for the current write to finish, then closes the channel for good.
+         */
+        void shutdown() {
+            while (!writing.compareAndSet(false, true)) {
+                Thread.yield();
+            }
+            if (close()) releaseChannel();
+            IOException closed = new IOException(path + " was closed");
+            PendingLine pending;
+            while ((pending = queue.poll()) != null) {
+                pending.written().completeExceptionally(closed);
+            }
+        }
+
+        private boolean close() {
+            if (channel == null) return false;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Failed to close {}: {}", path, e.getMessage());
+            }
+            channel = null;
+            return true;
+        }
+    }
+}
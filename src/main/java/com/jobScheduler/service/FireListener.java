@@ -0,0 +1,24 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.model.JobDefinition;
+
+import java.util.Map;
+
+/**
+ * Told about every finished fire attempt, after its log has been written.
+ */
+public interface FireListener {
+
+    /**
+     * @param fireData trigger data the fire was started with, carried over to its retries
+     * @param retrying true if the attempt failed and another one has been scheduled
+     */
+    void fireCompleted(JobDefinition job, Map<String, String> fireData, boolean succeeded, boolean retrying);
+
+    /**
+     * Told about a fire that ended before its action could run, for example because the job
+     * was deleted in the meantime. No log is written for it and it is not retried.
+     */
+    default void fireAbandoned(String jobId, Map<String, String> fireData, String reason) {
+    }
+}
@@ -0,0 +1,89 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.model.JobAction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.quartz.Trigger;
+import org.quartz.listeners.TriggerListenerSupport;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-action fire metrics: lag between the scheduled and actual fire time, execution duration,
+ * success/failure counts and misfires. Lag and duration are timers with percentile histograms,
+ * so they can be aggregated across instances as well as read as p50/p95/p99 locally.
+ *
+ * Meters are created up front for every action, so recording a fire is a map lookup and an
+ * atomic update. Also registered as a global Quartz trigger listener to count misfires.
+ */
+@Component
+public class FireMetrics extends TriggerListenerSupport {
+
+    private final Map<JobAction, Timer> lag = new EnumMap<>(JobAction.class);
+    private final Map<JobAction, Timer> duration = new EnumMap<>(JobAction.class);
+    private final Map<JobAction, Counter> succeeded = new EnumMap<>(JobAction.class);
+    private final Map<JobAction, Counter> failed = new EnumMap<>(JobAction.class);
+    private final Map<JobAction, Counter> misfires = new EnumMap<>(JobAction.class);
+
+    public FireMetrics(MeterRegistry meterRegistry) {
+        for (JobAction action : JobAction.values()) {
+            String tag = action.name();
+            lag.put(action, Timer.builder("jobscheduler.fire.lag")
+                    .description("Delay between a trigger's scheduled fire time and the start of the fire")
+                    .tag("action", tag)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            duration.put(action, Timer.builder("jobscheduler.fire.duration")
+                    .description("Time from the start of a fire until its action completes")
+                    .tag("action", tag)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            succeeded.put(action, meterRegistry.counter("jobscheduler.fire.succeeded", "action", tag));
+            failed.put(action, meterRegistry.counter("jobscheduler.fire.failed", "action", tag));
+            misfires.put(action, meterRegistry.counter("jobscheduler.fire.misfires", "action", tag));
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "fire-metrics";
+    }
+
+    @Override
+    public void triggerMisfired(Trigger trigger) {
+        JobAction action = actionOf(trigger.getJobDataMap().getString("action"));
+        if (action != null) misfires.get(action).increment();
+    }
+
+    /**
+     * Counts a fire dropped because it came due too long ago, for engines other than Quartz.
+     */
+    public void recordMisfire(String action) {
+        JobAction parsed = actionOf(action);
+        if (parsed != null) misfires.get(parsed).increment();
+    }
+
+    public void recordLag(JobAction action, long lagMs) {
+        if (action != null) lag.get(action).record(Math.max(0, lagMs), TimeUnit.MILLISECONDS);
+    }
+
+    public void recordCompletion(JobAction action, long durationNanos, boolean success) {
+        if (action == null) return;
+        duration.get(action).record(durationNanos, TimeUnit.NANOSECONDS);
+        (success ? succeeded : failed).get(action).increment();
+    }
+
+    private static JobAction actionOf(String name) {
+        try {
+            return name == null ? null : JobAction.fromString(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.jobScheduler.service;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * A hierarchical timing wheel: LEVELS wheels of 2^BITS slots, where a slot of level k spans
+ * 2^(BITS*k) ticks. An item is placed on the lowest level whose span reaches its deadline and
+ * moves down a level each time the wheel above turns into its slot, so scheduling and expiring
+ * are O(1) however many items are waiting.
+ *
+ * Any thread may schedule: items are pushed onto a lock-free inbox with one compare-and-set.
+ * Only the thread that owns the wheel calls {@link #advance}, which moves the inbox into the
+ * slots and hands out what is due; the slots themselves are never shared, so they need no lock.
+ * Items fire on the first tick at or after their deadline, never early.
+ */
+public final class HierarchicalTimingWheel<T> {
+
+    static final int BITS = 8;
+    static final int LEVELS = 4;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+
+    private static final class Node<T> {
+        final T item;
+        final long deadline;
+        final long tick;
+        Node<T> next;
+
+        Node(T item, long deadline, long tick) {
+            this.item = item;
+            this.deadline = deadline;
+            this.tick = tick;
+        }
+    }
+
+    private final long tickMs;
+    private final long originMs;
+    private final AtomicReference<Node<T>> inbox = new AtomicReference<>();
+    @SuppressWarnings("unchecked")
+    private final Node<T>[][] slots = (Node<T>[][]) new Node<?>[LEVELS][SLOTS];
+    /** Next tick to expire; only read and written by the owning thread. */
+    private long cursor;
+    private int size;
+
+    public HierarchicalTimingWheel(long tickMs, long originMs) {
+        if (tickMs < 1) throw new IllegalArgumentException("tickMs must be at least 1");
+        this.tickMs = tickMs;
+        this.originMs = originMs;
+    }
+
+    /**
+     * Schedules the item to be handed out at or after deadlineMs. Safe to call from any thread.
+     */
+    public void schedule(T item, long deadlineMs) {
+        // round up, so an item never comes out before its deadline
+        Node<T> node = new Node<>(item, deadlineMs, Math.floorDiv(deadlineMs - originMs + tickMs - 1, tickMs));
+        Node<T> head;
+        do {
+            head = inbox.get();
+            node.next = head;
+        } while (!inbox.compareAndSet(head, node));
+    }
+
+    /**
+     * Expires every tick up to nowMs and passes each due item with its deadline to the consumer.
+     * Must only be called by the owning thread. Returns the number of items handed out.
+     */
+    public int advance(long nowMs, ObjLongConsumer<T> due) {
+        int expired = 0;
+        long lastTick = Math.floorDiv(nowMs - originMs, tickMs);
+        while (cursor <= lastTick) {
+            expired += drainInbox(due);
+            // entering a new window of a higher level: move that window's items down
+            for (int level = 1; level < LEVELS; level++) {
+                if ((cursor & ((1L << (BITS * level)) - 1)) != 0) break;
+                cascade(level, (int) ((cursor >>> (BITS * level)) & MASK));
+            }
+            int slot = (int) (cursor & MASK);
+            Node<T> node = slots[0][slot];
+            slots[0][slot] = null;
+            while (node != null) {
+                Node<T> next = node.next;
+                size--;
+                expired++;
+                due.accept(node.item, node.deadline);
+                node = next;
+            }
+            cursor++;
+        }
+        return expired;
+    }
+
+    /** Time at which the next tick expires. Only meaningful on the owning thread. */
+    public long nextTickAt() {
+        return originMs + cursor * tickMs;
+    }
+
+    /** Items placed in the slots; scheduled items still in the inbox are not counted. */
+    public int size() {
+        return size;
+    }
+
+    private int drainInbox(ObjLongConsumer<T> due) {
+        Node<T> node = inbox.getAndSet(null);
+        int expired = 0;
+        while (node != null) {
+            Node<T> next = node.next;
+            if (node.tick < cursor) {
+                expired++;
+                due.accept(node.item, node.deadline);
+            } else {
+                place(node);
+                size++;
+            }
+            node = next;
+        }
+        return expired;
+    }
+
+    private void cascade(int level, int slot) {
+        Node<T> node = slots[level][slot];
+        slots[level][slot] = null;
+        while (node != null) {
+            Node<T> next = node.next;
+            place(node);
+            node = next;
+        }
+    }
+
+    private void place(Node<T> node) {
+        long delta = node.tick - cursor;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (BITS * (level + 1))) {
+            level++;
+        }
+        int slot;
+        if (delta >= 1L << (BITS * LEVELS)) {
+            // beyond the top wheel: park it in the top slot that turns last, it is placed again then
+            slot = (int) (((cursor >>> (BITS * (LEVELS - 1))) + MASK) & MASK);
+        } else {
+            slot = (int) ((node.tick >>> (BITS * level)) & MASK);
+        }
+        node.next = slots[level][slot];
+        slots[level][slot] = node;
+    }
+}
@@ -0,0 +1,81 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.model.Job;
+import com.jobScheduler.model.JobDefinition;
+import com.jobScheduler.repository.JobRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory cache of job definitions so a fire does not have to read the Job document.
+ * Entries are replaced when a job is scheduled and dropped whenever the job is saved,
+ * paused, resumed or deleted; the next fire after that reloads the definition once.
+ *
+ * Each definition is tagged with the revision stamped into the job's Quartz data when it was
+ * scheduled. A fire carrying a newer revision than the cached one reloads, which keeps nodes
+ * of a cluster in step when another node reschedules the job.
+ *
+ * Loads read Mongo, and GridFS for an offloaded payload, outside the map's locks, so a slow read only holds up fires of its own job.
+ * A load is published only if the entry it started from is still there: one that raced with a
+ * put or an invalidation returns what it read without caching it.
+ */
+@Component
+@RequiredArgsConstructor
+public class JobDefinitionCache {
+
+    /** Holder compared by identity, so every put and invalidation replaces what a load started from. */
+    private static final class Entry {
+        final JobDefinition definition; // null once invalidated
+
+        Entry(JobDefinition definition) {
+            this.definition = definition;
+        }
+    }
+
+    private final JobRepository jobRepository;
+    private final JobPayloadStore payloadStore;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public JobDefinition put(Job job, long revision) {
+        JobDefinition definition = JobDefinition.of(job, revision);
+        entries.put(job.getId(), new Entry(definition));
+        return definition;
+    }
+
+    /**
+     * Returns the cached definition if it is at least the given revision, otherwise loads it
+     * from Mongo. Returns null if the job no longer exists.
+     */
+    public JobDefinition get(String jobId, long revision) {
+        Entry seen = entries.get(jobId);
+        if (seen != null && seen.definition != null && seen.definition.getVersion() >= revision) {
+            return seen.definition;
+        }
+        // an empty entry marks the load, so an invalidation while it runs replaces what it started from
+        if (seen == null) seen = entries.computeIfAbsent(jobId, id -> new Entry(null));
+        JobDefinition loaded = jobRepository.findById(jobId).map(job -> {
+            payloadStore.resolve(job);
+            return JobDefinition.of(job, revision);
+        }).orElse(null);
+        if (loaded == null) {
+            entries.remove(jobId, seen);
+        } else {
+            entries.replace(jobId, seen, new Entry(loaded));
+        }
+        return loaded;
+    }
+
+    public void invalidate(String jobId) {
+        if (jobId != null) {
+            entries.replace(jobId, new Entry(null));
+        }
+    }
+
+    public int size() {
+        return (int) entries.values().stream().filter(entry -> entry.definition != null).count();
+    }
+}
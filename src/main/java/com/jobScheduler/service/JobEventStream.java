@@ -0,0 +1,216 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.model.JobDefinition;
+import com.jobScheduler.model.JobLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live fire, completion and failure events for GET /jobs/events, published straight from
+ * JobService as executions start and finish.
+ *
+ * Every subscriber has a bounded buffer. Publishing only offers the event to the buffers of the
+ * subscribers whose filter matches and wakes their sender, so an execution never waits for a
+ * client. A subscriber whose buffer is full is too slow to keep up: it is dropped and its stream
+ * closed, and the client reconnects. Idle streams get a heartbeat comment every heartbeat-ms,
+ * which is also how disconnected clients are noticed.
+ *
+ * A subscriber holds one of max-subscribers slots from subscribe until it is removed. Each
+ * subscriber sends on at most one thread at a time, so the slots also bound the sender pool.
+ */
+@Slf4j
+@Service
+public class JobEventStream {
+
+    public enum Type { FIRED, SUCCESS, FAILED, SHED }
+
+    /** durationMs is null for FIRED; message is cut to MAX_MESSAGE characters. */
+    public record JobEvent(Type type, String jobId, String jobName, String action, int attempt,
+                           Long durationMs, String message, long timestamp) {
+    }
+
+    /** Empty sets match everything. */
+    public record Filter(Set<String> jobIds, Set<String> actions, Set<Type> types) {
+        boolean matches(JobEvent event) {
+            return (jobIds.isEmpty() || jobIds.contains(event.jobId()))
+                    && (actions.isEmpty() || actions.contains(event.action()))
+                    && (types.isEmpty() || types.contains(event.type()));
+        }
+    }
+
+    static final int MAX_MESSAGE = 1024;
+
+    private final class Subscriber {
+        final Filter filter;
+        final SseEmitter emitter;
+        final BlockingQueue<JobEvent> buffer;
+        final AtomicBoolean sending = new AtomicBoolean();
+        volatile boolean heartbeatDue;
+        volatile boolean closed;
+
+        Subscriber(Filter filter, SseEmitter emitter) {
+            this.filter = filter;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        void wake() {
+            if (sending.compareAndSet(false, true)) sender.execute(this::send);
+        }
+
+        /** Runs on a sender thread, one at a time per subscriber; the only place that writes to the emitter. */
+        private void send() {
+            try {
+                do {
+                    if (closed) {
+                        emitter.complete();
+                        return;
+                    }
+                    JobEvent event;
+                    while ((event = buffer.poll()) != null) {
+                        emitter.send(SseEmitter.event().name(event.type().name()).data(event, MediaType.APPLICATION_JSON));
+                    }
+                    if (heartbeatDue) {
+                        heartbeatDue = false;
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                    sending.set(false);
+                    // an event published after the last poll woke nobody, so go round again
+                } while ((!buffer.isEmpty() || heartbeatDue || closed) && sending.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                // the client went away or the stream already ended
+                remove(this);
+                sending.set(false);
+            }
+        }
+    }
+
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMs;
+    private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+    private final Semaphore slots;
+    private final ExecutorService sender;
+    private final Counter droppedCounter;
+
+    public JobEventStream(MeterRegistry meterRegistry,
+                          @Value("${jobscheduler.events.buffer-size:256}") int bufferSize,
+                          @Value("${jobscheduler.events.max-subscribers:100}") int maxSubscribers,
+                          @Value("${jobscheduler.events.timeout-ms:0}") long timeoutMs) {
+        this.bufferSize = Math.max(1, bufferSize);
+        this.maxSubscribers = maxSubscribers;
+        this.slots = new Semaphore(Math.max(0, maxSubscribers));
+        this.timeoutMs = timeoutMs;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.sender = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "job-events-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("jobscheduler.events.subscribers", subscribers, Set::size)
+                .description("Clients subscribed to the job event stream")
+                .register(meterRegistry);
+        this.droppedCounter = meterRegistry.counter("jobscheduler.events.dropped");
+    }
+
+    /**
+     * Opens a stream of the events matching the filter. Throws IllegalStateException when
+     * max-subscribers streams are open already.
+     */
+    public SseEmitter subscribe(Filter filter) {
+        return subscribe(filter, new SseEmitter(timeoutMs));
+    }
+
+    SseEmitter subscribe(Filter filter, SseEmitter emitter) {
+        // reserved before the subscriber is added, so concurrent requests cannot pass the limit together
+        if (!slots.tryAcquire()) {
+            throw new IllegalStateException("Too many event subscribers (max " + maxSubscribers + ")");
+        }
+        Subscriber subscriber = new Subscriber(filter, emitter);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    public void fired(JobDefinition job, int attempt) {
+        if (subscribers.isEmpty()) return;
+        publish(new JobEvent(Type.FIRED, job.getId(), job.getName(), actionName(job), attempt, null, null,
+                System.currentTimeMillis()));
+    }
+
+    /** Publishes the outcome recorded in the fire's log: SUCCESS, FAILED or SHED. */
+    public void completed(JobDefinition job, JobLog log) {
+        if (subscribers.isEmpty()) return;
+        String message = log.getMessage();
+        if (message != null && message.length() > MAX_MESSAGE) message = message.substring(0, MAX_MESSAGE);
+        publish(new JobEvent(Type.valueOf(log.getStatus()), job.getId(), job.getName(), actionName(job), log.getAttempt(),
+                log.getDurationMs(), message, System.currentTimeMillis()));
+    }
+
+    void publish(JobEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.filter.matches(event)) continue;
+            if (subscriber.buffer.offer(event)) {
+                subscriber.wake();
+            } else {
+                droppedCounter.increment();
+                log.info("Dropping job event subscriber: {} events waiting to be sent", bufferSize);
+                remove(subscriber);
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${jobscheduler.events.heartbeat-ms:15000}",
+            fixedDelayString = "${jobscheduler.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            subscriber.wake();
+        }
+    }
+
+    /** Closing is left to the sender, which may be blocked writing to the client. */
+    private void remove(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            slots.release();
+            subscriber.closed = true;
+            subscriber.buffer.clear();
+            subscriber.wake();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(this::remove);
+        sender.shutdown();
+    }
+
+    private static String actionName(JobDefinition job) {
+        return job.getAction() == null ? null : job.getAction().name();
+    }
+}
@@ -0,0 +1,232 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.model.Job;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.quartz.listeners.SchedulerListenerSupport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps job ids to their Quartz keys and scheduling status without asking Mongo.
+ *
+ * Quartz jobs and their cron triggers are keyed by the job id, in the default group or in a
+ * per-tenant group (group-prefix + tenant), so two jobs with the same name never replace each
+ * other. The index is a scheduler listener and follows every schedule, pause, resume and delete
+ * made through this node's scheduler, so outside clustered mode a miss is answered from memory.
+ * In clustered mode other nodes change the shared store behind its back: a lookup that names the
+ * job's tenant probes that one group in the store on a miss, and callers still check existence
+ * with the scheduler before acting.
+ */
+@Slf4j
+@Component
+public class JobKeyIndex extends SchedulerListenerSupport {
+
+    public record Entry(JobKey jobKey, TriggerKey triggerKey, String status) {
+    }
+
+    private final Scheduler scheduler;
+    private final String defaultGroup;
+    private final String tenantGroupPrefix;
+    private final boolean clustered;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public JobKeyIndex(Scheduler scheduler,
+                       @Value("${jobscheduler.tenancy.default-group:group1}") String defaultGroup,
+                       @Value("${jobscheduler.tenancy.group-prefix:tenant-}") String tenantGroupPrefix,
+                       @Value("${jobscheduler.cluster.enabled:false}") boolean clustered) throws SchedulerException {
+        this.scheduler = scheduler;
+        this.defaultGroup = defaultGroup;
+        this.tenantGroupPrefix = tenantGroupPrefix;
+        this.clustered = clustered;
+        scheduler.getListenerManager().addSchedulerListener(this);
+        rebuild();
+    }
+
+    public String groupFor(String tenant) {
+        return tenant == null || tenant.isBlank() ? defaultGroup : tenantGroupPrefix + tenant;
+    }
+
+    public JobKey jobKeyFor(Job job) {
+        return new JobKey(job.getId(), groupFor(job.getTenant()));
+    }
+
+    public TriggerKey triggerKeyFor(Job job) {
+        return new TriggerKey(job.getId(), groupFor(job.getTenant()));
+    }
+
+    /** Whether lookups may miss jobs that other nodes scheduled. */
+    public boolean isClustered() {
+        return clustered;
+    }
+
+    /**
+     * The Quartz key of a scheduled job, or null if this node does not know the job.
+     */
+    public JobKey jobKey(String jobId) {
+        Entry entry = known(jobId);
+        return entry == null ? null : entry.jobKey();
+    }
+
+    /**
+     * The Quartz key of a scheduled job of the tenant. In clustered mode a miss checks the
+     * tenant's group in the store, for jobs another node scheduled.
+     */
+    public JobKey jobKey(String jobId, String tenant) {
+        Entry entry = lookup(jobId, tenant);
+        return entry == null ? null : entry.jobKey();
+    }
+
+    public TriggerKey triggerKey(String jobId) {
+        Entry entry = known(jobId);
+        return entry == null ? null : entry.triggerKey();
+    }
+
+    /**
+     * SCHEDULED or PAUSED as last seen by this node, or null if the job is not scheduled.
+     */
+    public String status(String jobId) {
+        Entry entry = known(jobId);
+        return entry == null ? null : entry.status();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private Entry known(String jobId) {
+        return jobId == null ? null : entries.get(jobId);
+    }
+
+    private Entry lookup(String jobId, String tenant) {
+        if (jobId == null) return null;
+        Entry entry = entries.get(jobId);
+        return entry != null || !clustered ? entry : probe(new JobKey(jobId, groupFor(tenant)));
+    }
+
+    /**
+     * Checks the one group the job can be in, for jobs scheduled by another node.
+     */
+    private Entry probe(JobKey key) {
+        try {
+            if (scheduler.checkExists(key)) return index(key);
+        } catch (SchedulerException e) {
+            log.warn("Could not look up job {}: {}", key.getName(), e.getMessage());
+        }
+        return null;
+    }
+
+    private void rebuild() throws SchedulerException {
+        for (String group : scheduler.getJobGroupNames()) {
+            if (!isJobGroup(group)) continue;
+            for (JobKey key : scheduler.getJobKeys(GroupMatcher.jobGroupEquals(group))) {
+                index(key);
+            }
+        }
+    }
+
+    private Entry index(JobKey key) throws SchedulerException {
+        TriggerKey triggerKey = new TriggerKey(key.getName(), key.getGroup());
+        String status = scheduler.getTriggerState(triggerKey) == Trigger.TriggerState.PAUSED ? "PAUSED" : "SCHEDULED";
+        Entry entry = new Entry(key, triggerKey, status);
+        entries.put(key.getName(), entry);
+        return entry;
+    }
+
+    private boolean isJobGroup(String group) {
+        return group.equals(defaultGroup) || group.startsWith(tenantGroupPrefix);
+    }
+
+    /** True for the cron trigger of one of our jobs, as opposed to retry or other one-shot triggers. */
+    private boolean isJobTrigger(TriggerKey key) {
+        return isJobGroup(key.getGroup());
+    }
+
+    private void setStatus(String jobId, String status) {
+        entries.computeIfPresent(jobId, (id, entry) -> new Entry(entry.jobKey(), entry.triggerKey(), status));
+    }
+
+    private void setGroupStatus(String group, String status) {
+        entries.replaceAll((id, entry) -> group == null || entry.jobKey().getGroup().equals(group)
+                ? new Entry(entry.jobKey(), entry.triggerKey(), status) : entry);
+    }
+
+    @Override
+    public void jobScheduled(Trigger trigger) {
+        if (!isJobTrigger(trigger.getKey())) return;
+        entries.put(trigger.getJobKey().getName(), new Entry(trigger.getJobKey(), trigger.getKey(), "SCHEDULED"));
+    }
+
+    /** Jobs of the wheel engine are added without a Quartz trigger. */
+    @Override
+    public void jobAdded(JobDetail jobDetail) {
+        JobKey key = jobDetail.getKey();
+        if (isJobGroup(key.getGroup())) {
+            entries.put(key.getName(), new Entry(key, new TriggerKey(key.getName(), key.getGroup()), "SCHEDULED"));
+        }
+    }
+
+    @Override
+    public void jobUnscheduled(TriggerKey triggerKey) {
+        if (isJobTrigger(triggerKey)) entries.remove(triggerKey.getName());
+    }
+
+    @Override
+    public void jobDeleted(JobKey jobKey) {
+        if (isJobGroup(jobKey.getGroup())) entries.remove(jobKey.getName());
+    }
+
+    @Override
+    public void jobPaused(JobKey jobKey) {
+        setStatus(jobKey.getName(), "PAUSED");
+    }
+
+    @Override
+    public void jobResumed(JobKey jobKey) {
+        setStatus(jobKey.getName(), "SCHEDULED");
+    }
+
+    @Override
+    public void triggerPaused(TriggerKey triggerKey) {
+        if (isJobTrigger(triggerKey)) setStatus(triggerKey.getName(), "PAUSED");
+    }
+
+    @Override
+    public void triggerResumed(TriggerKey triggerKey) {
+        if (isJobTrigger(triggerKey)) setStatus(triggerKey.getName(), "SCHEDULED");
+    }
+
+    @Override
+    public void jobsPaused(String jobGroup) {
+        setGroupStatus(jobGroup, "PAUSED");
+    }
+
+    @Override
+    public void jobsResumed(String jobGroup) {
+        setGroupStatus(jobGroup, "SCHEDULED");
+    }
+
+    @Override
+    public void triggersPaused(String triggerGroup) {
+        setGroupStatus(triggerGroup, "PAUSED");
+    }
+
+    @Override
+    public void triggersResumed(String triggerGroup) {
+        setGroupStatus(triggerGroup, "SCHEDULED");
+    }
+
+    @Override
+    public void schedulingDataCleared() {
+        entries.clear();
+    }
+}
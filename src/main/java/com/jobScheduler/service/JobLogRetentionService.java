@@ -0,0 +1,56 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.model.Job;
+import com.jobScheduler.model.JobLog;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.stream.Stream;
+
+/**
+ * Size-based log retention: keeps only the newest maxLogs logs of each job that sets it.
+ * Time-based retention needs no work here; logs carry expireAt and the TTL index removes them.
+ */
+@Slf4j
+@Service
+public class JobLogRetentionService {
+
+    private final MongoTemplate mongoTemplate;
+
+    public JobLogRetentionService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Scheduled(initialDelayString = "${jobscheduler.joblog.prune-interval-ms:600000}",
+            fixedDelayString = "${jobscheduler.joblog.prune-interval-ms:600000}")
+    public void pruneAll() {
+        Query capped = Query.query(Criteria.where("maxLogs").gt(0));
+        capped.fields().include("_id", "maxLogs");
+        try (Stream<Job> jobs = mongoTemplate.stream(capped, Job.class)) {
+            jobs.forEach(job -> prune(job.getId(), job.getMaxLogs()));
+        } catch (Exception e) {
+            log.warn("Job log pruning failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes everything older than the job's maxLogs-th newest log. Both steps walk the
+     * (jobId, timestamp) index.
+     */
+    public long prune(String jobId, int maxLogs) {
+        Query oldestKept = Query.query(Criteria.where("jobId").is(jobId))
+                .with(Sort.by(Sort.Direction.DESC, "timestamp"))
+                .skip(maxLogs - 1L)
+                .limit(1);
+        oldestKept.fields().include("timestamp");
+        JobLog boundary = mongoTemplate.findOne(oldestKept, JobLog.class);
+        if (boundary == null || boundary.getTimestamp() == null) return 0;
+        return mongoTemplate.remove(Query.query(Criteria.where("jobId").is(jobId)
+                .and("timestamp").lt(boundary.getTimestamp())), JobLog.class).getDeletedCount();
+    }
+}
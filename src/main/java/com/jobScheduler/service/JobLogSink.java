@@ -0,0 +1,12 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.model.JobLog;
+
+/**
+ * Destination for execution logs produced on the fire path.
+ * Implementations must not block the calling worker thread for long.
+ */
+public interface JobLogSink {
+
+    void write(JobLog log);
+}
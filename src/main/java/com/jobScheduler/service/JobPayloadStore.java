@@ -0,0 +1,310 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.model.Job;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps large payloads out of job documents, so reading a job or saving it does not move the
+ * payload every time.
+ *
+ * Before a job is saved, {@link #offload(Job)} gzips a payload of offload-threshold-bytes or more
+ * into GridFS, named by its SHA-256 hash, and the job document keeps only that hash in payloadRef.
+ * After a job is read, {@link #resolve(Collection)} fills the payloads back in from an LRU cache
+ * keyed by hash, fetching the missing ones from GridFS in one query. Neither talks to GridFS from
+ * inside Mongo's mapping: the mapping events only drop the inline payload on save and fill it from
+ * the cache on read.
+ *
+ * Every save marks the file it refers to as referenced now, storing it again if it is gone, so a
+ * payload cached on any node is never trusted to still be in GridFS. The sweep removes files no
+ * job refers to once they have gone unreferenced for an hour, checking each one again right
+ * before deleting it.
+ */
+@Slf4j
+@Service
+public class JobPayloadStore extends AbstractMongoEventListener<Job> {
+
+    static final String ENCODING = "gzip";
+    static final String REFERENCED_AT = "metadata.referencedAt";
+    private static final long SWEEP_GRACE_MS = TimeUnit.HOURS.toMillis(1);
+    private static final int RESOLVE_BATCH = 64;
+
+    /** A cached payload and its size in UTF-8 bytes. */
+    private record Cached(String payload, int bytes) {
+    }
+
+    private final GridFsTemplate gridFs;
+    private final MongoTemplate mongoTemplate;
+    private final String filesCollection;
+    private final int offloadThresholdBytes;
+    private final long cacheBytes;
+    /** Payloads by hash, least recently used first; guarded by itself. */
+    private final LinkedHashMap<String, Cached> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+
+    private final Counter storedCounter;
+    private final Counter fetchedCounter;
+
+    public JobPayloadStore(GridFsTemplate gridFs, MongoTemplate mongoTemplate, MeterRegistry meterRegistry,
+                           @Value("${spring.data.mongodb.gridfs.bucket:fs}") String bucket,
+                           @Value("${jobscheduler.payload.offload-threshold-bytes:16384}") int offloadThresholdBytes,
+                           @Value("${jobscheduler.payload.cache-bytes:67108864}") long cacheBytes) {
+        this.gridFs = gridFs;
+        this.mongoTemplate = mongoTemplate;
+        this.filesCollection = bucket + ".files";
+        this.offloadThresholdBytes = offloadThresholdBytes;
+        this.cacheBytes = cacheBytes;
+        this.storedCounter = meterRegistry.counter("jobscheduler.payload.stored");
+        this.fetchedCounter = meterRegistry.counter("jobscheduler.payload.fetched");
+    }
+
+    /** Leaves an offloaded payload out of the document about to be written. The Job itself keeps it. */
+    @Override
+    public void onBeforeSave(BeforeSaveEvent<Job> event) {
+        Document document = event.getDocument();
+        if (document != null && event.getSource().getPayloadRef() != null) {
+            document.remove("payload");
+        }
+    }
+
+    /** Fills in an offloaded payload the cache holds; the rest are left to {@link #resolve(Collection)}. */
+    @Override
+    public void onAfterConvert(AfterConvertEvent<Job> event) {
+        Job job = event.getSource();
+        if (job.getPayload() == null && job.getPayloadRef() != null) {
+            job.setPayload(cached(job.getPayloadRef()));
+        }
+    }
+
+    /**
+     * Sets payloadRef on each job about to be saved, storing payloads from the threshold up in
+     * GridFS. A job read without its payload keeps the reference it has.
+     */
+    public void offload(Collection<Job> jobs) {
+        jobs.forEach(this::offload);
+    }
+
+    public void offload(Job job) {
+        if (job.getPayload() == null) return;
+        job.setPayloadRef(offload(job.getPayload()));
+    }
+
+    /**
+     * Stores the payload in GridFS unless it is below the threshold, or marks the stored file as
+     * referenced now. Returns its hash, or null if it stays inline.
+     */
+    String offload(String payload) {
+        // UTF-8 takes at most three bytes per char, so short payloads need no encoding to rule out
+        if ((long) payload.length() * 3 < offloadThresholdBytes) return null;
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < offloadThresholdBytes) return null;
+
+        String ref = hash(bytes);
+        // checked in GridFS on every save: another node's sweep may have removed a file this node still caches
+        if (!touch(ref)) {
+            gridFs.store(new ByteArrayInputStream(gzip(bytes)), ref, "application/gzip",
+                    new Document("encoding", ENCODING).append("size", bytes.length).append("referencedAt", new Date()));
+            storedCounter.increment();
+        }
+        cache(ref, payload, bytes.length);
+        return ref;
+    }
+
+    private boolean touch(String ref) {
+        return mongoTemplate.updateFirst(byName(ref), Update.update(REFERENCED_AT, new Date()), filesCollection)
+                .getMatchedCount() > 0;
+    }
+
+    public void resolve(Job job) {
+        resolve(List.of(job));
+    }
+
+    /**
+     * Fills in the payloads of jobs read with only their payloadRef, from the cache or with one
+     * GridFS query for all that are missing.
+     */
+    public void resolve(Collection<Job> jobs) {
+        Map<String, List<Job>> missing = new HashMap<>();
+        for (Job job : jobs) {
+            if (job.getPayload() != null || job.getPayloadRef() == null) continue;
+            String payload = cached(job.getPayloadRef());
+            if (payload != null) {
+                job.setPayload(payload);
+            } else {
+                missing.computeIfAbsent(job.getPayloadRef(), ref -> new ArrayList<>()).add(job);
+            }
+        }
+        if (missing.isEmpty()) return;
+        for (GridFSFile file : gridFs.find(Query.query(Criteria.where("filename").in(missing.keySet()))).into(new ArrayList<>())) {
+            List<Job> waiting = missing.remove(file.getFilename());
+            if (waiting == null) continue; // a second file under the same hash
+            String payload = read(file);
+            waiting.forEach(job -> job.setPayload(payload));
+        }
+        missing.keySet().forEach(ref -> log.warn("Payload {} is missing from GridFS", ref));
+    }
+
+    /**
+     * The jobs of the stream with their payloads resolved a batch at a time. Closing the returned
+     * stream closes the source.
+     */
+    public Stream<Job> resolve(Stream<Job> jobs) {
+        Iterator<Job> source = jobs.iterator();
+        Iterator<Job> resolved = new Iterator<>() {
+            private Iterator<Job> batch = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                if (!batch.hasNext() && source.hasNext()) {
+                    List<Job> next = new ArrayList<>(RESOLVE_BATCH);
+                    while (next.size() < RESOLVE_BATCH && source.hasNext()) next.add(source.next());
+                    resolve(next);
+                    batch = next.iterator();
+                }
+                return batch.hasNext();
+            }
+
+            @Override
+            public Job next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return batch.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(resolved, Spliterator.ORDERED), false)
+                .onClose(jobs::close);
+    }
+
+    private String read(GridFSFile file) {
+        byte[] bytes;
+        try (InputStream in = new GZIPInputStream(gridFs.getResource(file).getInputStream())) {
+            bytes = in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read payload " + file.getFilename(), e);
+        }
+        fetchedCounter.increment();
+        String payload = new String(bytes, StandardCharsets.UTF_8);
+        cache(file.getFilename(), payload, bytes.length);
+        return payload;
+    }
+
+    @Scheduled(initialDelayString = "${jobscheduler.payload.sweep-interval-ms:3600000}",
+            fixedDelayString = "${jobscheduler.payload.sweep-interval-ms:3600000}")
+    public void sweep() {
+        try {
+            Set<String> referenced = new HashSet<>(mongoTemplate.findDistinct(new Query(), "payloadRef", Job.class, String.class));
+            // a save marks its file referenced before writing the job, so recently marked files may belong to one in flight
+            Date cutoff = new Date(System.currentTimeMillis() - SWEEP_GRACE_MS);
+            int removed = 0;
+            for (GridFSFile file : gridFs.find(Query.query(unreferencedSince(cutoff))).into(new ArrayList<>())) {
+                String ref = file.getFilename();
+                if (referenced.contains(ref)) continue;
+                // a job saved since the distinct read may refer to it now
+                if (mongoTemplate.exists(Query.query(Criteria.where("payloadRef").is(ref)), Job.class)) continue;
+                evict(ref);
+                // only while still unmarked, so a save that marked it meanwhile keeps it
+                gridFs.delete(Query.query(new Criteria().andOperator(Criteria.where("_id").is(file.getObjectId()), unreferencedSince(cutoff))));
+                removed++;
+            }
+            if (removed > 0) log.info("Removed {} payloads no job refers to", removed);
+        } catch (Exception e) {
+            log.warn("Payload sweep failed: {}", e.getMessage());
+        }
+    }
+
+    private static Criteria unreferencedSince(Date cutoff) {
+        return Criteria.where(REFERENCED_AT).lt(cutoff);
+    }
+
+    private String cached(String ref) {
+        synchronized (cache) {
+            Cached cached = cache.get(ref);
+            return cached == null ? null : cached.payload();
+        }
+    }
+
+    private void cache(String ref, String payload, int bytes) {
+        synchronized (cache) {
+            Cached previous = cache.put(ref, new Cached(payload, bytes));
+            if (previous != null) cachedBytes -= previous.bytes();
+            cachedBytes += bytes;
+            Iterator<Cached> eldest = cache.values().iterator();
+            while (cachedBytes > cacheBytes && eldest.hasNext()) {
+                cachedBytes -= eldest.next().bytes();
+                eldest.remove();
+            }
+        }
+    }
+
+    /** Drops the payload from this node's cache. Other nodes may keep it; their saves still check GridFS. */
+    private void evict(String ref) {
+        synchronized (cache) {
+            Cached previous = cache.remove(ref);
+            if (previous != null) cachedBytes -= previous.bytes();
+        }
+    }
+
+    private static Query byName(String ref) {
+        return Query.query(Criteria.where("filename").is(ref));
+    }
+
+    static String hash(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,57 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.model.JobRevision;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-job revisions stamped into the Quartz job data, so every node can tell whether its cached
+ * definition is current. Revisions are incremented in Mongo, so two nodes changing the same job
+ * never hand out the same number. A job that was never revised is at revision 0.
+ */
+@Component
+@RequiredArgsConstructor
+public class JobRevisions {
+
+    private static final FindAndModifyOptions UPSERT_RETURN_NEW = FindAndModifyOptions.options().upsert(true).returnNew(true);
+
+    private final MongoTemplate mongoTemplate;
+
+    /** Bumps the job's revision and returns the new one. */
+    public long next(String jobId) {
+        JobRevision updated = mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(jobId)),
+                new Update().inc("revision", 1), UPSERT_RETURN_NEW, JobRevision.class);
+        return updated == null ? 0 : updated.getRevision();
+    }
+
+    /** Bumps the revisions of all the jobs in one bulk write and returns the new ones. */
+    public Map<String, Long> next(Collection<String> jobIds) {
+        if (jobIds.isEmpty()) return Map.of();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, JobRevision.class);
+        for (String jobId : jobIds) {
+            bulk.upsert(Query.query(Criteria.where("_id").is(jobId)), new Update().inc("revision", 1));
+        }
+        bulk.execute();
+        return current(jobIds);
+    }
+
+    /** Current revisions of the jobs; jobs missing from the map are at revision 0. */
+    public Map<String, Long> current(Collection<String> jobIds) {
+        Map<String, Long> revisions = new HashMap<>();
+        if (jobIds.isEmpty()) return revisions;
+        for (JobRevision revision : mongoTemplate.find(Query.query(Criteria.where("_id").in(jobIds)), JobRevision.class)) {
+            revisions.put(revision.getId(), revision.getRevision());
+        }
+        return revisions;
+    }
+}
@@ -1,201 +1,518 @@
 package com.jobScheduler.service;
 
+import com.jobScheduler.actions.JobActionRegistry;
 import com.jobScheduler.model.Job;
+import com.jobScheduler.model.JobAction;
+import com.jobScheduler.model.JobDefinition;
 import com.jobScheduler.model.JobLog;
+import com.jobScheduler.repository.JobQueries;
 import com.jobScheduler.repository.JobRepository;
 import com.jobScheduler.repository.JobLogRepository;
+import com.jobScheduler.utils.CronExpressionCache;
 import com.jobScheduler.utils.CronUtils;
+import com.jobScheduler.utils.JitteredCronScheduleBuilder;
 import com.jobScheduler.jobs.PrintMessageJob;
-import lombok.RequiredArgsConstructor;
+import com.jobScheduler.jobs.SerialPrintMessageJob;
 import org.quartz.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
-import java.io.FileWriter;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.util.Scanner;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 @Service
-@RequiredArgsConstructor
 public class JobService {
 
-    private final Scheduler scheduler;
+    private final TriggerEngine triggerEngine;
     private final JobRepository jobRepository;
     private final JobLogRepository jobLogRepository;
+    private final JobLogSink jobLogSink;
+    private final JobDefinitionCache jobDefinitionCache;
+    private final JobActionRegistry jobActionRegistry;
+    private final MongoTemplate mongoTemplate;
+    private final FireMetrics fireMetrics;
+    private final RetryService retryService;
+    private final JobKeyIndex jobKeyIndex;
+    private final JobStatsService jobStats;
+    private final JobEventStream jobEvents;
+    private final CronExpressionCache cronExpressionCache;
+    private final JobRevisions jobRevisions;
+    private final JobPayloadStore payloadStore;
+
+    private final int defaultLogRetentionDays;
+    private final long defaultJitterWindowMs;
+    private final boolean defaultAllowConcurrent;
+    private final int maxPayloadBytes;
+
+    private final List<FireListener> fireListeners = new CopyOnWriteArrayList<>();
+
+    private static final int MAX_PREVIEW = 1000;
+    private static final int MAX_PAGE = 1000;
+    /** Fields returned by job listings unless the caller asks for others. */
+    public static final List<String> SUMMARY_FIELDS = List.of("name", "cronExpression", "timeZone", "status", "action");
+
+    public JobService(TriggerEngine triggerEngine, JobRepository jobRepository, JobLogRepository jobLogRepository,
+                      JobLogSink jobLogSink, JobDefinitionCache jobDefinitionCache, JobActionRegistry jobActionRegistry,
+                      MongoTemplate mongoTemplate, FireMetrics fireMetrics, RetryService retryService, JobKeyIndex jobKeyIndex,
+                      JobStatsService jobStats, JobEventStream jobEvents, CronExpressionCache cronExpressionCache,
+                      JobRevisions jobRevisions, JobPayloadStore payloadStore,
+                      @Value("${jobscheduler.joblog.retention-days:0}") int defaultLogRetentionDays,
+                      @Value("${jobscheduler.jitter.window-ms:0}") long defaultJitterWindowMs,
+                      @Value("${jobscheduler.executor.allow-concurrent:true}") boolean defaultAllowConcurrent,
+                      @Value("${jobscheduler.payload.max-bytes:16777216}") int maxPayloadBytes) {
+        this.triggerEngine = triggerEngine;
+        this.jobRepository = jobRepository;
+        this.jobLogRepository = jobLogRepository;
+        this.jobLogSink = jobLogSink;
+        this.jobDefinitionCache = jobDefinitionCache;
+        this.jobActionRegistry = jobActionRegistry;
+        this.mongoTemplate = mongoTemplate;
+        this.fireMetrics = fireMetrics;
+        this.retryService = retryService;
+        this.jobKeyIndex = jobKeyIndex;
+        this.jobStats = jobStats;
+        this.jobEvents = jobEvents;
+        this.cronExpressionCache = cronExpressionCache;
+        this.jobRevisions = jobRevisions;
+        this.payloadStore = payloadStore;
+        this.defaultLogRetentionDays = defaultLogRetentionDays;
+        this.defaultJitterWindowMs = defaultJitterWindowMs;
+        this.defaultAllowConcurrent = defaultAllowConcurrent;
+        this.maxPayloadBytes = maxPayloadBytes;
+    }
 
     public void scheduleJob(Job job) throws SchedulerException {
-        if (!CronUtils.isValidCron(job.getCronExpression())) {
-            throw new IllegalArgumentException("Invalid cron expression: " + job.getCronExpression());
+        validatePayload(job);
+        QuartzSchedule schedule = buildSchedule(job, job.getId() == null ? 0 : jobRevisions.next(job.getId()));
+        // a job that moved to another tenant keeps its id but not its group
+        JobKey previous = job.getId() == null ? null : jobKey(job.getId());
+        if (previous != null && !previous.equals(schedule.jobDetail().getKey())) {
+            triggerEngine.deleteJob(previous);
+        }
+        triggerEngine.scheduleJob(schedule.jobDetail(), schedule.trigger());
+
+        job.setStatus("SCHEDULED");
+        payloadStore.offload(job);
+        jobRepository.save(job);
+        jobDefinitionCache.put(job, schedule.revision());
+    }
+
+    /**
+     * Quartz job and trigger built for one Job, stamped with the revision fires use to
+     * check that their cached definition is current.
+     */
+    public record QuartzSchedule(JobDetail jobDetail, Trigger trigger, long revision) {
+    }
+
+    /**
+     * Checks the payload's size and that its action accepts it. Called when a job is scheduled,
+     * not on rehydration, so a stored job is never dropped because the rules tightened.
+     * Throws IllegalArgumentException if the payload is rejected.
+     */
+    public void validatePayload(Job job) {
+        JobAction action = JobAction.fromString(job.getAction());
+        checkPayloadSize(job);
+        jobActionRegistry.resolve(action).validatePayload(job.getPayload());
+    }
+
+    private void checkPayloadSize(Job job) {
+        if (job.getPayload() != null && job.getPayload().length() > maxPayloadBytes / 3
+                && job.getPayload().getBytes(StandardCharsets.UTF_8).length > maxPayloadBytes) {
+            throw new IllegalArgumentException("payload must not be larger than " + maxPayloadBytes + " bytes");
         }
+    }
 
-        JobDetail jobDetail = JobBuilder.newJob(PrintMessageJob.class)
-                .withIdentity(job.getName(), "group1")
+    /**
+     * Validates the job's cron, time zone and action and builds its Quartz job and trigger,
+     * stamped with the given revision from {@link JobRevisions}. The payload is checked
+     * separately by {@link #validatePayload(Job)}.
+     * Throws IllegalArgumentException if the job is not schedulable.
+     */
+    public QuartzSchedule buildSchedule(Job job, long revision) {
+        CronExpression cron = compileCron(job.getCronExpression(), CronUtils.timeZone(job.getTimeZone()));
+        JobAction action = JobAction.fromString(job.getAction());
+        jobActionRegistry.resolve(action);
+        if (job.getMaxAttempts() != null && job.getMaxAttempts() < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        if (job.getRetryBackoffMs() != null && job.getRetryBackoffMs() < 0) {
+            throw new IllegalArgumentException("retryBackoffMs must not be negative");
+        }
+        if (job.getFailureThreshold() != null && job.getFailureThreshold() < 0) {
+            throw new IllegalArgumentException("failureThreshold must not be negative");
+        }
+        if (job.getJitterWindowMs() != null && job.getJitterWindowMs() < 0) {
+            throw new IllegalArgumentException("jitterWindowMs must not be negative");
+        }
+        long jitterMs = jitterOffset(job.getId(), job.getJitterWindowMs() != null ? job.getJitterWindowMs() : defaultJitterWindowMs);
+        boolean allowConcurrent = job.getAllowConcurrent() != null ? job.getAllowConcurrent() : defaultAllowConcurrent;
+
+        // data map values stay Strings so they round-trip through a JDBC job store
+        JobDetail jobDetail = JobBuilder.newJob(allowConcurrent ? PrintMessageJob.class : SerialPrintMessageJob.class)
+                .withIdentity(jobKeyIndex.jobKeyFor(job))
                 .usingJobData("jobId", job.getId())
                 .usingJobData("jobName", job.getName())
+                .usingJobData("action", action.name())
+                .usingJobData("revision", String.valueOf(revision))
+                .usingJobData("jitterMs", String.valueOf(jitterMs))
                 .storeDurably(false)
+                .requestRecovery(true)
                 .build();
 
         Trigger trigger = TriggerBuilder.newTrigger()
-                .withIdentity(job.getName() + "Trigger", "group1")
-                .withSchedule(CronScheduleBuilder.cronSchedule(job.getCronExpression()))
+                .withIdentity(jobKeyIndex.triggerKeyFor(job))
+                .withPriority(job.getPriority() != null ? job.getPriority() : Trigger.DEFAULT_PRIORITY)
+                // Quartz keeps and may re-zone the trigger's expression, so it gets a copy of the cached one
+                // a jittered trigger fires at the offset time itself, so nothing runs at the shared cron time
+                .withSchedule(jitterMs > 0
+                        ? JitteredCronScheduleBuilder.jitteredCronSchedule(new CronExpression(cron), jitterMs)
+                        : CronScheduleBuilder.cronSchedule(new CronExpression(cron)))
                 .usingJobData("jobId", job.getId())
                 .usingJobData("jobName", job.getName())
+                .usingJobData("action", action.name())
                 .build();
+        return new QuartzSchedule(jobDetail, trigger, revision);
+    }
+
+    /**
+     * Fixed offset within the window by which the job's cron fires are delayed. Derived from a
+     * hash of the id, so it is the same on every node and after restarts, and jobs with the same
+     * cron spread evenly over the window.
+     */
+    public static long jitterOffset(String jobId, long windowMs) {
+        if (jobId == null || windowMs <= 0) return 0;
+        long hash = jobId.hashCode() * 0x9E3779B97F4A7C15L;
+        return Math.floorMod(hash ^ (hash >>> 32), windowMs);
+    }
+
+    public void addFireListener(FireListener listener) {
+        fireListeners.add(listener);
+    }
+
+    /**
+     * Next fire times of an arbitrary cron expression, for previews before scheduling.
+     */
+    public List<Date> previewCron(String expression, String timeZone, int count) {
+        CronExpression cron = compileCron(expression, CronUtils.timeZone(timeZone));
+        return CronUtils.nextFireTimes(cron, new Date(), Math.max(0, Math.min(count, MAX_PREVIEW)));
+    }
+
+    public Optional<List<Date>> previewJob(String jobId, int count) {
+        return jobRepository.findById(jobId)
+                .map(job -> previewCron(job.getCronExpression(), job.getTimeZone(), count));
+    }
 
-        if (!scheduler.checkExists(jobDetail.getKey())) {
-            scheduler.scheduleJob(jobDetail, trigger);
-        } else {
-            scheduler.rescheduleJob(trigger.getKey(), trigger);
+    /**
+     * The parsed expression from the shared cache. It must not be modified or given to Quartz.
+     * Throws IllegalArgumentException if the expression does not parse.
+     */
+    public CronExpression compileCron(String expression, TimeZone timeZone) {
+        try {
+            return cronExpressionCache.get(expression, timeZone);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid cron expression: " + expression);
         }
+    }
 
-        job.setStatus("SCHEDULED");
-        jobRepository.save(job);
+    /**
+     * One page of jobs ordered by id. nextCursor is the id to pass as after for the next page,
+     * or null on the last page.
+     */
+    public record JobPage(List<Job> jobs, String nextCursor) {
+    }
+
+    /**
+     * Keyset-paginated listing: each page is one indexed range query on _id, so cost does not grow
+     * with how deep the caller has paged. fields limits the projection; null means the summary
+     * fields and "*" means the full document.
+     */
+    public JobPage listJobs(String status, String action, String namePrefix, String after, int limit, List<String> fields) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE));
+        Query query = listQuery(status, action, namePrefix, after, fields).limit(pageSize + 1);
+        List<Job> jobs = mongoTemplate.find(query, Job.class);
+        payloadStore.resolve(jobs);
+        if (jobs.size() <= pageSize) {
+            return new JobPage(jobs, null);
+        }
+        List<Job> page = jobs.subList(0, pageSize);
+        return new JobPage(page, page.get(pageSize - 1).getId());
+    }
+
+    /**
+     * Streams every matching job from a Mongo cursor. The caller must close the stream.
+     */
+    public Stream<Job> streamJobs(String status, String action, String namePrefix, List<String> fields) {
+        return payloadStore.resolve(mongoTemplate.stream(listQuery(status, action, namePrefix, null, fields), Job.class));
     }
 
-    public List<Job> listAllJobs() {
-        return jobRepository.findAll();
+    private static Query listQuery(String status, String action, String namePrefix, String after, List<String> fields) {
+        List<Criteria> criteria = JobQueries.filters(status, action, namePrefix);
+        if (after != null && !after.isBlank()) {
+            criteria.add(Criteria.where("_id").gt(after));
+        }
+        Query query = Query.query(JobQueries.and(criteria)).with(Sort.by(Sort.Direction.ASC, "_id"));
+        List<String> projection = fields == null || fields.isEmpty() ? SUMMARY_FIELDS : fields;
+        if (!projection.contains("*")) {
+            query.fields().include(projection.toArray(new String[0]));
+            // an offloaded payload is filled in from its hash
+            if (projection.contains("payload")) query.fields().include("payloadRef");
+        }
+        return query;
+    }
+
+    /**
+     * The job's Quartz key from the index. On a miss in clustered mode the job may have been
+     * scheduled by another node, so its stored tenant names the one group to check.
+     */
+    private JobKey jobKey(String jobId) {
+        JobKey key = jobKeyIndex.jobKey(jobId);
+        if (key != null || !jobKeyIndex.isClustered()) return key;
+        Query query = Query.query(Criteria.where("_id").is(jobId));
+        query.fields().include("tenant");
+        Job stored = mongoTemplate.findOne(query, Job.class);
+        return stored == null ? null : jobKeyIndex.jobKey(jobId, stored.getTenant());
     }
 
     public boolean pauseJob(String jobId) throws SchedulerException {
-        Optional<Job> opt = jobRepository.findById(jobId);
-        if (opt.isEmpty()) return false;
-        Job job = opt.get();
-        JobKey key = new JobKey(job.getName(), "group1");
-        if (scheduler.checkExists(key)) {
-            scheduler.pauseJob(key);
-            job.setStatus("PAUSED");
-            jobRepository.save(job);
+        JobKey key = jobKey(jobId);
+        if (key != null && triggerEngine.checkExists(key)) {
+            triggerEngine.pauseJob(key);
+            setStatus(jobId, "PAUSED");
+            jobDefinitionCache.invalidate(jobId);
             return true;
         }
         return false;
     }
 
     public boolean resumeJob(String jobId) throws SchedulerException {
-        Optional<Job> opt = jobRepository.findById(jobId);
-        if (opt.isEmpty()) return false;
-        Job job = opt.get();
-        JobKey key = new JobKey(job.getName(), "group1");
-        if (scheduler.checkExists(key)) {
-            scheduler.resumeJob(key);
-            job.setStatus("SCHEDULED");
-            jobRepository.save(job);
+        JobKey key = jobKey(jobId);
+        if (key != null && triggerEngine.checkExists(key)) {
+            triggerEngine.resumeJob(key);
+            setStatus(jobId, "SCHEDULED");
+            jobDefinitionCache.invalidate(jobId);
             return true;
         }
         return false;
     }
 
     public boolean deleteJob(String jobId) throws SchedulerException {
-        Optional<Job> opt = jobRepository.findById(jobId);
-        if (opt.isEmpty()) return false;
-        Job job = opt.get();
-        JobKey key = new JobKey(job.getName(), "group1");
-        boolean deleted = scheduler.deleteJob(key);
+        JobKey key = jobKey(jobId);
+        boolean deleted = key != null && triggerEngine.deleteJob(key);
         if (deleted) {
-            job.setStatus("DELETED");
-            jobRepository.save(job);
+            setStatus(jobId, "DELETED");
+            jobDefinitionCache.invalidate(jobId);
         }
         return deleted;
     }
 
-    public List<?> getJobLogs(String jobId) {
-        return jobLogRepository.findByJobIdOrderByTimestampDesc(jobId)
-                .stream().collect(Collectors.toList());
+    /**
+     * SCHEDULED or PAUSED from the in-memory index, reading Mongo only on a clustered miss; empty if the job
+     * is not scheduled.
+     */
+    public Optional<String> getScheduledStatus(String jobId) {
+        return jobKey(jobId) == null ? Optional.empty() : Optional.ofNullable(jobKeyIndex.status(jobId));
+    }
+
+    /**
+     * Updates only the status, so a concurrent in-place update of other fields
+     * (e.g. the COUNTDOWN counter) is not overwritten with a stale copy.
+     */
+    private void setStatus(String jobId, String status) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(jobId)), Update.update("status", status), Job.class);
+    }
+
+    /**
+     * Newest-first page of a job's logs. before and after are exclusive timestamp bounds;
+     * with only after set, the page holds the logs right after it (still returned newest first).
+     */
+    public List<JobLog> getJobLogs(String jobId, int limit, LocalDateTime before, LocalDateTime after) {
+        Pageable page = PageRequest.of(0, Math.max(1, Math.min(limit, MAX_PAGE)));
+        if (before != null && after != null) {
+            return jobLogRepository.findByJobIdAndTimestampBetweenOrderByTimestampDesc(jobId, after, before, page);
+        }
+        if (before != null) {
+            return jobLogRepository.findByJobIdAndTimestampBeforeOrderByTimestampDesc(jobId, before, page);
+        }
+        if (after != null) {
+            List<JobLog> logs = new ArrayList<>(jobLogRepository.findByJobIdAndTimestampAfterOrderByTimestampAsc(jobId, after, page));
+            Collections.reverse(logs);
+            return logs;
+        }
+        return jobLogRepository.findByJobIdOrderByTimestampDesc(jobId, page);
+    }
+
+    /**
+     * Saves the job, rejecting a payload over the size limit with IllegalArgumentException. A job
+     * that is already scheduled gets a new revision in its Quartz job data,
+     * so the next fire on every node reloads the definition, not just on this one.
+     */
+    public Job saveJob(Job job) throws SchedulerException {
+        checkPayloadSize(job);
+        boolean existing = job.getId() != null;
+        payloadStore.offload(job);
+        Job saved = jobRepository.save(job);
+        if (existing) {
+            JobKey key = jobKeyIndex.jobKey(saved.getId(), saved.getTenant());
+            if (key != null && triggerEngine.checkExists(key)) {
+                triggerEngine.setRevision(key, jobRevisions.next(saved.getId()));
+            }
+        }
+        jobDefinitionCache.invalidate(saved.getId());
+        return saved;
+    }
+
+    /**
+     * Runs one fire of the job. The returned future completes once the action has finished
+     * and its log has been handed to the sink; it completes exceptionally if the action failed.
+     */
+    public CompletableFuture<Void> doSomething(String jobId) {
+        return doSomething(jobId, 0, 1);
     }
 
-    public Job saveJob(Job job) {
-        return jobRepository.save(job);
+    public CompletableFuture<Void> doSomething(String jobId, long revision, int attempt) {
+        return doSomething(jobId, revision, attempt, Map.of());
     }
 
-    public void doSomething(String jobId) {
-        Optional<Job> opt = jobRepository.findById(jobId);
-        if (opt.isEmpty()) return;
+    /**
+     * Runs one attempt of a fire using a cached definition that is at least the given revision.
+     * A failed attempt is handed to the RetryService, which may schedule the next one carrying
+     * the same fireData. Fire listeners are told about the outcome either way.
+     */
+    public CompletableFuture<Void> doSomething(String jobId, long revision, int attempt, Map<String, String> fireData) {
+        JobDefinition job = definition(jobId, revision);
+        if (job == null) return CompletableFuture.completedFuture(null);
+        return doSomething(job, attempt, fireData);
+    }
+
+    /**
+     * The cached definition a fire of the given revision runs with, or null if the job no
+     * longer exists. Fires look it up once and pass it on, so the action is never re-parsed.
+     */
+    public JobDefinition definition(String jobId, long revision) {
+        return jobDefinitionCache.get(jobId, revision);
+    }
 
-        Job job = opt.get();
-        String action = job.getAction();
-        String payload = job.getPayload();
-        String logMessage = "Executed action: " + action;
+    public CompletableFuture<Void> doSomething(JobDefinition job, int attempt, Map<String, String> fireData) {
+        if (job.getAction() == null) return failUnknownAction(job, attempt, fireData);
 
+        jobEvents.fired(job, attempt);
+        long start = System.nanoTime();
+        CompletableFuture<String> execution;
         try {
-            switch (action) {
-                case "PRINT_MESSAGE":
-                    System.out.println("[Job " + job.getName() + "] " + payload);
-                    logMessage = payload;
-                    break;
-
-                case "COUNTDOWN":
-                    try {
-                        int start = Integer.parseInt(payload);
-                        if (start > 0) {
-                            System.out.println("[Job " + job.getName() + "] Countdown: " + start);
-                            job.setPayload(String.valueOf(start - 1));
-                            jobRepository.save(job);
-                        } else {
-                            System.out.println("[Job " + job.getName() + "] Countdown finished!");
-                        }
-                    } catch (NumberFormatException e) {
-                        System.out.println("Invalid countdown number for job " + job.getName());
-                    }
-                    logMessage = "Countdown tick";
-                    break;
-
-                case "CALL_API":
-                    try {
-                        URL url = new URL(payload);
-                        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-                        conn.setRequestMethod("GET");
-                        conn.connect();
-                        int responseCode = conn.getResponseCode();
-                        StringBuilder response = new StringBuilder();
-                        try (Scanner sc = new Scanner(conn.getInputStream())) {
-                            while (sc.hasNext()) {
-                                response.append(sc.nextLine());
-                            }
-                        }
-                        System.out.println("[Job " + job.getName() + "] API Response (" + responseCode + "): " + response);
-                        logMessage = "API call successful";
-                    } catch (Exception e) {
-                        System.out.println("API call failed: " + e.getMessage());
-                        logMessage = "API call failed";
-                    }
-                    break;
-
-                case "WRITE_FILE":
-                    try (FileWriter writer = new FileWriter(payload, true)) {
-                        writer.write("Log from job " + job.getName() + " at " + new Date() + "\n");
-                        System.out.println("[Job " + job.getName() + "] Wrote to file " + payload);
-                        logMessage = "File write successful";
-                    } catch (Exception e) {
-                        System.out.println("File write failed: " + e.getMessage());
-                        logMessage = "File write failed";
-                    }
-                    break;
-
-                case "MONGO_LOG":
-                    System.out.println("[Job " + job.getName() + "] Insert log into MongoDB: " + payload);
-                    logMessage = "Inserted MongoDB log: " + payload;
-                    break;
-
-                case "SEND_EMAIL":
-                    System.out.println("[Job " + job.getName() + "] Sending fake email to " + payload);
-                    logMessage = "Fake email sent to " + payload;
-                    break;
-
-                default:
-                    System.out.println("[Job " + job.getName() + "] Unknown action.");
-                    logMessage = "Unknown action";
+            execution = jobActionRegistry.resolve(job.getAction()).executeAsync(job);
+        } catch (Exception e) {
+            execution = CompletableFuture.failedFuture(e);
+        }
+        return execution.handle((message, error) -> {
+            long durationNanos = System.nanoTime() - start;
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            fireMetrics.recordCompletion(job.getAction(), durationNanos, error == null);
+            jobStats.recordExecution(job.getId(), job.getAction(), TimeUnit.NANOSECONDS.toMillis(durationNanos), error == null);
+
+            JobLog log = newLog(job, error == null ? "SUCCESS" : "FAILED",
+                    error == null ? message : "Action " + job.getAction() + " failed: " + cause.getMessage(),
+                    attempt, TimeUnit.NANOSECONDS.toMillis(durationNanos));
+            jobLogSink.write(log);
+            jobEvents.completed(job, log);
+            boolean retrying = false;
+            if (error == null) {
+                retryService.onSuccess(job);
+            } else {
+                retrying = retryService.onFailure(job, attempt, cause, fireData);
+            }
+            for (FireListener listener : fireListeners) {
+                listener.fireCompleted(job, fireData, error == null, retrying);
             }
-        } finally {
-            JobLog log = new JobLog();
-            log.setJobId(jobId);
-            log.setMessage(logMessage);
-            log.setTimestamp(LocalDateTime.ofInstant(new Date().toInstant(), ZoneId.systemDefault()));
-            jobLogRepository.save(log);
+            if (error != null) {
+                throw error instanceof CompletionException ce ? ce : new CompletionException(error);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Records a fire that admission control dropped: it is logged as SHED and reported to fire
+     * listeners as a failed fire that will not be retried.
+     */
+    public void shed(String jobId, long revision, int attempt, Map<String, String> fireData, String reason) {
+        JobDefinition job = definition(jobId, revision);
+        if (job != null) shed(job, attempt, fireData, reason);
+    }
+
+    public void shed(JobDefinition job, int attempt, Map<String, String> fireData, String reason) {
+        JobLog log = newLog(job, "SHED", reason, attempt, 0);
+        jobLogSink.write(log);
+        jobEvents.completed(job, log);
+        jobStats.recordShed(job.getId(), job.getAction());
+        for (FireListener listener : fireListeners) {
+            listener.fireCompleted(job, fireData, false, false);
+        }
+    }
+
+    /**
+     * Reports a fire that ended before its action ran to fire listeners, so nothing waiting
+     * on it is left hanging.
+     */
+    public void abandon(String jobId, Map<String, String> fireData, String reason) {
+        for (FireListener listener : fireListeners) {
+            listener.fireAbandoned(jobId, fireData, reason);
+        }
+    }
+
+    /**
+     * A job whose stored action no longer parses can never run: its first fire logs the failure
+     * and pauses the job, so later fires do not fail the same way.
+     */
+    private CompletableFuture<Void> failUnknownAction(JobDefinition job, int attempt, Map<String, String> fireData) {
+        String reason = "Unknown job action, job paused";
+        try {
+            pauseJob(job.getId());
+        } catch (SchedulerException e) {
+            reason = "Unknown job action, could not pause job: " + e.getMessage();
+        }
+        JobLog log = newLog(job, "FAILED", reason, attempt, 0);
+        jobLogSink.write(log);
+        jobEvents.completed(job, log);
+        for (FireListener listener : fireListeners) {
+            listener.fireCompleted(job, fireData, false, false);
+        }
+        return CompletableFuture.failedFuture(new IllegalStateException("Job " + job.getId() + " has an unknown action"));
+    }
+
+    private JobLog newLog(JobDefinition job, String status, String message, int attempt, long durationMs) {
+        JobLog log = new JobLog();
+        log.setJobId(job.getId());
+        log.setJobName(job.getName());
+        log.setStatus(status);
+        log.setMessage(message);
+        log.setAttempt(attempt);
+        log.setDurationMs(durationMs);
+        log.setTimestamp(LocalDateTime.ofInstant(new Date().toInstant(), ZoneId.systemDefault()));
+        int retentionDays = job.getLogRetentionDays() != null ? job.getLogRetentionDays() : defaultLogRetentionDays;
+        if (retentionDays > 0) {
+            log.setExpireAt(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(retentionDays)));
         }
+        return log;
     }
 }
@@ -0,0 +1,295 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.model.JobAction;
+import com.jobScheduler.model.JobStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Execution rollups per job and per action, in minute and hour buckets plus an all-time total,
+ * so dashboards read a few small documents instead of a job's whole log history.
+ *
+ * Completions are aggregated in memory and flushed every flush-interval-ms as one unordered
+ * bulk of $inc upserts, one per bucket touched since the last flush. Durations are counted in
+ * fixed buckets, so p50/p95/p99 add up across flushes and instances; a percentile is reported as
+ * the upper bound of the bucket it falls in. Buckets are read back by id, so the cost of a stats
+ * request depends only on how many buckets it asks for. A batch that fails to flush is dropped.
+ */
+@Slf4j
+@Service
+public class JobStatsService {
+
+    public enum Scope { JOB, ACTION }
+
+    public enum Granularity {
+        MINUTE(TimeUnit.MINUTES.toMillis(1)), HOUR(TimeUnit.HOURS.toMillis(1)), TOTAL(0);
+
+        private final long millis;
+
+        Granularity(long millis) {
+            this.millis = millis;
+        }
+
+        long bucketStart(long timeMs) {
+            return millis == 0 ? 0 : timeMs - Math.floorMod(timeMs, millis);
+        }
+    }
+
+    /** Upper bounds of the duration buckets in ms; longer executions fall in the last bucket. */
+    static final long[] DURATION_BOUNDS_MS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10_000, 30_000, 60_000};
+    private static final String[] DURATION_LABELS = durationLabels();
+
+    static final int MAX_MINUTES = 1440;
+    static final int MAX_HOURS = 720;
+
+    /** One bucket as served by the stats endpoints; percentiles are null when nothing ran. */
+    public record Bucket(Date start, long executions, long failures, long shed, Long avgMs,
+                         Long p50Ms, Long p95Ms, Long p99Ms, long maxDurationMs, Date lastSuccessAt) {
+    }
+
+    /** All-time totals and the most recent minute and hour buckets, newest first. */
+    public record Stats(Scope scope, String key, Bucket total, List<Bucket> minutes, List<Bucket> hours) {
+    }
+
+    private record RollupKey(Scope scope, String key, Granularity granularity, long bucketStart) {
+        String id() {
+            return id(scope, key, granularity, bucketStart);
+        }
+
+        static String id(Scope scope, String key, Granularity granularity, long bucketStart) {
+            return scope + ":" + key + ":" + granularity + ":" + bucketStart;
+        }
+    }
+
+    /** Counts since the last flush; only mutated inside the pending map's compute calls. */
+    private static final class Rollup {
+        long executions;
+        long failures;
+        long shed;
+        long totalDurationMs;
+        long maxDurationMs;
+        final long[] durations = new long[DURATION_LABELS.length];
+        long lastSuccessAt;
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final long minuteRetentionMs;
+    private final long hourRetentionMs;
+    private final Map<RollupKey, Rollup> pending = new ConcurrentHashMap<>();
+    private final Counter flushedCounter;
+    private final Counter droppedCounter;
+
+    public JobStatsService(MongoTemplate mongoTemplate, MeterRegistry meterRegistry,
+                           @Value("${jobscheduler.stats.minute-retention-hours:48}") long minuteRetentionHours,
+                           @Value("${jobscheduler.stats.hour-retention-days:90}") long hourRetentionDays) {
+        this.mongoTemplate = mongoTemplate;
+        this.minuteRetentionMs = TimeUnit.HOURS.toMillis(minuteRetentionHours);
+        this.hourRetentionMs = TimeUnit.DAYS.toMillis(hourRetentionDays);
+        Gauge.builder("jobscheduler.stats.pending", pending, Map::size)
+                .description("Stats buckets updated since the last flush")
+                .register(meterRegistry);
+        this.flushedCounter = meterRegistry.counter("jobscheduler.stats.flushed");
+        this.droppedCounter = meterRegistry.counter("jobscheduler.stats.dropped");
+    }
+
+    public void recordExecution(String jobId, JobAction action, long durationMs, boolean success) {
+        long now = System.currentTimeMillis();
+        int durationBucket = durationBucket(durationMs);
+        record(jobId, action, now, rollup -> {
+            rollup.executions++;
+            if (!success) rollup.failures++;
+            rollup.totalDurationMs += durationMs;
+            rollup.maxDurationMs = Math.max(rollup.maxDurationMs, durationMs);
+            rollup.durations[durationBucket]++;
+            if (success) rollup.lastSuccessAt = now;
+            return rollup;
+        });
+    }
+
+    public void recordShed(String jobId, JobAction action) {
+        record(jobId, action, System.currentTimeMillis(), rollup -> {
+            rollup.shed++;
+            return rollup;
+        });
+    }
+
+    private void record(String jobId, JobAction action, long now, Function<Rollup, Rollup> update) {
+        for (Granularity granularity : Granularity.values()) {
+            long start = granularity.bucketStart(now);
+            pending.compute(new RollupKey(Scope.JOB, jobId, granularity, start),
+                    (key, rollup) -> update.apply(rollup == null ? new Rollup() : rollup));
+            if (action != null) {
+                pending.compute(new RollupKey(Scope.ACTION, action.name(), granularity, start),
+                        (key, rollup) -> update.apply(rollup == null ? new Rollup() : rollup));
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${jobscheduler.stats.flush-interval-ms:5000}",
+            fixedDelayString = "${jobscheduler.stats.flush-interval-ms:5000}")
+    public void flush() {
+        List<RollupKey> keys = new ArrayList<>();
+        List<Rollup> rollups = new ArrayList<>();
+        for (RollupKey key : pending.keySet()) {
+            // removing inside compute waits for any record() still updating this rollup
+            pending.computeIfPresent(key, (k, rollup) -> {
+                keys.add(k);
+                rollups.add(rollup);
+                return null;
+            });
+        }
+        if (keys.isEmpty()) return;
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, JobStats.class);
+        for (int i = 0; i < keys.size(); i++) {
+            bulk.upsert(Query.query(Criteria.where("_id").is(keys.get(i).id())), update(keys.get(i), rollups.get(i)));
+        }
+        try {
+            bulk.execute();
+            flushedCounter.increment(keys.size());
+        } catch (Exception e) {
+            droppedCounter.increment(keys.size());
+            log.warn("Failed to flush {} stats buckets: {}", keys.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private Update update(RollupKey key, Rollup rollup) {
+        Update update = new Update()
+                .setOnInsert("scope", key.scope().name())
+                .setOnInsert("key", key.key())
+                .setOnInsert("granularity", key.granularity().name())
+                .setOnInsert("bucketStart", new Date(key.bucketStart()))
+                .inc("executions", rollup.executions)
+                .inc("failures", rollup.failures)
+                .inc("shed", rollup.shed)
+                .inc("totalDurationMs", rollup.totalDurationMs)
+                .max("maxDurationMs", rollup.maxDurationMs);
+        for (int i = 0; i < rollup.durations.length; i++) {
+            if (rollup.durations[i] > 0) update.inc("durations." + DURATION_LABELS[i], rollup.durations[i]);
+        }
+        if (rollup.lastSuccessAt > 0) update.max("lastSuccessAt", new Date(rollup.lastSuccessAt));
+        long retentionMs = switch (key.granularity()) {
+            case MINUTE -> minuteRetentionMs;
+            case HOUR -> hourRetentionMs;
+            case TOTAL -> 0;
+        };
+        if (retentionMs > 0) {
+            update.setOnInsert("expireAt", new Date(key.bucketStart() + key.granularity().millis + retentionMs));
+        }
+        return update;
+    }
+
+    /**
+     * Totals and the last minutes minute buckets and hours hour buckets of a job or action,
+     * current ones included. Buckets in which nothing ran are left out. Completions of the last
+     * flush-interval-ms may not be counted yet.
+     */
+    public Stats getStats(Scope scope, String key, int minutes, int hours) {
+        if (minutes < 0 || minutes > MAX_MINUTES) {
+            throw new IllegalArgumentException("minutes must be between 0 and " + MAX_MINUTES);
+        }
+        if (hours < 0 || hours > MAX_HOURS) {
+            throw new IllegalArgumentException("hours must be between 0 and " + MAX_HOURS);
+        }
+        long now = System.currentTimeMillis();
+        List<String> minuteIds = bucketIds(scope, key, Granularity.MINUTE, now, minutes);
+        List<String> hourIds = bucketIds(scope, key, Granularity.HOUR, now, hours);
+        String totalId = RollupKey.id(scope, key, Granularity.TOTAL, 0);
+
+        List<String> ids = new ArrayList<>(minuteIds.size() + hourIds.size() + 1);
+        ids.addAll(minuteIds);
+        ids.addAll(hourIds);
+        ids.add(totalId);
+        Map<String, JobStats> found = mongoTemplate.find(Query.query(Criteria.where("_id").in(ids)), JobStats.class)
+                .stream().collect(Collectors.toMap(JobStats::getId, Function.identity()));
+
+        JobStats total = found.get(totalId);
+        return new Stats(scope, key, total == null ? null : toBucket(total),
+                buckets(minuteIds, found), buckets(hourIds, found));
+    }
+
+    private static List<String> bucketIds(Scope scope, String key, Granularity granularity, long now, int count) {
+        List<String> ids = new ArrayList<>(count);
+        long start = granularity.bucketStart(now);
+        for (int i = 0; i < count; i++) {
+            ids.add(RollupKey.id(scope, key, granularity, start - i * granularity.millis));
+        }
+        return ids;
+    }
+
+    private static List<Bucket> buckets(List<String> ids, Map<String, JobStats> found) {
+        List<Bucket> buckets = new ArrayList<>();
+        for (String id : ids) {
+            JobStats stats = found.get(id);
+            if (stats != null) buckets.add(toBucket(stats));
+        }
+        return buckets;
+    }
+
+    static Bucket toBucket(JobStats stats) {
+        long executions = stats.getExecutions();
+        return new Bucket(stats.getBucketStart(), executions, stats.getFailures(), stats.getShed(),
+                executions == 0 ? null : stats.getTotalDurationMs() / executions,
+                percentile(stats, 0.50), percentile(stats, 0.95), percentile(stats, 0.99),
+                stats.getMaxDurationMs(), stats.getLastSuccessAt());
+    }
+
+    /** Upper bound of the duration bucket holding the given rank, capped at the longest execution. */
+    static Long percentile(JobStats stats, double quantile) {
+        long total = 0;
+        for (String label : DURATION_LABELS) {
+            total += stats.getDurations().getOrDefault(label, 0L);
+        }
+        if (total == 0) return null;
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < DURATION_LABELS.length; i++) {
+            seen += stats.getDurations().getOrDefault(DURATION_LABELS[i], 0L);
+            if (seen >= rank) {
+                return i < DURATION_BOUNDS_MS.length ? Math.min(DURATION_BOUNDS_MS[i], stats.getMaxDurationMs()) : stats.getMaxDurationMs();
+            }
+        }
+        return stats.getMaxDurationMs();
+    }
+
+    static int durationBucket(long durationMs) {
+        for (int i = 0; i < DURATION_BOUNDS_MS.length; i++) {
+            if (durationMs <= DURATION_BOUNDS_MS[i]) return i;
+        }
+        return DURATION_BOUNDS_MS.length;
+    }
+
+    private static String[] durationLabels() {
+        String[] labels = new String[DURATION_BOUNDS_MS.length + 1];
+        for (int i = 0; i < DURATION_BOUNDS_MS.length; i++) {
+            labels[i] = "le" + DURATION_BOUNDS_MS[i] + "ms";
+        }
+        labels[DURATION_BOUNDS_MS.length] = "over" + DURATION_BOUNDS_MS[DURATION_BOUNDS_MS.length - 1] + "ms";
+        return labels;
+    }
+}
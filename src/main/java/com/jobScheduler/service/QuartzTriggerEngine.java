@@ -0,0 +1,92 @@
+package com.jobScheduler.service;
+
+import org.quartz.JobDetail;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.listeners.TriggerListenerSupport;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Leaves cron triggers to Quartz and its job store. The default, and the only engine that
+ * works in clustered mode.
+ */
+@Service
+@ConditionalOnProperty(name = "jobscheduler.engine", havingValue = "quartz", matchIfMissing = true)
+public class QuartzTriggerEngine implements TriggerEngine {
+
+    private final Scheduler scheduler;
+    /** Jobs registered paused whose pause has not reached the store yet; their fires are vetoed. */
+    private final Set<JobKey> pausing = ConcurrentHashMap.newKeySet();
+
+    public QuartzTriggerEngine(Scheduler scheduler) throws SchedulerException {
+        this.scheduler = scheduler;
+        scheduler.getListenerManager().addTriggerListener(new TriggerListenerSupport() {
+            @Override
+            public String getName() {
+                return "registered-paused";
+            }
+
+            @Override
+            public boolean vetoJobExecution(Trigger trigger, JobExecutionContext context) {
+                return !pausing.isEmpty() && pausing.contains(trigger.getJobKey());
+            }
+        });
+    }
+
+    @Override
+    public void scheduleJobs(Map<JobDetail, Set<? extends Trigger>> schedules, Set<JobKey> paused) throws SchedulerException {
+        // Quartz only stores a trigger paused when its whole group is, so paused jobs are paused
+        // right after storing them, with their fires vetoed until then
+        pausing.addAll(paused);
+        try {
+            scheduler.scheduleJobs(schedules, true);
+            for (JobKey key : paused) {
+                scheduler.pauseJob(key);
+            }
+        } finally {
+            pausing.removeAll(paused);
+        }
+    }
+
+    @Override
+    public boolean checkExists(JobKey key) throws SchedulerException {
+        return scheduler.checkExists(key);
+    }
+
+    @Override
+    public void setRevision(JobKey key, long revision) throws SchedulerException {
+        JobDetail jobDetail = scheduler.getJobDetail(key);
+        if (jobDetail == null) return;
+        // in clustered mode this updates the shared store, so every node's next fire sees it
+        scheduler.addJob(jobDetail.getJobBuilder().usingJobData("revision", String.valueOf(revision)).build(), true, true);
+    }
+
+    @Override
+    public void pauseJob(JobKey key) throws SchedulerException {
+        scheduler.pauseJob(key);
+    }
+
+    @Override
+    public void resumeJob(JobKey key) throws SchedulerException {
+        scheduler.resumeJob(key);
+    }
+
+    @Override
+    public boolean deleteJob(JobKey key) throws SchedulerException {
+        return scheduler.deleteJob(key);
+    }
+
+    @Override
+    public boolean deleteJobs(List<JobKey> keys) throws SchedulerException {
+        return scheduler.deleteJobs(keys);
+    }
+}
@@ -0,0 +1,223 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.model.DeadLetter;
+import com.jobScheduler.model.Job;
+import com.jobScheduler.model.JobDefinition;
+import com.jobScheduler.repository.DeadLetterRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.SimpleTrigger;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.quartz.TriggerKey;
+import org.quartz.listeners.SchedulerListenerSupport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides what happens after a fire fails.
+ *
+ * While attempts remain, the fire is retried through a one-shot trigger on the same Quartz job,
+ * carrying the next attempt number, after an exponential backoff with jitter; no worker thread
+ * waits for it. Once attempts run out the fire is written to the dead_letters collection and
+ * counts towards the job's circuit breaker, which pauses the job after failure-threshold
+ * consecutive failed fires. A successful fire or resuming the job closes the breaker again.
+ *
+ * Failures are reported on the thread that completed the action, so the dead letter insert and
+ * the breaker's pause run on a single worker of their own; when its queue is full the reporting
+ * thread does the work itself.
+ */
+@Slf4j
+@Service
+public class RetryService {
+
+    public static final String RETRY_GROUP = "retry";
+    private static final int MAX_PAGE = 1000;
+    private static final int FAILURE_QUEUE = 10_000;
+
+    private final Scheduler scheduler;
+    private final JobKeyIndex jobKeyIndex;
+    private final MongoTemplate mongoTemplate;
+    private final JobDefinitionCache jobDefinitionCache;
+    private final DeadLetterRepository deadLetterRepository;
+    private final int defaultMaxAttempts;
+    private final long defaultBackoffMs;
+    private final long maxBackoffMs;
+    private final double jitter;
+    private final int defaultFailureThreshold;
+
+    private final ConcurrentMap<String, AtomicInteger> consecutiveFailures = new ConcurrentHashMap<>();
+    private final AtomicLong retrySequence = new AtomicLong();
+    private final ThreadPoolExecutor failureWorker = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(FAILURE_QUEUE), runnable -> {
+                Thread thread = new Thread(runnable, "retry-failures");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+
+    public RetryService(Scheduler scheduler, JobKeyIndex jobKeyIndex, MongoTemplate mongoTemplate, JobDefinitionCache jobDefinitionCache,
+                        DeadLetterRepository deadLetterRepository,
+                        @Value("${jobscheduler.retry.max-attempts:1}") int defaultMaxAttempts,
+                        @Value("${jobscheduler.retry.backoff-ms:1000}") long defaultBackoffMs,
+                        @Value("${jobscheduler.retry.max-backoff-ms:300000}") long maxBackoffMs,
+                        @Value("${jobscheduler.retry.jitter:0.5}") double jitter,
+                        @Value("${jobscheduler.breaker.failure-threshold:10}") int defaultFailureThreshold) throws SchedulerException {
+        this.scheduler = scheduler;
+        this.jobKeyIndex = jobKeyIndex;
+        this.mongoTemplate = mongoTemplate;
+        this.jobDefinitionCache = jobDefinitionCache;
+        this.deadLetterRepository = deadLetterRepository;
+        this.defaultMaxAttempts = defaultMaxAttempts;
+        this.defaultBackoffMs = defaultBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.jitter = jitter;
+        this.defaultFailureThreshold = defaultFailureThreshold;
+        // resumes go through the scheduler whichever engine runs the job; job keys are job ids
+        scheduler.getListenerManager().addSchedulerListener(new SchedulerListenerSupport() {
+            @Override
+            public void jobResumed(JobKey jobKey) {
+                consecutiveFailures.remove(jobKey.getName());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        failureWorker.shutdown();
+        if (!failureWorker.awaitTermination(5, TimeUnit.SECONDS)) {
+            log.warn("{} dead letters or breaker pauses were not written before shutdown", failureWorker.shutdownNow().size());
+        }
+    }
+
+    public void onSuccess(JobDefinition job) {
+        consecutiveFailures.remove(job.getId());
+    }
+
+    public boolean onFailure(JobDefinition job, int attempt, Throwable cause) {
+        return onFailure(job, attempt, cause, Map.of());
+    }
+
+    /**
+     * Handles a failed attempt. Returns true if another attempt was scheduled; the retry
+     * trigger carries fireData so the retry belongs to the same fire.
+     */
+    public boolean onFailure(JobDefinition job, int attempt, Throwable cause, Map<String, String> fireData) {
+        int maxAttempts = job.getMaxAttempts() != null ? job.getMaxAttempts() : defaultMaxAttempts;
+        if (attempt < maxAttempts) {
+            long backoff = job.getRetryBackoffMs() != null ? job.getRetryBackoffMs() : defaultBackoffMs;
+            long delay = backoffDelay(backoff, maxBackoffMs, attempt, jitter, ThreadLocalRandom.current().nextDouble());
+            try {
+                scheduleRetry(job, attempt + 1, delay, fireData);
+                log.info("Job {} failed attempt {}, retrying in {} ms", job.getName(), attempt, delay);
+                return true;
+            } catch (SchedulerException e) {
+                log.warn("Could not schedule retry {} of job {}: {}", attempt + 1, job.getName(), e.getMessage());
+            }
+        }
+        boolean trip = countFailure(job);
+        failureWorker.execute(() -> {
+            deadLetter(job, attempt, cause);
+            if (trip) pause(job);
+        });
+        return false;
+    }
+
+    /**
+     * Exponential backoff with jitter: the delay before retry n+1 is base * 2^(n-1), capped at max,
+     * of which the jitter fraction is randomized so retries of many jobs failing together spread out.
+     */
+    public static long backoffDelay(long baseMs, long maxMs, int attempt, double jitter, double random) {
+        long exponential = baseMs << Math.min(attempt - 1, 30);
+        long capped = exponential < 0 ? maxMs : Math.min(exponential, maxMs);
+        return capped - (long) (capped * jitter * random);
+    }
+
+    /**
+     * Newest dead letters first, for one job or for all jobs when jobId is null.
+     */
+    public List<DeadLetter> getDeadLetters(String jobId, int limit) {
+        Pageable page = PageRequest.of(0, Math.max(1, Math.min(limit, MAX_PAGE)));
+        return jobId == null
+                ? deadLetterRepository.findAllByOrderByFailedAtDesc(page)
+                : deadLetterRepository.findByJobIdOrderByFailedAtDesc(jobId, page);
+    }
+
+    public int getConsecutiveFailures(String jobId) {
+        AtomicInteger failures = consecutiveFailures.get(jobId);
+        return failures == null ? 0 : failures.get();
+    }
+
+    private void scheduleRetry(JobDefinition job, int attempt, long delayMs, Map<String, String> fireData) throws SchedulerException {
+        JobKey key = jobKeyIndex.jobKey(job.getId(), job.getTenant());
+        if (key == null) throw new SchedulerException("Job " + job.getName() + " is no longer scheduled");
+        TriggerBuilder<SimpleTrigger> retry = TriggerBuilder.newTrigger()
+                .withIdentity(TriggerKey.triggerKey(job.getId() + "Retry" + retrySequence.incrementAndGet(), RETRY_GROUP))
+                .forJob(key)
+                .withPriority(job.getPriority() != null ? job.getPriority() : Trigger.DEFAULT_PRIORITY)
+                .startAt(new Date(System.currentTimeMillis() + delayMs))
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule().withMisfireHandlingInstructionFireNow())
+                .usingJobData("attempt", String.valueOf(attempt))
+                .usingJobData("action", job.getAction().name());
+        fireData.forEach(retry::usingJobData);
+        scheduler.scheduleJob(retry.build());
+    }
+
+    private void deadLetter(JobDefinition job, int attempts, Throwable cause) {
+        DeadLetter letter = new DeadLetter();
+        letter.setJobId(job.getId());
+        letter.setJobName(job.getName());
+        letter.setAction(job.getAction().name());
+        letter.setPayload(job.getPayload());
+        letter.setAttempts(attempts);
+        letter.setLastError(cause == null ? null : String.valueOf(cause.getMessage()));
+        letter.setFailedAt(LocalDateTime.now());
+        try {
+            deadLetterRepository.insert(letter);
+        } catch (Exception e) {
+            log.warn("Could not store dead letter for job {}: {}", job.getName(), e.getMessage());
+        }
+    }
+
+    /** Counts a failed fire and returns whether it trips the breaker. */
+    private boolean countFailure(JobDefinition job) {
+        int threshold = job.getFailureThreshold() != null ? job.getFailureThreshold() : defaultFailureThreshold;
+        int failures = consecutiveFailures.computeIfAbsent(job.getId(), id -> new AtomicInteger()).incrementAndGet();
+        return threshold > 0 && failures >= threshold;
+    }
+
+    private void pause(JobDefinition job) {
+        int failures = getConsecutiveFailures(job.getId());
+        JobKey key = jobKeyIndex.jobKey(job.getId(), job.getTenant());
+        try {
+            if (key != null) scheduler.pauseJob(key);
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(job.getId())), Update.update("status", "PAUSED"), Job.class);
+            jobDefinitionCache.invalidate(job.getId());
+            log.warn("Paused job {} after {} consecutive failed fires", job.getName(), failures);
+        } catch (Exception e) {
+            log.warn("Could not pause failing job {}: {}", job.getName(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.model.Job;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.CronExpression;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.CronTrigger;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Re-registers stored SCHEDULED and PAUSED jobs with the trigger engine after a restart, since the
+ * in-memory job store and timing wheels start empty. Jobs are streamed from Mongo in batches;
+ * each batch is turned into JobDetail/Trigger pairs on a worker pool and handed to the engine in
+ * one call.
+ *
+ * Fires missed while the service was down are handled by the misfire policy: FIRE_ONCE runs a
+ * job once if its cron had a fire time within catch-up-window-ms before startup, SKIP waits for
+ * the next fire time. Paused jobs never catch up. Skipped in clustered mode, where the JDBC job
+ * store already keeps the triggers. A SchedulesRestoredEvent is published once the jobs are back.
+ */
+@Slf4j
+@Component
+public class ScheduleRehydrator implements ApplicationEventPublisherAware {
+
+    public enum MisfirePolicy { FIRE_ONCE, SKIP }
+
+    public record Result(int scheduled, int paused, int failed, long elapsedMs) {
+    }
+
+    private final TriggerEngine triggerEngine;
+    private final JobService jobService;
+    private final JobDefinitionCache jobDefinitionCache;
+    private final MongoTemplate mongoTemplate;
+    private final JobRevisions jobRevisions;
+    private final boolean enabled;
+    private final MisfirePolicy misfirePolicy;
+    private final long catchUpWindowMs;
+    private final int batchSize;
+    private final int parallelism;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Timer durationTimer;
+    private final Counter rehydratedCounter;
+    private final Counter failedCounter;
+
+    public ScheduleRehydrator(TriggerEngine triggerEngine, JobService jobService, JobDefinitionCache jobDefinitionCache,
+                              MongoTemplate mongoTemplate, JobRevisions jobRevisions, MeterRegistry meterRegistry,
+                              @Value("${jobscheduler.rehydrate.enabled:true}") boolean enabled,
+                              @Value("${jobscheduler.cluster.enabled:false}") boolean clustered,
+                              @Value("${jobscheduler.rehydrate.misfire-policy:FIRE_ONCE}") MisfirePolicy misfirePolicy,
+                              @Value("${jobscheduler.rehydrate.catch-up-window-ms:3600000}") long catchUpWindowMs,
+                              @Value("${jobscheduler.rehydrate.batch-size:1000}") int batchSize,
+                              @Value("${jobscheduler.rehydrate.parallelism:0}") int parallelism) {
+        this.triggerEngine = triggerEngine;
+        this.jobService = jobService;
+        this.jobDefinitionCache = jobDefinitionCache;
+        this.mongoTemplate = mongoTemplate;
+        this.jobRevisions = jobRevisions;
+        this.enabled = enabled && !clustered;
+        this.misfirePolicy = misfirePolicy;
+        this.catchUpWindowMs = catchUpWindowMs;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+
+        this.durationTimer = Timer.builder("jobscheduler.rehydrate.duration")
+                .description("Time to re-register stored jobs with Quartz at startup")
+                .register(meterRegistry);
+        this.rehydratedCounter = meterRegistry.counter("jobscheduler.rehydrate.jobs");
+        this.failedCounter = meterRegistry.counter("jobscheduler.rehydrate.failed");
+    }
+
+    @Override
+    public void setApplicationEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rehydrateAsync() {
+        if (!enabled) {
+            publishRestored();
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                rehydrate();
+            } catch (Exception e) {
+                log.warn("Could not rehydrate schedules: {}", e.getMessage());
+            } finally {
+                publishRestored();
+            }
+        }, "schedule-rehydrate");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void publishRestored() {
+        if (eventPublisher != null) eventPublisher.publishEvent(new SchedulesRestoredEvent());
+    }
+
+    public Result rehydrate() throws InterruptedException {
+        Query query = Query.query(Criteria.where("status").in("SCHEDULED", "PAUSED"));
+        try (Stream<Job> jobs = mongoTemplate.stream(query, Job.class)) {
+            return rehydrate(jobs.iterator());
+        }
+    }
+
+    /**
+     * Registers every job from the cursor. Reading stays on the calling thread while at most
+     * two batches per worker are waiting, so memory stays bounded for any number of jobs.
+     */
+    public Result rehydrate(Iterator<Job> jobs) throws InterruptedException {
+        return rehydrate(jobs, new Date());
+    }
+
+    /**
+     * Registers every job from the cursor as of now, the time missed and next fires are
+     * counted from.
+     */
+    public Result rehydrate(Iterator<Job> jobs, Date now) throws InterruptedException {
+        long start = System.nanoTime();
+        AtomicInteger scheduled = new AtomicInteger();
+        AtomicInteger paused = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "schedule-rehydrate-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Semaphore inFlight = new Semaphore(parallelism * 2);
+        List<Future<?>> batches = new ArrayList<>();
+        try {
+            List<Job> batch = new ArrayList<>(batchSize);
+            while (jobs.hasNext()) {
+                batch.add(jobs.next());
+                if (batch.size() == batchSize || !jobs.hasNext()) {
+                    List<Job> work = batch;
+                    batch = new ArrayList<>(batchSize);
+                    inFlight.acquire();
+                    batches.add(workers.submit(() -> {
+                        try {
+                            rehydrateBatch(work, now, scheduled, paused, failed);
+                            return null;
+                        } finally {
+                            inFlight.release();
+                        }
+                    }));
+                }
+            }
+            for (Future<?> future : batches) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    log.warn("Rehydration batch failed: {}", e.getCause().getMessage());
+                }
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        durationTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        Result result = new Result(scheduled.get(), paused.get(), failed.get(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        log.info("Rehydrated {} jobs ({} paused, {} failed) in {} ms",
+                result.scheduled(), result.paused(), result.failed(), result.elapsedMs());
+        return result;
+    }
+
+    private void rehydrateBatch(List<Job> batch, Date now, AtomicInteger scheduled,
+                                AtomicInteger paused, AtomicInteger failed) throws SchedulerException {
+        Map<JobDetail, Set<? extends Trigger>> schedules = new LinkedHashMap<>();
+        Map<Job, Long> revisions = new IdentityHashMap<>();
+        Set<JobKey> pausedKeys = new HashSet<>();
+        // the definitions did not change, so fires keep the revisions they had before the restart
+        Map<String, Long> current = jobRevisions.current(batch.stream().map(Job::getId).toList());
+        for (Job job : batch) {
+            try {
+                JobService.QuartzSchedule schedule = jobService.buildSchedule(job, current.getOrDefault(job.getId(), 0L));
+                boolean isPaused = "PAUSED".equals(job.getStatus());
+                Trigger trigger = isPaused
+                        ? withMisfirePolicy((CronTrigger) schedule.trigger(), MisfirePolicy.SKIP, now)
+                        : withMisfirePolicy((CronTrigger) schedule.trigger(), misfirePolicy, now);
+                schedules.put(schedule.jobDetail(), Set.of(trigger));
+                revisions.put(job, schedule.revision());
+                if (isPaused) pausedKeys.add(schedule.jobDetail().getKey());
+            } catch (IllegalArgumentException e) {
+                failed.incrementAndGet();
+                failedCounter.increment();
+                log.warn("Skipping job {} on rehydration: {}", job.getId(), e.getMessage());
+            }
+        }
+        if (schedules.isEmpty()) return;
+
+        triggerEngine.scheduleJobs(schedules, pausedKeys);
+        // offloaded payloads the cache did not hold are left for the first fire to fetch
+        revisions.forEach((job, revision) -> {
+            if (job.getPayload() != null || job.getPayloadRef() == null) jobDefinitionCache.put(job, revision);
+        });
+        scheduled.addAndGet(revisions.size());
+        paused.addAndGet(pausedKeys.size());
+        rehydratedCounter.increment(revisions.size());
+    }
+
+    private Trigger withMisfirePolicy(CronTrigger trigger, MisfirePolicy policy, Date now) {
+        CronScheduleBuilder schedule = (CronScheduleBuilder) trigger.getScheduleBuilder();
+        CronExpression cron;
+        try {
+            cron = jobService.compileCron(trigger.getCronExpression(), trigger.getTimeZone());
+        } catch (IllegalArgumentException e) {
+            return trigger;
+        }
+        if (policy == MisfirePolicy.SKIP) {
+            // starting at the next fire time skips everything missed while we were down
+            Date next = cron.getNextValidTimeAfter(now);
+            return next == null ? trigger : trigger.getTriggerBuilder().startAt(next).build();
+        }
+        Date missed = lastFireBefore(cron, now, catchUpWindowMs);
+        if (missed == null) return trigger;
+        // starting at the last missed fire time makes Quartz run it once, then continue from now
+        return trigger.getTriggerBuilder()
+                .startAt(missed)
+                .withSchedule(schedule.withMisfireHandlingInstructionFireAndProceed())
+                .build();
+    }
+
+    /**
+     * Latest fire time of the expression within windowMs before now, or null if there is none.
+     * Binary-searches instead of walking every fire time, so a per-second cron over a long
+     * window costs a few dozen evaluations.
+     */
+    public static Date lastFireBefore(CronExpression cron, Date now, long windowMs) {
+        Date first = cron.getNextValidTimeAfter(new Date(now.getTime() - windowMs));
+        if (first == null || !first.before(now)) return null;
+
+        long lo = first.getTime();
+        long hi = now.getTime();
+        while (hi - lo > 1000) {
+            long mid = lo + (hi - lo) / 2;
+            Date next = cron.getNextValidTimeAfter(new Date(mid));
+            if (next != null && next.before(now)) {
+                lo = next.getTime();
+            } else {
+                hi = mid;
+            }
+        }
+        Date last = new Date(lo);
+        for (Date next = cron.getNextValidTimeAfter(last); next != null && next.before(now);
+             next = cron.getNextValidTimeAfter(last)) {
+            last = next;
+        }
+        return last;
+    }
+}
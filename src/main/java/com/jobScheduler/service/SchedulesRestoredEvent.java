@@ -0,0 +1,8 @@
+package com.jobScheduler.service;
+
+/**
+ * Published once stored jobs are registered with Quartz after startup, or straight away
+ * when there is nothing to rehydrate, so work that triggers jobs can safely resume.
+ */
+public record SchedulesRestoredEvent() {
+}
@@ -0,0 +1,48 @@
+package com.jobScheduler.service;
+
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs the cron triggers of scheduled jobs. Jobs are always registered with Quartz, which also
+ * runs the one-shot triggers for retries, deferred fires and workflow steps; the engine decides
+ * what drives the recurring fires. Chosen with jobscheduler.engine=quartz|wheel.
+ */
+public interface TriggerEngine {
+
+    /**
+     * Registers the jobs with their triggers, replacing any already registered under the same keys.
+     * Jobs in paused are registered paused: none of their triggers fires in between.
+     */
+    void scheduleJobs(Map<JobDetail, Set<? extends Trigger>> schedules, Set<JobKey> paused) throws SchedulerException;
+
+    default void scheduleJobs(Map<JobDetail, Set<? extends Trigger>> schedules) throws SchedulerException {
+        scheduleJobs(schedules, Set.of());
+    }
+
+    default void scheduleJob(JobDetail jobDetail, Trigger trigger) throws SchedulerException {
+        scheduleJobs(Map.of(jobDetail, Set.of(trigger)));
+    }
+
+    boolean checkExists(JobKey key) throws SchedulerException;
+
+    /**
+     * Stamps a new revision into a registered job's data, keeping its triggers, so fires from
+     * now on reload the job's definition.
+     */
+    void setRevision(JobKey key, long revision) throws SchedulerException;
+
+    void pauseJob(JobKey key) throws SchedulerException;
+
+    void resumeJob(JobKey key) throws SchedulerException;
+
+    boolean deleteJob(JobKey key) throws SchedulerException;
+
+    boolean deleteJobs(List<JobKey> keys) throws SchedulerException;
+}
@@ -0,0 +1,394 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.utils.CronExpressionCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.CronExpression;
+import org.quartz.CronTrigger;
+import org.quartz.JobDataMap;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Runs cron triggers on hierarchical timing wheels instead of Quartz's job store, for millions
+ * of jobs with short intervals. Enable with jobscheduler.engine=wheel.
+ *
+ * Triggers are spread over one wheel per shard by job key, each advanced by its own thread every
+ * tick-ms, so there is no global lock or sorted set to contend on: scheduling a fire is a
+ * compare-and-set on the shard's inbox, and expiring one is O(1). Due fires are handed to the
+ * fire handler in batches of up to batch-size per tick. Pause, resume, replace and delete bump the
+ * trigger's generation, and fires of an older generation are dropped when they come due.
+ *
+ * Job details still go to Quartz, as durable jobs without triggers, so retries, deferred fires and
+ * workflow steps keep running there as one-shot triggers. The wheel lives in memory only, so it
+ * cannot be used in clustered mode; stored jobs are re-registered at startup by the rehydrator.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "jobscheduler.engine", havingValue = "wheel")
+public class WheelTriggerEngine implements TriggerEngine {
+
+    /**
+     * One due fire. fireAt is the cron time plus the job's jitter; one-shot fires are deferred
+     * fires that do not schedule the next one.
+     */
+    public record Fire(WheelTrigger trigger, long fireAt, int generation, boolean recurring) {
+    }
+
+    public static final class WheelTrigger {
+        @Getter private final JobKey jobKey;
+        @Getter private final String jobId;
+        @Getter private final String action;
+        @Getter private volatile long revision;
+        @Getter private final int priority;
+        @Getter private final boolean serial;
+        @Getter private final long jitterMs;
+        @Getter private final long startTime;
+        private final boolean catchUp;
+        private final CronExpression cron;
+        private final AtomicInteger generation = new AtomicInteger();
+        // serial jobs: 0 idle, 1 running, 2 running with a fire waiting
+        private final AtomicInteger running = new AtomicInteger();
+        private boolean paused;
+
+        WheelTrigger(JobDetail jobDetail, CronTrigger trigger, CronExpression cron) {
+            JobDataMap data = jobDetail.getJobDataMap();
+            this.jobKey = jobDetail.getKey();
+            this.jobId = data.getString("jobId");
+            this.action = data.getString("action");
+            this.revision = data.containsKey("revision") ? Long.parseLong(data.getString("revision")) : 0;
+            this.jitterMs = data.containsKey("jitterMs") ? Long.parseLong(data.getString("jitterMs")) : 0;
+            this.priority = trigger.getPriority();
+            this.serial = jobDetail.isConcurrentExectionDisallowed();
+            this.cron = cron;
+            this.startTime = trigger.getStartTime() != null ? trigger.getStartTime().getTime() : System.currentTimeMillis();
+            // set by the rehydrator's FIRE_ONCE policy, with the start time at the missed fire
+            this.catchUp = trigger.getMisfireInstruction() == CronTrigger.MISFIRE_INSTRUCTION_FIRE_ONCE_NOW;
+        }
+
+        /**
+         * Whether a fire of the given generation is still wanted: false once the job has been
+         * paused, replaced or deleted since the fire was scheduled.
+         */
+        public boolean isCurrent(int generation) {
+            return this.generation.get() == generation;
+        }
+
+        /**
+         * Whether the fire may start. A fire of a serial job that comes due while the previous one
+         * runs does not start; it runs once when that one finishes, however many came due.
+         */
+        public boolean tryStart() {
+            if (!serial) return true;
+            while (true) {
+                int state = running.get();
+                if (state == 0 && running.compareAndSet(0, 1)) return true;
+                if (state > 0 && running.compareAndSet(state, 2)) return false;
+            }
+        }
+
+        /**
+         * Marks the fire as finished. Returns true if a fire of a serial job was waiting and
+         * should run now; the job then stays running.
+         */
+        public boolean finish() {
+            if (!serial) return false;
+            while (true) {
+                int state = running.get();
+                if (state == 2 && running.compareAndSet(2, 1)) return true;
+                if (state < 2 && running.compareAndSet(state, 0)) return false;
+            }
+        }
+
+        /** Fire time of the first cron time after the given one, jitter included; null if there is none. */
+        Long nextFireAt(long afterCronTime) {
+            Date next = cron.getNextValidTimeAfter(new Date(afterCronTime));
+            return next == null ? null : next.getTime() + jitterMs;
+        }
+    }
+
+    private final Scheduler scheduler;
+    private final CronExpressionCache cronExpressionCache;
+    private final int batchSize;
+    private final Shard[] shards;
+    private final Map<JobKey, WheelTrigger> triggers = new ConcurrentHashMap<>();
+    private final Counter fires;
+    private volatile Consumer<List<Fire>> fireHandler = batch -> { };
+    private volatile boolean running;
+
+    public WheelTriggerEngine(Scheduler scheduler, MeterRegistry meterRegistry, CronExpressionCache cronExpressionCache,
+                              @Value("${jobscheduler.engine.wheel.tick-ms:10}") long tickMs,
+                              @Value("${jobscheduler.engine.wheel.shards:0}") int shards,
+                              @Value("${jobscheduler.engine.wheel.batch-size:256}") int batchSize,
+                              @Value("${jobscheduler.cluster.enabled:false}") boolean clustered) {
+        if (clustered) {
+            throw new IllegalStateException("jobscheduler.engine=wheel keeps triggers in memory and cannot run clustered");
+        }
+        this.scheduler = scheduler;
+        this.cronExpressionCache = cronExpressionCache;
+        this.batchSize = Math.max(1, batchSize);
+        long origin = System.currentTimeMillis();
+        this.shards = new Shard[shards > 0 ? shards : Runtime.getRuntime().availableProcessors()];
+        for (int i = 0; i < this.shards.length; i++) {
+            this.shards[i] = new Shard(new HierarchicalTimingWheel<>(tickMs, origin));
+        }
+        Gauge.builder("jobscheduler.wheel.triggers", triggers, Map::size)
+                .description("Cron triggers registered with the timing wheels")
+                .register(meterRegistry);
+        this.fires = meterRegistry.counter("jobscheduler.wheel.fires");
+    }
+
+    /**
+     * Sets where due fires go. The handler is called on a shard thread and must hand the
+     * batch over rather than run it.
+     */
+    public void setFireHandler(Consumer<List<Fire>> fireHandler) {
+        this.fireHandler = fireHandler;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 0; i < shards.length; i++) {
+            Thread thread = new Thread(shards[i], "wheel-shard-" + i);
+            thread.setDaemon(true);
+            shards[i].thread = thread;
+            thread.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        for (Shard shard : shards) {
+            if (shard.thread != null) LockSupport.unpark(shard.thread);
+        }
+    }
+
+    @Override
+    public void scheduleJobs(Map<JobDetail, Set<? extends Trigger>> schedules, Set<JobKey> paused) throws SchedulerException {
+        // check every trigger before registering any, like Quartz does for a batch
+        Map<JobDetail, WheelTrigger> built = new LinkedHashMap<>();
+        for (Map.Entry<JobDetail, Set<? extends Trigger>> schedule : schedules.entrySet()) {
+            JobDetail jobDetail = schedule.getKey();
+            Set<? extends Trigger> jobTriggers = schedule.getValue();
+            if (jobTriggers.size() != 1 || !(jobTriggers.iterator().next() instanceof CronTrigger trigger)) {
+                throw new SchedulerException("The wheel engine runs exactly one cron trigger per job: " + jobDetail.getKey());
+            }
+            try {
+                built.put(jobDetail, new WheelTrigger(jobDetail, trigger, cronExpressionCache.get(trigger.getCronExpression(), trigger.getTimeZone())));
+            } catch (ParseException e) {
+                throw new SchedulerException("Invalid cron expression: " + trigger.getCronExpression(), e);
+            }
+        }
+        for (Map.Entry<JobDetail, WheelTrigger> entry : built.entrySet()) {
+            scheduler.addJob(entry.getKey().getJobBuilder().storeDurably().build(), true);
+            WheelTrigger trigger = entry.getValue();
+            // a paused trigger is never armed; resuming arms it from the time of the resume
+            trigger.paused = paused.contains(trigger.getJobKey());
+            WheelTrigger previous = triggers.put(trigger.getJobKey(), trigger);
+            if (previous != null) previous.generation.incrementAndGet();
+            if (trigger.paused) {
+                scheduler.pauseJob(trigger.getJobKey());
+                continue;
+            }
+            armFirst(trigger, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Arms the first fire at the first fire time at or after both the start time and now, so
+     * a trigger never fires before it was scheduled. A trigger that asks to catch up on a fire
+     * missed before now fires once at once instead.
+     */
+    private void armFirst(WheelTrigger trigger, long now) {
+        int generation = trigger.generation.get();
+        if (trigger.catchUp && trigger.getStartTime() < now) {
+            shardFor(trigger.getJobKey()).wheel.schedule(new Fire(trigger, now, generation, true), now);
+            return;
+        }
+        // nextFireAt is strictly after the given cron time, so one millisecond back makes it "at or after"
+        arm(trigger, Math.max(trigger.getStartTime(), now) - trigger.getJitterMs() - 1, generation);
+    }
+
+    @Override
+    public boolean checkExists(JobKey key) {
+        return triggers.containsKey(key);
+    }
+
+    @Override
+    public void setRevision(JobKey key, long revision) throws SchedulerException {
+        WheelTrigger trigger = triggers.get(key);
+        if (trigger != null) trigger.revision = revision;
+        // retries and deferred fires run from the Quartz job data
+        JobDetail jobDetail = scheduler.getJobDetail(key);
+        if (jobDetail != null) {
+            scheduler.addJob(jobDetail.getJobBuilder().usingJobData("revision", String.valueOf(revision)).build(), true);
+        }
+    }
+
+    @Override
+    public void pauseJob(JobKey key) throws SchedulerException {
+        WheelTrigger trigger = triggers.get(key);
+        if (trigger == null) return;
+        synchronized (trigger) {
+            if (!trigger.paused) {
+                trigger.paused = true;
+                trigger.generation.incrementAndGet();
+            }
+        }
+        // pauses retries and deferred fires waiting in Quartz, and tells the key index
+        scheduler.pauseJob(key);
+    }
+
+    @Override
+    public void resumeJob(JobKey key) throws SchedulerException {
+        WheelTrigger trigger = triggers.get(key);
+        if (trigger == null) return;
+        synchronized (trigger) {
+            if (trigger.paused) {
+                trigger.paused = false;
+                // fires missed while paused are skipped
+                arm(trigger, System.currentTimeMillis() - trigger.getJitterMs(), trigger.generation.incrementAndGet());
+            }
+        }
+        scheduler.resumeJob(key);
+    }
+
+    @Override
+    public boolean deleteJob(JobKey key) throws SchedulerException {
+        WheelTrigger trigger = triggers.remove(key);
+        if (trigger != null) trigger.generation.incrementAndGet();
+        return scheduler.deleteJob(key) || trigger != null;
+    }
+
+    @Override
+    public boolean deleteJobs(List<JobKey> keys) throws SchedulerException {
+        boolean allFound = true;
+        for (JobKey key : keys) {
+            WheelTrigger trigger = triggers.remove(key);
+            if (trigger != null) {
+                trigger.generation.incrementAndGet();
+            } else {
+                allFound = false;
+            }
+        }
+        scheduler.deleteJobs(keys);
+        return allFound;
+    }
+
+    /**
+     * Runs the fire again after delayMs, unless the job is paused, replaced or deleted meanwhile.
+     */
+    public void defer(Fire fire, long delayMs) {
+        long at = System.currentTimeMillis() + delayMs;
+        shardFor(fire.trigger().getJobKey()).wheel.schedule(new Fire(fire.trigger(), at, fire.generation(), false), at);
+    }
+
+    public int size() {
+        return triggers.size();
+    }
+
+    /**
+     * Advances every wheel to nowMs on the calling thread. Only for tests and benchmarks that
+     * never call start().
+     */
+    void advance(long nowMs) {
+        for (Shard shard : shards) {
+            shard.advance(nowMs);
+        }
+    }
+
+    private void arm(WheelTrigger trigger, long afterCronTime, int generation) {
+        Long fireAt = trigger.nextFireAt(afterCronTime);
+        if (fireAt == null) return;
+        shardFor(trigger.getJobKey()).wheel.schedule(new Fire(trigger, fireAt, generation, true), fireAt);
+    }
+
+    private Shard shardFor(JobKey key) {
+        return shards[Math.floorMod(key.hashCode(), shards.length)];
+    }
+
+    private final class Shard implements Runnable {
+
+        private final HierarchicalTimingWheel<Fire> wheel;
+        private List<Fire> batch;
+        private long now;
+        private Thread thread;
+
+        Shard(HierarchicalTimingWheel<Fire> wheel) {
+            this.wheel = wheel;
+            this.batch = new ArrayList<>(batchSize);
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                long wait = wheel.nextTickAt() - System.currentTimeMillis();
+                if (wait > 0) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(wait));
+                } else {
+                    advance(System.currentTimeMillis());
+                }
+            }
+        }
+
+        void advance(long nowMs) {
+            now = nowMs;
+            wheel.advance(nowMs, (fire, deadline) -> expire(fire));
+            flush();
+        }
+
+        private void expire(Fire fire) {
+            WheelTrigger trigger = fire.trigger();
+            // paused, replaced or deleted since it was scheduled
+            if (fire.generation() != trigger.generation.get()) return;
+            if (fire.recurring()) {
+                try {
+                    // a fire that comes due late runs once; the missed ones in between are skipped
+                    arm(trigger, Math.max(fire.fireAt(), now) - trigger.getJitterMs(), fire.generation());
+                } catch (RuntimeException e) {
+                    log.warn("Could not schedule the next fire of job {}: {}", trigger.getJobKey().getName(), e.getMessage());
+                }
+            }
+            batch.add(fire);
+            if (batch.size() >= batchSize) flush();
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) return;
+            List<Fire> full = batch;
+            batch = new ArrayList<>(batchSize);
+            fires.increment(full.size());
+            try {
+                fireHandler.accept(full);
+            } catch (RuntimeException e) {
+                log.warn("Could not hand over {} fires: {}", full.size(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.model.Job;
+import com.jobScheduler.model.JobDefinition;
+import com.jobScheduler.model.Workflow;
+import com.jobScheduler.model.WorkflowRun;
+import com.jobScheduler.model.WorkflowStep;
+import com.jobScheduler.repository.JobRepository;
+import com.jobScheduler.repository.WorkflowRepository;
+import com.jobScheduler.repository.WorkflowRunRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.quartz.JobDataMap;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.listeners.SchedulerListenerSupport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Runs workflows: DAGs of existing jobs where a step starts once all its upstream steps
+ * have succeeded.
+ *
+ * A step is started with scheduler.triggerJob, so ready steps run in parallel on the Quartz
+ * worker pool like any other fire. The fire carries the run id in its trigger data and reports
+ * back through the FireListener hook once its action has finished, including retries. Run
+ * progress is kept in Mongo and changed only with conditional $addToSet/$set updates: a step
+ * is claimed before it is started, so two upstream steps finishing at once start their common
+ * downstream step once. After a restart, RUNNING runs are picked up again; with the in-memory
+ * job store, steps that were started but had not finished are started again.
+ *
+ * Step results are recorded on a single worker thread rather than on the thread that completed
+ * the fire, so Mongo round trips and the next triggerJob never hold up action or Quartz threads.
+ * A step whose fire is abandoned, or whose job is paused while it is in flight, fails the run;
+ * runs still RUNNING after the run timeout are failed by a periodic sweep.
+ */
+@Slf4j
+@Service
+public class WorkflowService implements FireListener {
+
+    public static final String RUN_KEY = "workflowRun";
+    private static final int MAX_PAGE = 1000;
+    private static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+    private static final int STEP_QUEUE = 10_000;
+
+    private final Scheduler scheduler;
+    private final JobKeyIndex jobKeyIndex;
+    private final JobService jobService;
+    private final JobRepository jobRepository;
+    private final WorkflowRepository workflowRepository;
+    private final WorkflowRunRepository workflowRunRepository;
+    private final MongoTemplate mongoTemplate;
+    private final boolean clustered;
+    private final long runTimeoutMs;
+    // pauses made while schedules are restored are of jobs paused before the restart; recover() checks those
+    private volatile boolean restored;
+
+    // completes steps in order of arrival; a full queue makes the completing thread do it itself
+    private final ThreadPoolExecutor stepWorker = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(STEP_QUEUE), runnable -> {
+                Thread thread = new Thread(runnable, "workflow-steps");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+
+    public WorkflowService(Scheduler scheduler, JobKeyIndex jobKeyIndex, JobService jobService, JobRepository jobRepository,
+                           WorkflowRepository workflowRepository, WorkflowRunRepository workflowRunRepository,
+                           MongoTemplate mongoTemplate,
+                           @Value("${jobscheduler.cluster.enabled:false}") boolean clustered,
+                           @Value("${jobscheduler.workflow.run-timeout-ms:86400000}") long runTimeoutMs) {
+        if (runTimeoutMs < 0) {
+            throw new IllegalArgumentException("jobscheduler.workflow.run-timeout-ms must not be negative");
+        }
+        this.scheduler = scheduler;
+        this.jobKeyIndex = jobKeyIndex;
+        this.jobService = jobService;
+        this.jobRepository = jobRepository;
+        this.workflowRepository = workflowRepository;
+        this.workflowRunRepository = workflowRunRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.clustered = clustered;
+        this.runTimeoutMs = runTimeoutMs;
+    }
+
+    @PostConstruct
+    void register() throws SchedulerException {
+        jobService.addFireListener(this);
+        scheduler.getListenerManager().addSchedulerListener(new SchedulerListenerSupport() {
+            @Override
+            public void jobPaused(JobKey jobKey) {
+                // a paused step never reports back; the job key name is the job id
+                if (restored) stepWorker.execute(() -> stepPaused(jobKey.getName()));
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        stepWorker.shutdown();
+        if (!stepWorker.awaitTermination(5, TimeUnit.SECONDS)) {
+            log.warn("{} workflow step results were not recorded before shutdown", stepWorker.shutdownNow().size());
+        }
+    }
+
+    /**
+     * Validates and stores a workflow. Throws IllegalArgumentException if the steps do not form
+     * a DAG or name jobs that do not exist.
+     */
+    public Workflow saveWorkflow(Workflow workflow) {
+        validate(workflow);
+        List<String> jobIds = workflow.getSteps().stream().map(WorkflowStep::getJobId).toList();
+        Set<String> known = new HashSet<>();
+        jobRepository.findAllById(jobIds).forEach(job -> known.add(job.getId()));
+        for (String jobId : jobIds) {
+            if (!known.contains(jobId)) throw new IllegalArgumentException("Unknown job: " + jobId);
+        }
+        return workflowRepository.save(workflow);
+    }
+
+    public Optional<Workflow> getWorkflow(String workflowId) {
+        return workflowRepository.findById(workflowId);
+    }
+
+    public Optional<WorkflowRun> getRun(String runId) {
+        return workflowRunRepository.findById(runId);
+    }
+
+    public List<WorkflowRun> getRuns(String workflowId, int limit) {
+        return workflowRunRepository.findByWorkflowIdOrderByStartedAtDesc(workflowId,
+                PageRequest.of(0, Math.max(1, Math.min(limit, MAX_PAGE))));
+    }
+
+    /**
+     * Starts a run of the workflow by starting its root steps. Empty if there is no such workflow.
+     */
+    public Optional<WorkflowRun> startRun(String workflowId) {
+        Optional<Workflow> workflow = workflowRepository.findById(workflowId);
+        if (workflow.isEmpty()) return Optional.empty();
+
+        WorkflowRun run = new WorkflowRun();
+        run.setWorkflowId(workflowId);
+        run.setStatus("RUNNING");
+        run.setStartedAt(LocalDateTime.now());
+        run = workflowRunRepository.insert(run);
+        log.info("Started run {} of workflow {}", run.getId(), workflow.get().getName());
+        dispatchReady(workflow.get(), run);
+        return workflowRunRepository.findById(run.getId());
+    }
+
+    @Override
+    public void fireCompleted(JobDefinition job, Map<String, String> fireData, boolean succeeded, boolean retrying) {
+        String runId = fireData.get(RUN_KEY);
+        if (runId == null || retrying) return;
+        stepWorker.execute(() -> {
+            try {
+                if (succeeded) {
+                    stepSucceeded(runId, job.getId());
+                } else {
+                    finish(runId, "FAILED", job.getId(), "Step " + job.getName() + " failed");
+                }
+            } catch (Exception e) {
+                log.warn("Could not record step {} of workflow run {}: {}", job.getName(), runId, e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void fireAbandoned(String jobId, Map<String, String> fireData, String reason) {
+        String runId = fireData.get(RUN_KEY);
+        if (runId == null) return;
+        stepWorker.execute(() -> {
+            try {
+                finish(runId, "FAILED", jobId, reason);
+            } catch (Exception e) {
+                log.warn("Could not record step {} of workflow run {}: {}", jobId, runId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Fails every running run that started the job and is still waiting for it.
+     */
+    void stepPaused(String jobId) {
+        Query waiting = Query.query(Criteria.where("status").is("RUNNING").and("dispatched").is(jobId).and("completed").ne(jobId));
+        Update update = Update.update("status", "FAILED").set("finishedAt", LocalDateTime.now())
+                .set("failedStep", jobId).set("error", "Job " + jobId + " was paused");
+        try {
+            long failed = mongoTemplate.updateMulti(waiting, update, WorkflowRun.class).getModifiedCount();
+            if (failed > 0) log.info("Failed {} workflow runs waiting on paused job {}", failed, jobId);
+        } catch (Exception e) {
+            log.warn("Could not fail workflow runs waiting on paused job {}: {}", jobId, e.getMessage());
+        }
+    }
+
+    /**
+     * Fails runs that have been RUNNING for longer than the run timeout. Returns how many.
+     */
+    @Scheduled(initialDelayString = "${jobscheduler.workflow.timeout-check-ms:60000}",
+            fixedDelayString = "${jobscheduler.workflow.timeout-check-ms:60000}")
+    public long failTimedOutRuns() {
+        if (runTimeoutMs == 0) return 0;
+        LocalDateTime startedBefore = LocalDateTime.now().minus(runTimeoutMs, ChronoUnit.MILLIS);
+        Query expired = Query.query(Criteria.where("status").is("RUNNING").and("startedAt").lt(startedBefore));
+        Update update = Update.update("status", "FAILED").set("finishedAt", LocalDateTime.now())
+                .set("error", "Run timed out after " + runTimeoutMs + " ms");
+        long failed = mongoTemplate.updateMulti(expired, update, WorkflowRun.class).getModifiedCount();
+        if (failed > 0) log.info("Failed {} workflow runs that timed out", failed);
+        return failed;
+    }
+
+    void stepSucceeded(String runId, String jobId) {
+        Query running = Query.query(Criteria.where("_id").is(runId).and("status").is("RUNNING"));
+        WorkflowRun run = mongoTemplate.findAndModify(running, new Update().addToSet("completed", jobId), RETURN_NEW, WorkflowRun.class);
+        if (run == null) return; // already failed, or deleted
+        Optional<Workflow> workflow = workflowRepository.findById(run.getWorkflowId());
+        if (workflow.isEmpty()) {
+            finish(runId, "FAILED", null, "Workflow was deleted");
+        } else if (run.getCompleted().size() >= workflow.get().getSteps().size()) {
+            finish(runId, "SUCCEEDED", null, null);
+        } else {
+            dispatchReady(workflow.get(), run);
+        }
+    }
+
+    private void dispatchReady(Workflow workflow, WorkflowRun run) {
+        for (String jobId : readySteps(workflow, run.getCompleted(), run.getDispatched())) {
+            if (claim(run.getId(), jobId)) dispatch(run.getId(), jobId);
+        }
+    }
+
+    /**
+     * Marks the step as started unless another caller already did. Only the caller that gets
+     * true may start it.
+     */
+    private boolean claim(String runId, String jobId) {
+        Query query = Query.query(Criteria.where("_id").is(runId).and("status").is("RUNNING").and("dispatched").ne(jobId));
+        return mongoTemplate.updateFirst(query, new Update().addToSet("dispatched", jobId), WorkflowRun.class).getModifiedCount() == 1;
+    }
+
+    private void dispatch(String runId, String jobId) {
+        Optional<Job> job = jobRepository.findById(jobId);
+        if (job.isEmpty()) {
+            finish(runId, "FAILED", jobId, "Job " + jobId + " no longer exists");
+            return;
+        }
+        JobKey key = jobKeyIndex.jobKey(jobId, job.get().getTenant());
+        if (key == null) {
+            finish(runId, "FAILED", jobId, "Job " + job.get().getName() + " is not scheduled");
+            return;
+        }
+        if ("PAUSED".equals(jobKeyIndex.status(jobId))) {
+            finish(runId, "FAILED", jobId, "Job " + job.get().getName() + " is paused");
+            return;
+        }
+        JobDataMap data = new JobDataMap(Map.of(RUN_KEY, runId, "action", job.get().getAction()));
+        try {
+            scheduler.triggerJob(key, data);
+        } catch (SchedulerException e) {
+            finish(runId, "FAILED", jobId, "Could not start job " + job.get().getName() + ": " + e.getMessage());
+        }
+    }
+
+    private void finish(String runId, String status, String failedStep, String error) {
+        Query running = Query.query(Criteria.where("_id").is(runId).and("status").is("RUNNING"));
+        Update update = Update.update("status", status).set("finishedAt", LocalDateTime.now());
+        if (failedStep != null) update.set("failedStep", failedStep);
+        if (error != null) update.set("error", error);
+        if (mongoTemplate.updateFirst(running, update, WorkflowRun.class).getModifiedCount() == 1) {
+            log.info("Workflow run {} {}{}", runId, status, error == null ? "" : ": " + error);
+        }
+    }
+
+    @EventListener(SchedulesRestoredEvent.class)
+    public void recoverAsync() {
+        restored = true;
+        Thread thread = new Thread(() -> {
+            try {
+                recover();
+            } catch (Exception e) {
+                log.warn("Could not recover workflow runs: {}", e.getMessage());
+            }
+        }, "workflow-recover");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Continues every RUNNING run. Returns the number of runs looked at.
+     */
+    public int recover() {
+        int recovered = 0;
+        Query query = Query.query(Criteria.where("status").is("RUNNING"));
+        try (Stream<WorkflowRun> runs = mongoTemplate.stream(query, WorkflowRun.class)) {
+            for (WorkflowRun run : (Iterable<WorkflowRun>) runs::iterator) {
+                Optional<Workflow> workflow = workflowRepository.findById(run.getWorkflowId());
+                if (workflow.isEmpty()) {
+                    finish(run.getId(), "FAILED", null, "Workflow was deleted");
+                    continue;
+                }
+                // the in-memory job store lost fires that were pending or running; a JDBC store kept them
+                if (!clustered) {
+                    for (String jobId : run.getDispatched()) {
+                        if (!run.getCompleted().contains(jobId)) dispatch(run.getId(), jobId);
+                    }
+                }
+                dispatchReady(workflow.get(), run);
+                recovered++;
+            }
+        }
+        if (recovered > 0) log.info("Resumed {} workflow runs", recovered);
+        return recovered;
+    }
+
+    /**
+     * Steps not yet started whose upstream steps have all completed.
+     */
+    public static List<String> readySteps(Workflow workflow, Set<String> completed, Set<String> dispatched) {
+        List<String> ready = new ArrayList<>();
+        for (WorkflowStep step : workflow.getSteps()) {
+            if (dispatched.contains(step.getJobId())) continue;
+            if (step.getDependsOn() == null || completed.containsAll(step.getDependsOn())) ready.add(step.getJobId());
+        }
+        return ready;
+    }
+
+    /**
+     * Checks that the workflow has steps, that each job appears once, that dependencies name
+     * steps of the same workflow and that there are no cycles.
+     */
+    public static void validate(Workflow workflow) {
+        if (workflow.getSteps() == null || workflow.getSteps().isEmpty()) {
+            throw new IllegalArgumentException("A workflow needs at least one step");
+        }
+        Map<String, List<String>> downstream = new HashMap<>();
+        Map<String, Integer> pending = new HashMap<>();
+        for (WorkflowStep step : workflow.getSteps()) {
+            if (step.getJobId() == null) throw new IllegalArgumentException("Every step needs a jobId");
+            if (pending.put(step.getJobId(), 0) != null) {
+                throw new IllegalArgumentException("Job " + step.getJobId() + " appears in more than one step");
+            }
+            downstream.put(step.getJobId(), new ArrayList<>());
+        }
+        for (WorkflowStep step : workflow.getSteps()) {
+            if (step.getDependsOn() == null) continue;
+            for (String upstream : new HashSet<>(step.getDependsOn())) {
+                if (!downstream.containsKey(upstream)) {
+                    throw new IllegalArgumentException("Step " + step.getJobId() + " depends on unknown step " + upstream);
+                }
+                downstream.get(upstream).add(step.getJobId());
+                pending.merge(step.getJobId(), 1, Integer::sum);
+            }
+        }
+        // Kahn's algorithm: a cycle leaves steps that never become ready
+        Deque<String> ready = new ArrayDeque<>();
+        pending.forEach((jobId, count) -> {
+            if (count == 0) ready.add(jobId);
+        });
+        int visited = 0;
+        while (!ready.isEmpty()) {
+            visited++;
+            for (String next : downstream.get(ready.poll())) {
+                if (pending.merge(next, -1, Integer::sum) == 0) ready.add(next);
+            }
+        }
+        if (visited < pending.size()) {
+            throw new IllegalArgumentException("Workflow steps form a cycle");
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.jobScheduler.utils;
+
+import org.quartz.CronExpression;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.ParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TimeZone;
+
+/**
+ * Bounded LRU cache of parsed cron expressions keyed by expression and time zone.
+ * Cached instances are shared and must not be mutated (e.g. no setTimeZone) by callers,
+ * nor handed to Quartz, whose triggers keep and re-zone their expression; triggers get a copy.
+ * Invalid expressions are not cached.
+ */
+@Component
+public class CronExpressionCache {
+
+    private record Key(String expression, String timeZoneId) {
+    }
+
+    private final Map<Key, CronExpression> cache;
+
+    public CronExpressionCache(@Value("${jobscheduler.cron.cache-size:4096}") int maxSize) {
+        this.cache = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CronExpression> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public CronExpression get(String expression, TimeZone timeZone) throws ParseException {
+        Objects.requireNonNull(expression, "expression");
+        TimeZone zone = timeZone != null ? timeZone : TimeZone.getDefault();
+        Key key = new Key(expression.trim(), zone.getID());
+        synchronized (cache) {
+            CronExpression cached = cache.get(key);
+            if (cached != null) return cached;
+        }
+        // parse outside the lock; a racing duplicate parse is harmless
+        CronExpression compiled = new CronExpression(key.expression());
+        compiled.setTimeZone(zone);
+        synchronized (cache) {
+            CronExpression raced = cache.putIfAbsent(key, compiled);
+            return raced != null ? raced : compiled;
+        }
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+}
@@ -2,14 +2,37 @@ package com.jobScheduler.utils;
 
 import org.quartz.CronExpression;
 
-import java.text.ParseException;
+import java.time.DateTimeException;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
 
 public class CronUtils {
-    public static boolean isValidCron(String cron) {
+
+    /**
+     * Resolves a time zone id, or returns null for a blank id. Unknown ids are rejected
+     * instead of silently falling back to GMT like TimeZone.getTimeZone does.
+     */
+    public static TimeZone timeZone(String id) {
+        if (id == null || id.isBlank()) return null;
         try {
-            return CronExpression.isValidExpression(cron);
-        } catch (Exception e) {
-            return false;
+            return TimeZone.getTimeZone(ZoneId.of(id.trim()));
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid time zone: " + id);
+        }
+    }
+
+    /**
+     * Up to count fire times strictly after the given instant.
+     */
+    public static List<Date> nextFireTimes(CronExpression expression, Date after, int count) {
+        List<Date> times = new ArrayList<>(count);
+        Date next = after;
+        while (times.size() < count && (next = expression.getNextValidTimeAfter(next)) != null) {
+            times.add(next);
         }
+        return times;
     }
 }
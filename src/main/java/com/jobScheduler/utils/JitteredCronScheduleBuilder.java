@@ -0,0 +1,95 @@
+package com.jobScheduler.utils;
+
+import org.quartz.CronExpression;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.CronTrigger;
+import org.quartz.ScheduleBuilder;
+import org.quartz.impl.triggers.CronTriggerImpl;
+import org.quartz.spi.MutableTrigger;
+
+import java.text.ParseException;
+import java.util.Date;
+
+/**
+ * Cron schedule whose fire times are the cron times moved later by a fixed offset, so jobs that
+ * share a cron such as 0 * * * * ? do not all fire in the same second. The trigger itself fires
+ * at the offset time; nothing runs at the cron time.
+ */
+public class JitteredCronScheduleBuilder extends CronScheduleBuilder {
+
+    private final CronExpression cronExpression;
+    private final long offsetMs;
+
+    protected JitteredCronScheduleBuilder(CronExpression cronExpression, long offsetMs) {
+        super(cronExpression);
+        this.cronExpression = cronExpression;
+        this.offsetMs = offsetMs;
+    }
+
+    public static JitteredCronScheduleBuilder jitteredCronSchedule(CronExpression cronExpression, long offsetMs) {
+        if (offsetMs < 0) throw new IllegalArgumentException("offsetMs must not be negative");
+        return new JitteredCronScheduleBuilder(cronExpression, offsetMs);
+    }
+
+    @Override
+    public MutableTrigger build() {
+        CronTriggerImpl plain = (CronTriggerImpl) super.build();
+        JitteredCronTrigger trigger = new JitteredCronTrigger();
+        trigger.setCronExpression(cronExpression);
+        trigger.setTimeZone(cronExpression.getTimeZone());
+        trigger.setMisfireInstruction(plain.getMisfireInstruction());
+        trigger.offsetMs = offsetMs;
+        return trigger;
+    }
+
+    /**
+     * Cron trigger firing offsetMs after each cron time. Quartz computes every next fire time,
+     * misfires included, through getFireTimeAfter. It reports additional properties so a JDBC
+     * job store keeps it whole instead of storing it as a plain cron trigger.
+     */
+    public static class JitteredCronTrigger extends CronTriggerImpl {
+
+        private static final long serialVersionUID = 1L;
+
+        private long offsetMs;
+
+        public long getOffsetMs() {
+            return offsetMs;
+        }
+
+        @Override
+        public Date getFireTimeAfter(Date afterTime) {
+            if (afterTime == null) afterTime = new Date();
+            if (getStartTime().after(afterTime)) afterTime = new Date(getStartTime().getTime() - 1000L);
+            if (getEndTime() != null && afterTime.compareTo(getEndTime()) >= 0) return null;
+            Date cronTime = getTimeAfter(new Date(afterTime.getTime() - offsetMs));
+            if (cronTime == null) return null;
+            Date fireTime = new Date(cronTime.getTime() + offsetMs);
+            return getEndTime() != null && fireTime.after(getEndTime()) ? null : fireTime;
+        }
+
+        @Override
+        public boolean hasAdditionalProperties() {
+            return true;
+        }
+
+        @Override
+        public ScheduleBuilder<CronTrigger> getScheduleBuilder() {
+            CronExpression copy;
+            try {
+                copy = new CronExpression(getCronExpression());
+            } catch (ParseException e) {
+                throw new IllegalStateException("Stored cron expression no longer parses: " + getCronExpression(), e);
+            }
+            copy.setTimeZone(getTimeZone());
+            JitteredCronScheduleBuilder builder = new JitteredCronScheduleBuilder(copy, offsetMs);
+            switch (getMisfireInstruction()) {
+                case MISFIRE_INSTRUCTION_DO_NOTHING -> builder.withMisfireHandlingInstructionDoNothing();
+                case MISFIRE_INSTRUCTION_FIRE_ONCE_NOW -> builder.withMisfireHandlingInstructionFireAndProceed();
+                case MISFIRE_INSTRUCTION_IGNORE_MISFIRE_POLICY -> builder.withMisfireHandlingInstructionIgnoreMisfires();
+                default -> { }
+            }
+            return builder;
+        }
+    }
+}
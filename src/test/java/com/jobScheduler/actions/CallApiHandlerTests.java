@@ -0,0 +1,172 @@
+package com.jobScheduler.actions;
+
+import com.jobScheduler.model.Job;
+import com.jobScheduler.model.JobAction;
+import com.jobScheduler.model.JobDefinition;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CallApiHandlerTests {
+
+	private static final int CALLS = 20;
+
+	private HttpServer server;
+	private ExecutorService serverThreads;
+	private String baseUrl;
+	private final CountDownLatch arrived = new CountDownLatch(CALLS);
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@BeforeEach
+	void startServer() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/held", exchange -> {
+			arrived.countDown();
+			await(release);
+			byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		server.createContext("/hang", exchange -> {
+			sleep(2000);
+			exchange.sendResponseHeaders(200, -1);
+			exchange.close();
+		});
+		server.createContext("/stall", exchange -> {
+			// headers and the first chunk arrive at once, then the body stops
+			exchange.sendResponseHeaders(200, 0);
+			OutputStream out = exchange.getResponseBody();
+			out.write("partial".getBytes(StandardCharsets.UTF_8));
+			out.flush();
+			sleep(5000);
+			exchange.close();
+		});
+		serverThreads = Executors.newCachedThreadPool();
+		server.setExecutor(serverThreads);
+		server.start();
+		baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	@AfterEach
+	void stopServer() {
+		release.countDown();
+		server.stop(0);
+		serverThreads.shutdownNow();
+	}
+
+	private static CallApiHandler handler() {
+		return new CallApiHandler(5000, 10000, 65536, new OutboundRateLimiter(0, 10, 0, Map.of(), new SimpleMeterRegistry()));
+	}
+
+	@Test
+	void callsAreInFlightTogetherWithoutHoldingTheCallingThread() throws Exception {
+		CallApiHandler handler = handler();
+		JobDefinition job = job(baseUrl + "/held", Map.of("logResponse", "false"));
+
+		List<CompletableFuture<String>> calls = new ArrayList<>();
+		for (int i = 0; i < CALLS; i++) {
+			calls.add(handler.executeAsync(job));
+		}
+		// every call reaches the server while none has been answered
+		assertThat(arrived.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(calls).noneMatch(CompletableFuture::isDone);
+
+		release.countDown();
+		for (CompletableFuture<String> call : calls) {
+			assertThat(call.get(10, TimeUnit.SECONDS)).isEqualTo("API call successful");
+		}
+	}
+
+	@Test
+	void readTimeoutFailsTheCall() {
+		JobDefinition job = job(baseUrl + "/hang", Map.of("readTimeoutMs", "200"));
+
+		long start = System.nanoTime();
+		CompletableFuture<String> call = handler().executeAsync(job);
+
+		assertThatThrownBy(call::join)
+				.hasCauseInstanceOf(ActionFailedException.class)
+				.hasMessageContaining("API call failed");
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1500);
+	}
+
+	@Test
+	void readTimeoutAlsoCoversAStalledBody() {
+		for (String logResponse : new String[] {"true", "false"}) {
+			JobDefinition job = job(baseUrl + "/stall", Map.of("readTimeoutMs", "1000", "logResponse", logResponse));
+
+			long start = System.nanoTime();
+			CompletableFuture<String> call = handler().executeAsync(job);
+
+			assertThatThrownBy(call::join)
+					.hasCauseInstanceOf(ActionFailedException.class)
+					.hasMessageContaining("no response data for 1000 ms");
+			assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(4000);
+		}
+	}
+
+	@Test
+	void badConfigFailsTheFireInsteadOfThrowing() {
+		JobDefinition job = job(baseUrl + "/hang", Map.of("maxResponseBytes", "lots"));
+
+		CompletableFuture<String> call = handler().executeAsync(job);
+
+		assertThat(call).isCompletedExceptionally();
+		assertThatThrownBy(call::join).hasCauseInstanceOf(ActionFailedException.class);
+	}
+
+	@Test
+	void onlyHttpUrlsCanBeScheduled() {
+		CallApiHandler handler = handler();
+
+		handler.validatePayload(baseUrl + "/held");
+		for (String invalid : new String[] {"hello", "ftp://example.com/file", "http://", "http://exa mple.com", null}) {
+			assertThatThrownBy(() -> handler.validatePayload(invalid)).isInstanceOf(IllegalArgumentException.class);
+		}
+	}
+
+	private static JobDefinition job(String url, Map<String, String> config) {
+		Job job = new Job();
+		job.setId("id");
+		job.setName("api");
+		job.setAction(JobAction.CALL_API.name());
+		job.setPayload(url);
+		job.setConfig(config);
+		return JobDefinition.of(job, 1);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
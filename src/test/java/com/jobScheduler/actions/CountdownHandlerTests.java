@@ -0,0 +1,158 @@
+package com.jobScheduler.actions;
+
+import com.jobScheduler.model.Job;
+import com.jobScheduler.model.JobDefinition;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the handler against a stand-in for the jobs collection that applies each findAndModify
+ * atomically, as Mongo does for a single document, and counts the updates sent.
+ */
+class CountdownHandlerTests {
+
+	private static final int START = 500;
+
+	private Long remaining;
+	private final AtomicInteger updates = new AtomicInteger();
+
+	private MongoTemplate store() {
+		MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+		when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class), any(FindAndModifyOptions.class), eq(Job.class)))
+				.thenAnswer(inv -> apply(inv.getArgument(1, UpdateDefinition.class).getUpdateObject()));
+		return mongoTemplate;
+	}
+
+	private synchronized Job apply(Document update) {
+		updates.incrementAndGet();
+		if (update.containsKey("$inc")) {
+			if (remaining == null || remaining <= 0) return null;
+			remaining += ((Number) update.get("$inc", Document.class).get("remaining")).longValue();
+		} else {
+			if (remaining != null) return null;
+			remaining = ((Number) update.get("$set", Document.class).get("remaining")).longValue();
+		}
+		Job job = new Job();
+		job.setRemaining(remaining);
+		return job;
+	}
+
+	private static JobDefinition countdown(String payload) {
+		Job job = new Job();
+		job.setId("job-1");
+		job.setName("launch");
+		job.setAction("COUNTDOWN");
+		job.setPayload(payload);
+		return JobDefinition.of(job, 0);
+	}
+
+	@Test
+	void aStartedCountdownCostsOneUpdatePerTick() {
+		CountdownHandler handler = new CountdownHandler(store());
+		JobDefinition job = countdown("3");
+
+		handler.execute(job);
+		assertThat(remaining).isEqualTo(2);
+		updates.set(0);
+		handler.execute(job);
+		handler.execute(job);
+		assertThat(remaining).isZero();
+		assertThat(updates).hasValue(2);
+
+		handler.execute(job);
+		assertThat(remaining).isZero();
+	}
+
+	@Test
+	void aFinishedCountdownStopsAskingMongoUntilTheJobIsReloaded() {
+		CountdownHandler handler = new CountdownHandler(store());
+		JobDefinition job = countdown("1");
+		handler.execute(job);
+		assertThat(remaining).isZero();
+
+		handler.execute(job);
+		updates.set(0);
+		handler.execute(job);
+		handler.execute(job);
+		assertThat(updates).hasValue(0);
+
+		// a saved job is a new definition, e.g. with the counter reset
+		remaining = null;
+		handler.execute(countdown("2"));
+		assertThat(remaining).isEqualTo(1);
+	}
+
+	@Test
+	void stepsOnlyAStartedCountdownAndSeedsOnlyANewOne() {
+		MongoTemplate mongoTemplate = store();
+		new CountdownHandler(mongoTemplate).execute(countdown("3"));
+
+		ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<UpdateDefinition> changes = ArgumentCaptor.forClass(UpdateDefinition.class);
+		verify(mongoTemplate, times(2)).findAndModify(queries.capture(), changes.capture(), any(FindAndModifyOptions.class), eq(Job.class));
+		assertThat(queries.getAllValues().get(0).getQueryObject())
+				.containsEntry("_id", "job-1").containsEntry("remaining", new Document("$gt", 0));
+		assertThat(changes.getAllValues().get(0).getUpdateObject()).containsEntry("$inc", new Document("remaining", -1));
+		assertThat(queries.getAllValues().get(1).getQueryObject())
+				.containsEntry("_id", "job-1").containsEntry("remaining", new Document("$exists", false));
+		assertThat(changes.getAllValues().get(1).getUpdateObject()).containsEntry("$set", new Document("remaining", 2L));
+	}
+
+	@Test
+	void overlappingFiresTakeEveryStepExactlyOnce() throws Exception {
+		CountdownHandler handler = new CountdownHandler(store());
+		JobDefinition job = countdown(String.valueOf(START));
+		ExecutorService workers = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> fires = new ArrayList<>();
+			for (int i = 0; i < START + 100; i++) {
+				fires.add(workers.submit(() -> handler.execute(job)));
+			}
+			for (Future<?> fire : fires) {
+				fire.get();
+			}
+		} finally {
+			workers.shutdownNow();
+		}
+		assertThat(remaining).isZero();
+	}
+
+	@Test
+	void invalidStartValueLeavesTheCounterAlone() {
+		CountdownHandler handler = new CountdownHandler(store());
+
+		assertThat(handler.execute(countdown("soon"))).isEqualTo("Countdown tick");
+		assertThat(remaining).isNull();
+	}
+
+	@Test
+	void onlyPositiveWholeNumbersCanBeScheduled() {
+		CountdownHandler handler = new CountdownHandler(store());
+
+		handler.validatePayload(" 42 ");
+		for (String invalid : new String[] {"soon", "0", "-3", "1.5", null}) {
+			assertThatThrownBy(() -> handler.validatePayload(invalid)).isInstanceOf(IllegalArgumentException.class);
+		}
+	}
+}
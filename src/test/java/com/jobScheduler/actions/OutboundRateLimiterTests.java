@@ -0,0 +1,101 @@
+package com.jobScheduler.actions;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutboundRateLimiterTests {
+
+	private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+	@Test
+	void burstPassesThenCallsAreSpacedAtTheRate() {
+		OutboundRateLimiter limiter = new OutboundRateLimiter(0, 3, 0, Map.of("api.example.com", 10.0), new SimpleMeterRegistry());
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(limiter.reserveHost("api.example.com")).isZero();
+		}
+		assertThat(limiter.reserveHost("api.example.com")).isBetween(INTERVAL / 2, INTERVAL);
+		assertThat(limiter.reserveHost("api.example.com")).isBetween(INTERVAL + INTERVAL / 2, 2 * INTERVAL);
+		assertThat(limiter.reserveHost("other.example.com")).isZero();
+	}
+
+	@Test
+	void concurrentReservationsGetDistinctSlots() throws Exception {
+		OutboundRateLimiter limiter = new OutboundRateLimiter(10, 1, 0, Map.of(), new SimpleMeterRegistry());
+		ExecutorService threads = Executors.newFixedThreadPool(8);
+		List<Future<Long>> reservations = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			reservations.add(threads.submit(() -> limiter.reserveHost("api.example.com")));
+		}
+		List<Long> waits = new ArrayList<>();
+		for (Future<Long> reservation : reservations) {
+			waits.add(reservation.get());
+		}
+		threads.shutdown();
+
+		Collections.sort(waits);
+		// each token is handed out once, so the last caller waits for all the others
+		assertThat(waits.get(waits.size() - 1)).isGreaterThan(198 * INTERVAL);
+		for (int i = 1; i < waits.size(); i++) {
+			assertThat(waits.get(i) - waits.get(i - 1)).isGreaterThan(INTERVAL / 2);
+		}
+	}
+
+	@Test
+	void callsOverTheMaximumDelayAreRefusedWithoutTakingAToken() throws Exception {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		// one call per 100 ms, refused once it would wait more than 250 ms
+		OutboundRateLimiter limiter = new OutboundRateLimiter(10, 1, 250, Map.of(), registry);
+
+		assertThat(limiter.reserveHost("api.example.com")).isZero();
+		assertThat(limiter.reserveHost("api.example.com")).isPositive();
+		assertThat(limiter.reserveHost("api.example.com")).isPositive();
+		for (int i = 0; i < 5; i++) {
+			assertThat(limiter.reserveHost("api.example.com")).isEqualTo(OutboundRateLimiter.REJECTED);
+		}
+		assertThat(registry.get("jobscheduler.rate-limit.rejected").counter().count()).isEqualTo(5);
+
+		// refused calls took no tokens, so one interval later a call fits again
+		Thread.sleep(150);
+		assertThat(limiter.reserveHost("api.example.com")).isBetween(0L, 250 * 1_000_000L);
+	}
+
+	@Test
+	void aReleasedHostTokenGoesToTheNextCall() {
+		OutboundRateLimiter limiter = new OutboundRateLimiter(10, 1, 0, Map.of(), new SimpleMeterRegistry());
+
+		assertThat(limiter.reserveHost("api.example.com")).isZero();
+		long wait = limiter.reserveHost("api.example.com");
+		assertThat(wait).isBetween(INTERVAL / 2, INTERVAL);
+		limiter.releaseHost("api.example.com");
+
+		// the released call's slot is handed out again instead of the one after it
+		assertThat(limiter.reserveHost("api.example.com")).isBetween(INTERVAL / 2, INTERVAL);
+	}
+
+	@Test
+	void refilledBucketsArePruned() throws Exception {
+		OutboundRateLimiter limiter = new OutboundRateLimiter(0, 1, 0, Map.of(), new SimpleMeterRegistry());
+		limiter.reserveJob("deleted-job", 1000);
+		limiter.reserveJob("busy-job", 0.01);
+		assertThat(limiter.size()).isEqualTo(2);
+
+		Thread.sleep(20);
+		limiter.prune();
+
+		// the busy bucket still owes 100 s of calls, the other one has refilled
+		assertThat(limiter.size()).isEqualTo(1);
+		assertThat(limiter.reserveJob("busy-job", 0.01)).isPositive();
+	}
+}
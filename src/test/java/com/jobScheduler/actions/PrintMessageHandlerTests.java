@@ -0,0 +1,22 @@
+package com.jobScheduler.actions;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.async.DiscardingAsyncQueueFullPolicy;
+import org.apache.logging.log4j.core.async.EventRoute;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrintMessageHandlerTests {
+
+	@Test
+	void outputIsNotDiscardedWhenTheRingBufferIsFull() {
+		// same policy and threshold as log4j2.component.properties
+		DiscardingAsyncQueueFullPolicy policy = new DiscardingAsyncQueueFullPolicy(Level.INFO);
+
+		assertThat(policy.getRoute(Thread.currentThread().getId(), Level.INFO)).isEqualTo(EventRoute.DISCARD);
+		assertThat(policy.getRoute(Thread.currentThread().getId(), PrintMessageHandler.OUTPUT)).isNotEqualTo(EventRoute.DISCARD);
+		assertThat(PrintMessageHandler.OUTPUT.isMoreSpecificThan(Level.INFO)).isTrue();
+		assertThat(PrintMessageHandler.OUTPUT.isLessSpecificThan(Level.WARN)).isTrue();
+	}
+}
@@ -0,0 +1,19 @@
+package com.jobScheduler.actions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SendEmailHandlerTests {
+
+	@Test
+	void payloadMustBeAnEmailAddress() {
+		SendEmailHandler handler = new SendEmailHandler();
+
+		assertThatCode(() -> handler.validatePayload(" ops@example.com ")).doesNotThrowAnyException();
+		for (String invalid : new String[] {"ops", "ops@example", "ops@@example.com", "o ps@example.com", "", null}) {
+			assertThatThrownBy(() -> handler.validatePayload(invalid)).isInstanceOf(IllegalArgumentException.class);
+		}
+	}
+}
@@ -0,0 +1,21 @@
+package com.jobScheduler.actions;
+
+import com.jobScheduler.service.FileAppenderService;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class WriteFileHandlerTests {
+
+	@Test
+	void payloadMustBeAFilePath() {
+		WriteFileHandler handler = new WriteFileHandler(mock(FileAppenderService.class));
+
+		assertThatCode(() -> handler.validatePayload("logs/report.txt")).doesNotThrowAnyException();
+		for (String invalid : new String[] {"   ", "", "bad\0path", null}) {
+			assertThatThrownBy(() -> handler.validatePayload(invalid)).isInstanceOf(IllegalArgumentException.class);
+		}
+	}
+}
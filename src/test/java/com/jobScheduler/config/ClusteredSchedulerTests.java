@@ -0,0 +1,224 @@
+package com.jobScheduler.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobExecutionContext;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.TriggerBuilder;
+import org.quartz.impl.jdbcjobstore.JobStoreTX;
+import org.quartz.utils.ConnectionProvider;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.scheduling.quartz.SchedulerFactoryBean;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs scheduler nodes against one shared H2 job store and checks that every fire runs on
+ * exactly one node, that the work spreads over the nodes, that the survivors keep firing once
+ * a node leaves, and that a job in flight on a node that dies is run again by another node.
+ */
+class ClusteredSchedulerTests {
+
+	private static final int JOBS = 6;
+
+	private static final ConcurrentLinkedQueue<Fire> fires = new ConcurrentLinkedQueue<>();
+
+	record Fire(String node, String trigger, long scheduledAt, long firedAt) {
+	}
+
+	public static class RecordingJob implements Job {
+		@Override
+		public void execute(JobExecutionContext context) throws org.quartz.JobExecutionException {
+			try {
+				fires.add(new Fire(context.getScheduler().getSchedulerInstanceId(),
+						context.getTrigger().getKey().getName(),
+						context.getScheduledFireTime().getTime(),
+						System.currentTimeMillis()));
+				Thread.sleep(20);
+			} catch (SchedulerException e) {
+				throw new org.quartz.JobExecutionException(e);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private static final ConcurrentLinkedQueue<Fire> recoveries = new ConcurrentLinkedQueue<>();
+	private static final CountDownLatch crashedRunning = new CountDownLatch(1);
+	private static final CountDownLatch releaseCrashed = new CountDownLatch(1);
+
+	/** Hangs on its first run, standing in for a job that was running when its node died. */
+	public static class HangingJob implements Job {
+		@Override
+		public void execute(JobExecutionContext context) throws org.quartz.JobExecutionException {
+			try {
+				if (context.isRecovering()) {
+					recoveries.add(new Fire(context.getScheduler().getSchedulerInstanceId(),
+							context.getRecoveringTriggerKey().getName(), context.getScheduledFireTime().getTime(),
+							System.currentTimeMillis()));
+					return;
+				}
+				crashedRunning.countDown();
+				releaseCrashed.await(60, TimeUnit.SECONDS);
+			} catch (SchedulerException e) {
+				throw new org.quartz.JobExecutionException(e);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private static final String CRASH_STORE = "jdbc:h2:mem:cluster-crash;DB_CLOSE_DELAY=-1";
+	private static final Set<String> cutOff = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Store connections of one node, which fail once the node is cut off so it vanishes without
+	 * shutting down. Each node registers its own provider with Quartz; nodes built on a Spring
+	 * DataSource share one, keyed by the scheduler name.
+	 */
+	public static class NodeConnections implements ConnectionProvider {
+		private String node;
+
+		public void setNode(String node) {
+			this.node = node;
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			if (cutOff.contains(node)) throw new SQLException(node + " is gone");
+			return DriverManager.getConnection(CRASH_STORE);
+		}
+
+		@Override
+		public void shutdown() {
+		}
+
+		@Override
+		public void initialize() {
+		}
+	}
+
+	private final List<Scheduler> nodes = new ArrayList<>();
+
+	@AfterEach
+	void shutdown() throws SchedulerException {
+		for (Scheduler node : nodes) {
+			if (!node.isShutdown()) node.shutdown(true);
+		}
+		fires.clear();
+		recoveries.clear();
+	}
+
+	@Test
+	void eachFireRunsOnceAcrossNodesAndSurvivesANodeLeaving() throws Exception {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:cluster;DB_CLOSE_DELAY=-1");
+		QuartzConfig.initializeSchema(dataSource, new ClassPathResource("org/quartz/impl/jdbcjobstore/tables_h2.sql"));
+		// a second node starting against an initialized store must leave the schema alone
+		QuartzConfig.initializeSchema(dataSource, new ClassPathResource("org/quartz/impl/jdbcjobstore/tables_h2.sql"));
+
+		for (int i = 0; i < 3; i++) {
+			nodes.add(startNode(dataSource, "node-" + i));
+		}
+		for (int i = 0; i < JOBS; i++) {
+			nodes.get(0).scheduleJob(
+					JobBuilder.newJob(RecordingJob.class).withIdentity("job-" + i, "group1").requestRecovery(true).build(),
+					TriggerBuilder.newTrigger().withIdentity("job-" + i + "Trigger", "group1").startNow()
+							.withSchedule(SimpleScheduleBuilder.repeatSecondlyForever(1)).build());
+		}
+
+		Thread.sleep(4000);
+		nodes.get(0).shutdown(true);
+		long leftAt = System.currentTimeMillis();
+		Thread.sleep(3000);
+
+		List<Fire> all = new ArrayList<>(fires);
+		Set<String> seen = new HashSet<>();
+		for (Fire fire : all) {
+			assertThat(seen.add(fire.trigger() + "@" + fire.scheduledAt()))
+					.as("duplicate fire of %s at %d", fire.trigger(), fire.scheduledAt()).isTrue();
+		}
+		Set<String> firingNodes = all.stream().map(Fire::node).collect(Collectors.toSet());
+		assertThat(firingNodes.size()).as("%d fires across nodes %s", all.size(), firingNodes).isGreaterThan(1);
+
+		List<Fire> afterLeave = all.stream().filter(fire -> fire.firedAt() > leftAt + 100).toList();
+		assertThat(afterLeave).extracting(Fire::node).doesNotContain("node-0");
+		assertThat(afterLeave.stream().map(Fire::trigger).collect(Collectors.toSet())).hasSize(JOBS);
+	}
+
+	@Test
+	void jobInFlightOnANodeThatDiesIsRecoveredByAnotherNode() throws Exception {
+		QuartzConfig.initializeSchema(new DriverManagerDataSource(CRASH_STORE),
+				new ClassPathResource("org/quartz/impl/jdbcjobstore/tables_h2.sql"));
+		Scheduler doomed = startNode(null, "doomed");
+		nodes.add(doomed);
+		doomed.scheduleJob(
+				JobBuilder.newJob(HangingJob.class).withIdentity("report", "group1").requestRecovery(true).build(),
+				TriggerBuilder.newTrigger().withIdentity("reportTrigger", "group1").startNow().build());
+		try {
+			assertThat(crashedRunning.await(10, TimeUnit.SECONDS)).isTrue();
+			nodes.add(startNode(null, "survivor"));
+
+			// no shutdown: the node just stops checking in, with the job's fire still recorded as its own
+			cutOff.add("doomed");
+			long deadline = System.currentTimeMillis() + 30_000;
+			while (recoveries.isEmpty() && System.currentTimeMillis() < deadline) {
+				Thread.sleep(100);
+			}
+
+			assertThat(recoveries).singleElement().satisfies(fire -> {
+				assertThat(fire.node()).isEqualTo("survivor");
+				assertThat(fire.trigger()).isEqualTo("reportTrigger");
+			});
+		} finally {
+			cutOff.clear();
+			releaseCrashed.countDown();
+		}
+	}
+
+	/** Starts a node on the DataSource, or on its own {@link NodeConnections} to the crash store when it is null. */
+	private Scheduler startNode(DataSource dataSource, String instanceId) throws Exception {
+		SchedulerFactoryBean factory = new SchedulerFactoryBean();
+		Properties props = new Properties();
+		QuartzConfig.applyExecutionMode(factory, props, FireExecutionMode.PLATFORM, 4);
+		QuartzConfig.applyClusterMode(factory, props, dataSource,
+				dataSource == null ? null : new DataSourceTransactionManager(dataSource),
+				1000, "org.quartz.impl.jdbcjobstore.StdJDBCDelegate");
+		if (dataSource == null) {
+			props.setProperty("org.quartz.jobStore.class", JobStoreTX.class.getName());
+			props.setProperty("org.quartz.jobStore.dataSource", instanceId);
+			props.setProperty("org.quartz.dataSource." + instanceId + ".connectionProvider.class", NodeConnections.class.getName());
+			props.setProperty("org.quartz.dataSource." + instanceId + ".node", instanceId);
+		}
+		// AUTO ids are host + timestamp, which can collide for nodes started in one JVM
+		props.setProperty("org.quartz.scheduler.instanceId", instanceId);
+		// idle nodes otherwise poll the store every 30 s and miss triggers added by a peer
+		props.setProperty("org.quartz.scheduler.idleWaitTime", "1000");
+		factory.setQuartzProperties(props);
+		factory.setAutoStartup(false);
+		factory.afterPropertiesSet();
+		Scheduler scheduler = factory.getObject();
+		scheduler.start();
+		return scheduler;
+	}
+}
@@ -0,0 +1,93 @@
+package com.jobScheduler.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jobScheduler.model.Job;
+import com.jobScheduler.service.BulkJobService;
+import com.jobScheduler.service.JobEventStream;
+import com.jobScheduler.service.JobService;
+import com.jobScheduler.service.JobStatsService;
+import com.jobScheduler.service.RetryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class JobControllerTests {
+
+	private final JobService jobService = mock(JobService.class);
+	private final MockMvc mvc = MockMvcBuilders.standaloneSetup(new JobController(jobService, mock(BulkJobService.class),
+			mock(RetryService.class), mock(JobStatsService.class), mock(JobEventStream.class), new ObjectMapper())).build();
+
+	private static Job job(String id, String name) {
+		Job job = new Job();
+		job.setId(id);
+		job.setName(name);
+		return job;
+	}
+
+	@Test
+	void listReturnsAHundredSummaryRowsByDefault() throws Exception {
+		when(jobService.listJobs(any(), any(), any(), any(), anyInt(), any()))
+				.thenReturn(new JobService.JobPage(List.of(job("a", "first")), null));
+
+		mvc.perform(get("/jobs/list"))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist("X-Next-Cursor"))
+				.andExpect(jsonPath("$[0].name").value("first"));
+
+		verify(jobService).listJobs(isNull(), isNull(), isNull(), isNull(), eq(100), isNull());
+	}
+
+	@Test
+	void listPassesFiltersAndFieldsAndReturnsTheNextCursor() throws Exception {
+		when(jobService.listJobs(any(), any(), any(), any(), anyInt(), any()))
+				.thenReturn(new JobService.JobPage(List.of(job("b", "second")), "b"));
+
+		mvc.perform(get("/jobs/list").param("status", "PAUSED").param("after", "a").param("limit", "1")
+						.param("fields", "name,payload"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("X-Next-Cursor", "b"));
+
+		verify(jobService).listJobs("PAUSED", null, null, "a", 1, List.of("name", "payload"));
+	}
+
+	@Test
+	void aRejectedPayloadIsNotSaved() throws Exception {
+		doThrow(new IllegalArgumentException("payload must not be larger than 10 bytes"))
+				.when(jobService).validatePayload(any());
+
+		mvc.perform(post("/jobs/schedule").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"big\",\"cronExpression\":\"0 0 * * * ?\",\"action\":\"PRINT_MESSAGE\",\"payload\":\"too large\"}"))
+				.andExpect(status().isBadRequest());
+
+		verify(jobService, never()).saveJob(any());
+	}
+
+	@Test
+	void aRejectedCronExpressionIsNotSaved() throws Exception {
+		when(jobService.compileCron(eq("not cron"), any())).thenThrow(new IllegalArgumentException("Invalid cron expression: not cron"));
+
+		mvc.perform(post("/jobs/schedule").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"bad\",\"cronExpression\":\"not cron\",\"action\":\"PRINT_MESSAGE\"}"))
+				.andExpect(status().isBadRequest());
+
+		verify(jobService, never()).saveJob(any());
+	}
+}
@@ -0,0 +1,183 @@
+package com.jobScheduler.jobs;
+
+import com.jobScheduler.actions.ExecutionKind;
+import com.jobScheduler.actions.JobActionHandler;
+import com.jobScheduler.actions.JobActionRegistry;
+import com.jobScheduler.model.JobAction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ActionPoolsTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final JobActionRegistry actionRegistry = new JobActionRegistry(List.of(
+			handler(JobAction.CALL_API, ExecutionKind.BLOCKING),
+			handler(JobAction.WRITE_FILE, ExecutionKind.BLOCKING),
+			handler(JobAction.PRINT_MESSAGE, ExecutionKind.CPU_BOUND)));
+	private ActionPools pools;
+
+	@AfterEach
+	void shutdown() {
+		if (pools != null) pools.shutdown();
+	}
+
+	private static JobActionHandler handler(JobAction action, ExecutionKind kind) {
+		JobActionHandler handler = mock(JobActionHandler.class);
+		when(handler.getAction()).thenReturn(action);
+		when(handler.getExecutionKind()).thenReturn(kind);
+		return handler;
+	}
+
+	private ActionPools.Pool pool(int threads, int queueCapacity) {
+		ActionPools.Settings settings = new ActionPools.Settings();
+		settings.setActions(List.of(JobAction.CALL_API));
+		settings.setThreads(threads);
+		settings.setQueueCapacity(queueCapacity);
+		pools = new ActionPools(Map.of("io", settings), Map.of(), registry);
+		return pools.poolFor(JobAction.CALL_API);
+	}
+
+	@Test
+	void queuedFiresRunByPriorityAndAFullPoolTurnsFiresAway() throws Exception {
+		ActionPools.Pool pool = pool(1, 2);
+		CompletableFuture<Void> slowCall = new CompletableFuture<>();
+		CountDownLatch running = new CountDownLatch(1);
+		List<String> order = new CopyOnWriteArrayList<>();
+
+		CompletableFuture<Void> first = pool.submit(5, () -> {
+			running.countDown();
+			return slowCall;
+		});
+		assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<Void> low = pool.submit(1, () -> {
+			order.add("low");
+			return CompletableFuture.completedFuture(null);
+		});
+		CompletableFuture<Void> high = pool.submit(9, () -> {
+			order.add("high");
+			return CompletableFuture.completedFuture(null);
+		});
+
+		// the async call still holds the only thread, and the queue is full
+		assertThat(pool.submit(5, () -> CompletableFuture.completedFuture(null))).isNull();
+		assertThat(registry.get("jobscheduler.pool.queued").tag("pool", "io").gauge().value()).isEqualTo(2);
+
+		slowCall.complete(null);
+		CompletableFuture.allOf(first, low, high).get(5, TimeUnit.SECONDS);
+		assertThat(order).containsExactly("high", "low");
+		assertThat(pool.submit(5, () -> CompletableFuture.completedFuture(null))).isNotNull();
+	}
+
+	@Test
+	void actionsWithoutAPoolStayOnTheQuartzThread() {
+		pool(1, 0);
+
+		assertThat(pools.poolFor(JobAction.PRINT_MESSAGE)).isNull();
+		assertThat(pools.poolFor(JobAction.CALL_API).getName()).isEqualTo("io");
+	}
+
+	@Test
+	void anAsyncFireHoldsItsSlotButNotThePoolThread() throws Exception {
+		ActionPools.Pool pool = pool(1, 1);
+		CompletableFuture<Void> slowCall = new CompletableFuture<>();
+		AtomicReference<Thread> poolThread = new AtomicReference<>();
+		CountDownLatch started = new CountDownLatch(1);
+
+		CompletableFuture<Void> first = pool.submit(5, () -> {
+			poolThread.set(Thread.currentThread());
+			started.countDown();
+			return slowCall;
+		});
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<Void> second = pool.submit(5, () -> CompletableFuture.completedFuture(null));
+
+		// the thread goes back to waiting for work while the call is in flight
+		long deadline = System.currentTimeMillis() + 5000;
+		while (poolThread.get().getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(poolThread.get().getState()).isEqualTo(Thread.State.WAITING);
+		assertThat(registry.get("jobscheduler.pool.active").tag("pool", "io").gauge().value()).isEqualTo(1);
+		assertThat(second).isNotDone();
+
+		// the slot is released by the completion itself, not by a pool thread catching up
+		slowCall.complete(null);
+		assertThat(first).isDone();
+		second.get(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	void shutdownShedsFiresThatHaveNotStarted() throws Exception {
+		ActionPools.Pool pool = pool(1, 2);
+		CountDownLatch running = new CountDownLatch(1);
+		pool.submit(5, () -> {
+			running.countDown();
+			return new CompletableFuture<>();
+		});
+		assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+		AtomicInteger shedFires = new AtomicInteger();
+		CompletableFuture<Void> queued = pool.submit(5, () -> CompletableFuture.completedFuture(null), shedFires::incrementAndGet);
+
+		pools.shutdown();
+
+		assertThat(shedFires).hasValue(1);
+		assertThat(queued).isCompletedExceptionally();
+		assertThatThrownBy(queued::join).hasCauseInstanceOf(RejectedExecutionException.class);
+		assertThat(registry.get("jobscheduler.pool.shed").tag("pool", "io").counter().count()).isEqualTo(1);
+		assertThat(pool.submit(5, () -> CompletableFuture.completedFuture(null))).isNull();
+	}
+
+	@Test
+	void removedPerActionLimitsAreRejectedAtStartup() {
+		MockEnvironment environment = new MockEnvironment()
+				.withProperty("jobscheduler.executor.pools.io.actions", "CALL_API")
+				.withProperty("jobscheduler.executor.limits.CALL_API", "500");
+
+		assertThatThrownBy(() -> new ActionPools(environment, actionRegistry, registry))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("jobscheduler.executor.limits")
+				.hasMessageContaining("CALL_API");
+
+		pools = new ActionPools(new MockEnvironment().withProperty("jobscheduler.executor.pools.io.actions", "CALL_API"), actionRegistry, registry);
+		assertThat(pools.poolFor(JobAction.CALL_API).getName()).isEqualTo("io");
+	}
+
+	@Test
+	void actionsFollowTheirHandlersKindUnlessAPoolListsThem() {
+		pools = new ActionPools(new MockEnvironment()
+				.withProperty("jobscheduler.executor.pools.io.kinds", "BLOCKING")
+				.withProperty("jobscheduler.executor.pools.files.actions", "WRITE_FILE"), actionRegistry, registry);
+
+		assertThat(pools.poolFor(JobAction.CALL_API).getName()).isEqualTo("io");
+		assertThat(pools.poolFor(JobAction.WRITE_FILE).getName()).isEqualTo("files");
+		assertThat(pools.poolFor(JobAction.PRINT_MESSAGE)).isNull();
+	}
+
+	@Test
+	void aKindInTwoPoolsIsRejected() {
+		MockEnvironment environment = new MockEnvironment()
+				.withProperty("jobscheduler.executor.pools.a.kinds", "BLOCKING")
+				.withProperty("jobscheduler.executor.pools.b.kinds", "BLOCKING");
+
+		assertThatThrownBy(() -> new ActionPools(environment, actionRegistry, registry))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("BLOCKING");
+	}
+}
@@ -0,0 +1,159 @@
+package com.jobScheduler.jobs;
+
+import com.jobScheduler.model.Job;
+import com.jobScheduler.model.JobDefinition;
+import com.jobScheduler.service.FireMetrics;
+import com.jobScheduler.service.JobService;
+import com.jobScheduler.service.WheelTriggerEngine;
+import com.jobScheduler.utils.CronExpressionCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.JobBuilder;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.TriggerBuilder;
+import org.quartz.impl.StdSchedulerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Fires come from a running engine with one every-second job; the handler is fed by hand.
+ */
+class WheelFireHandlerTests {
+
+	private Scheduler scheduler;
+	private WheelTriggerEngine engine;
+	private final JobService jobService = mock(JobService.class);
+	private final FireMetrics fireMetrics = mock(FireMetrics.class);
+	private WheelFireHandler handler;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		Properties props = new Properties();
+		props.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, "wheel-fire-" + UUID.randomUUID());
+		props.setProperty("org.quartz.threadPool.threadCount", "1");
+		scheduler = new StdSchedulerFactory(props).getScheduler();
+		engine = new WheelTriggerEngine(scheduler, new SimpleMeterRegistry(), new CronExpressionCache(16), 10, 1, 16, false);
+		Job job = new Job();
+		job.setId("id-1");
+		job.setName("serial");
+		job.setAction("PRINT_MESSAGE");
+		when(jobService.definition(eq("id-1"), anyLong())).thenReturn(JobDefinition.of(job, 1));
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		engine.stop();
+		if (handler != null) handler.shutdown();
+		scheduler.shutdown();
+	}
+
+	private WheelFireHandler handler(int threads, int queueCapacity) {
+		handler = new WheelFireHandler(engine, jobService, new ActionPools(Map.of(), Map.of(), new SimpleMeterRegistry()), fireMetrics,
+				threads, queueCapacity, 60_000);
+		return handler;
+	}
+
+	/** First fire of a serial every-second job, taken from the running engine. */
+	private WheelTriggerEngine.Fire firstFire() throws Exception {
+		List<WheelTriggerEngine.Fire> fires = new CopyOnWriteArrayList<>();
+		engine.setFireHandler(fires::addAll);
+		engine.scheduleJob(JobBuilder.newJob(SerialPrintMessageJob.class).withIdentity("id-1", "group1")
+						.usingJobData("jobId", "id-1").usingJobData("action", "PRINT_MESSAGE").usingJobData("revision", "1").build(),
+				TriggerBuilder.newTrigger().withIdentity("id-1", "group1").withSchedule(CronScheduleBuilder.cronSchedule("* * * * * ?")).build());
+		engine.start();
+		long deadline = System.currentTimeMillis() + 5000;
+		while (fires.isEmpty() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		engine.stop();
+		assertThat(fires).isNotEmpty();
+		return fires.get(0);
+	}
+
+	private static WheelTriggerEngine.Fire late(WheelTriggerEngine.Fire fire, long lateMs) {
+		return new WheelTriggerEngine.Fire(fire.trigger(), System.currentTimeMillis() - lateMs, fire.generation(), true);
+	}
+
+	@Test
+	void firesLaterThanTheMisfireThresholdAreDroppedAndCounted() throws Exception {
+		WheelTriggerEngine.Fire fire = firstFire();
+		when(jobService.doSomething(anyJob(), anyInt(), anyMap())).thenReturn(CompletableFuture.completedFuture(null));
+		WheelFireHandler handler = handler(1, 4);
+
+		handler.dispatch(List.of(late(fire, 120_000), late(fire, 10)));
+
+		verify(fireMetrics, timeout(5000)).recordMisfire("PRINT_MESSAGE");
+		verify(jobService, timeout(5000).times(1)).doSomething(anyJob(), anyInt(), anyMap());
+	}
+
+	@Test
+	void aHeldBackFireOfAJobPausedMeanwhileDoesNotRun() throws Exception {
+		WheelTriggerEngine.Fire fire = firstFire();
+		CompletableFuture<Void> running = new CompletableFuture<>();
+		when(jobService.doSomething(anyJob(), anyInt(), anyMap())).thenReturn(running);
+		WheelFireHandler handler = handler(1, 4);
+
+		handler.dispatch(List.of(late(fire, 0)));
+		verify(jobService, timeout(5000)).doSomething(anyJob(), anyInt(), anyMap());
+		// a fire that comes due while the first one runs is held back
+		assertThat(fire.trigger().tryStart()).isFalse();
+
+		engine.pauseJob(new JobKey("id-1", "group1"));
+		running.complete(null);
+		Thread.sleep(200);
+
+		verify(jobService, times(1)).doSomething(anyJob(), anyInt(), anyMap());
+		// the trigger is idle again rather than stuck holding the dropped fire
+		assertThat(fire.trigger().tryStart()).isTrue();
+	}
+
+	@Test
+	void batchesThatFindTheQueueFullMisfire() throws Exception {
+		WheelTriggerEngine.Fire fire = firstFire();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(jobService.doSomething(anyJob(), anyInt(), anyMap())).thenAnswer(inv -> {
+			started.countDown();
+			assertThat(release.await(5, TimeUnit.SECONDS)).isTrue();
+			return CompletableFuture.completedFuture(null);
+		});
+		WheelFireHandler handler = handler(1, 1);
+		WheelTriggerEngine.Fire other = new WheelTriggerEngine.Fire(fire.trigger(), System.currentTimeMillis(), fire.generation(), false);
+
+		handler.dispatch(List.of(late(fire, 0)));
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		handler.dispatch(List.of(other)); // waits in the queue
+		handler.dispatch(List.of(other, other)); // finds it full
+
+		verify(fireMetrics, times(2)).recordMisfire("PRINT_MESSAGE");
+		release.countDown();
+		verify(jobService, timeout(5000).times(2)).doSomething(anyJob(), anyInt(), anyMap());
+	}
+
+	private static JobDefinition anyJob() {
+		return any(JobDefinition.class);
+	}
+}
@@ -0,0 +1,77 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.model.JobLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class BatchingJobLogSinkTests {
+
+	@Test
+	void flushesInBatchesAndDrainsOnShutdown() throws Exception {
+		MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+		List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+		doAnswer(inv -> {
+			batchSizes.add(((Collection<?>) inv.getArgument(0)).size());
+			return null;
+		}).when(mongoTemplate).insert(anyCollection(), eq(JobLog.class));
+
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		BatchingJobLogSink sink = new BatchingJobLogSink(mongoTemplate, registry,
+				10_000, 500, 60_000, BatchingJobLogSink.OverflowPolicy.BLOCK, 50);
+		sink.start();
+		for (int i = 0; i < 1200; i++) {
+			sink.write(new JobLog());
+		}
+		sink.shutdown();
+
+		assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(1200);
+		assertThat(batchSizes).allMatch(size -> size <= 500);
+		assertThat(registry.counter("jobscheduler.joblog.written").count()).isEqualTo(1200);
+	}
+
+	@Test
+	void dropsWhenQueueIsFull() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		BatchingJobLogSink sink = new BatchingJobLogSink(mock(MongoTemplate.class), registry,
+				10, 500, 60_000, BatchingJobLogSink.OverflowPolicy.DROP, 0);
+		// flusher not started, so the queue only fills up
+		for (int i = 0; i < 15; i++) {
+			sink.write(new JobLog());
+		}
+
+		assertThat(sink.getQueueDepth()).isEqualTo(10);
+		assertThat(registry.counter("jobscheduler.joblog.dropped").count()).isEqualTo(5);
+	}
+
+	@Test
+	void writesAfterShutdownGoStraightToMongo() throws Exception {
+		MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+		List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+		doAnswer(inv -> {
+			batchSizes.add(((Collection<?>) inv.getArgument(0)).size());
+			return null;
+		}).when(mongoTemplate).insert(anyCollection(), eq(JobLog.class));
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		BatchingJobLogSink sink = new BatchingJobLogSink(mongoTemplate, registry,
+				10, 500, 60_000, BatchingJobLogSink.OverflowPolicy.BLOCK, 50);
+		sink.start();
+		sink.shutdown();
+
+		sink.write(new JobLog());
+
+		assertThat(batchSizes).containsExactly(1);
+		assertThat(sink.getQueueDepth()).isZero();
+		assertThat(registry.counter("jobscheduler.joblog.written").count()).isEqualTo(1);
+	}
+}
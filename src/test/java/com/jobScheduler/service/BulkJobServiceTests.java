@@ -0,0 +1,124 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.jobs.PrintMessageJob;
+import com.jobScheduler.model.BulkItemResult;
+import com.jobScheduler.model.Job;
+import com.jobScheduler.repository.JobRepository;
+import org.junit.jupiter.api.Test;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BulkJobServiceTests {
+
+	private final TriggerEngine triggerEngine = mock(TriggerEngine.class);
+	private final JobService jobService = mock(JobService.class);
+	private final JobRepository jobRepository = mock(JobRepository.class);
+	private final JobDefinitionCache cache = mock(JobDefinitionCache.class);
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+	private final JobPayloadStore payloadStore = mock(JobPayloadStore.class);
+	private final BulkJobService bulk = new BulkJobService(triggerEngine, mock(JobKeyIndex.class), jobService, jobRepository,
+			cache, mongoTemplate, mock(JobRevisions.class), payloadStore, 2);
+
+	private static Job job(String name, String cron) {
+		Job job = new Job();
+		job.setName(name);
+		job.setCronExpression(cron);
+		job.setAction("PRINT_MESSAGE");
+		return job;
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void schedulesInChunksAndSavesEachJobOnceInItsFinalState() throws Exception {
+		when(jobService.buildSchedule(any(Job.class), anyLong())).thenAnswer(inv -> {
+			Job job = inv.getArgument(0);
+			if (job.getCronExpression() == null) throw new IllegalArgumentException("Invalid cron expression: null");
+			JobDetail detail = JobBuilder.newJob(PrintMessageJob.class).withIdentity(job.getId()).build();
+			Trigger trigger = TriggerBuilder.newTrigger().withIdentity(job.getId()).build();
+			return new JobService.QuartzSchedule(detail, trigger, 7);
+		});
+		List<List<Job>> saves = new ArrayList<>();
+		when(jobRepository.saveAll(anyList())).thenAnswer(inv -> {
+			List<Job> batch = new ArrayList<>(inv.<List<Job>>getArgument(0));
+			saves.add(batch);
+			return batch;
+		});
+		List<Job> jobs = new ArrayList<>(IntStream.range(0, 4).mapToObj(i -> job("job" + i, "0 * * * * ?")).toList());
+		jobs.add(2, job("broken", null));
+		List<BulkItemResult> results = new ArrayList<>();
+
+		bulk.scheduleJobs(jobs, results::add);
+
+		// five jobs in chunks of two; the broken one is reported and never saved
+		assertThat(saves).extracting(List::size).containsExactly(2, 1, 1);
+		assertThat(saves).flatMap(batch -> batch).allSatisfy(job -> {
+			assertThat(job.getId()).isNotNull();
+			assertThat(job.getStatus()).isEqualTo("SCHEDULED");
+		});
+		assertThat(results).hasSize(5);
+		assertThat(results).filteredOn(result -> !result.isSuccess()).singleElement().satisfies(result -> {
+			assertThat(result.getName()).isEqualTo("broken");
+			assertThat(result.getJobId()).isNull();
+			assertThat(result.getMessage()).contains("Invalid cron");
+		});
+		verify(triggerEngine, times(3)).scheduleJobs(any(Map.class));
+		verify(cache, times(4)).put(any(Job.class), eq(7L));
+		verify(mongoTemplate, never()).updateMulti(any(Query.class), any(UpdateDefinition.class), eq(Job.class));
+		var order = inOrder(triggerEngine, payloadStore, jobRepository);
+		order.verify(triggerEngine).scheduleJobs(any(Map.class));
+		order.verify(payloadStore).offload(anyList());
+		order.verify(jobRepository).saveAll(anyList());
+	}
+
+	@Test
+	void rejectedPayloadsAreReportedWithoutBuildingASchedule() throws Exception {
+		Job bad = job("bad", "0 * * * * ?");
+		doThrow(new IllegalArgumentException("COUNTDOWN payload must be a positive whole number")).when(jobService).validatePayload(bad);
+		List<BulkItemResult> results = new ArrayList<>();
+
+		bulk.scheduleJobs(List.of(bad), results::add);
+
+		assertThat(results).singleElement().satisfies(result -> {
+			assertThat(result.isSuccess()).isFalse();
+			assertThat(result.getMessage()).contains("COUNTDOWN payload");
+		});
+		verify(jobService, never()).buildSchedule(any(Job.class), anyLong());
+		verify(jobRepository, never()).saveAll(anyList());
+	}
+
+	@Test
+	void chunkWithOnlyInvalidJobsTouchesNeitherQuartzNorMongo() throws Exception {
+		when(jobService.buildSchedule(any(Job.class), anyLong())).thenThrow(new IllegalArgumentException("Unknown job action: FAX"));
+		List<BulkItemResult> results = new ArrayList<>();
+
+		bulk.scheduleJobs(List.of(job("a", "0 * * * * ?"), job("b", "0 * * * * ?")), results::add);
+
+		assertThat(results).extracting(BulkItemResult::isSuccess).containsExactly(false, false);
+		verify(triggerEngine, never()).scheduleJobs(any());
+		verify(jobRepository, never()).saveAll(anyList());
+		assertThat(results).extracting(BulkItemResult::getJobId).containsOnlyNulls();
+	}
+}
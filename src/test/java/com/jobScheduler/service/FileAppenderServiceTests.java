@@ -0,0 +1,91 @@
+package com.jobScheduler.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileAppenderServiceTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void concurrentWritersProduceWholeLines() throws Exception {
+		FileAppenderService appender = new FileAppenderService(2, FileAppenderService.FsyncPolicy.BATCH);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		List<CompletableFuture<Void>> writes = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			String file = dir.resolve("out" + (i % 5) + ".log").toString();
+			String line = "line-" + i + "-" + "x".repeat(100);
+			writes.add(CompletableFuture.supplyAsync(() -> appender.append(file, line), pool).thenCompose(f -> f));
+		}
+		CompletableFuture.allOf(writes.toArray(new CompletableFuture<?>[0])).join();
+		pool.shutdown();
+
+		assertThat(appender.getOpenFileCount()).isLessThanOrEqualTo(2);
+		appender.closeAll();
+
+		int total = 0;
+		for (int f = 0; f < 5; f++) {
+			List<String> lines = Files.readAllLines(dir.resolve("out" + f + ".log"));
+			assertThat(lines).allMatch(l -> l.matches("line-\\d+-x{100}"));
+			total += lines.size();
+		}
+		assertThat(total).isEqualTo(2000);
+	}
+
+	@Test
+	void filesPastTheLimitAreForgottenOnceIdle() throws Exception {
+		FileAppenderService appender = new FileAppenderService(4, FileAppenderService.FsyncPolicy.NONE);
+		for (int i = 0; i < 100; i++) {
+			appender.append(dir.resolve("job" + i + ".log").toString(), "line").join();
+		}
+
+		assertThat(appender.getTrackedFileCount()).isEqualTo(4);
+		assertThat(appender.getOpenFileCount()).isLessThanOrEqualTo(4);
+		// a forgotten file is picked up again on its next write
+		appender.append(dir.resolve("job0.log").toString(), "again").join();
+		appender.closeAll();
+		assertThat(Files.readAllLines(dir.resolve("job0.log"))).containsExactly("line", "again");
+		assertThat(appender.getOpenFileCount()).isZero();
+	}
+
+	@Test
+	void closeAllWaitsForWritesInProgress() throws Exception {
+		FileAppenderService appender = new FileAppenderService(2, FileAppenderService.FsyncPolicy.LINE);
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		List<CompletableFuture<Void>> writes = new ArrayList<>();
+		for (int i = 0; i < 400; i++) {
+			String file = dir.resolve("out" + (i % 2) + ".log").toString();
+			String line = "line-" + i;
+			writes.add(CompletableFuture.supplyAsync(() -> appender.append(file, line), pool).thenCompose(f -> f));
+		}
+		appender.closeAll();
+		pool.shutdown();
+
+		// every line was either written whole or failed, none was cut off by the close
+		int written = 0;
+		for (CompletableFuture<Void> write : writes) {
+			try {
+				write.join();
+				written++;
+			} catch (CompletionException e) {
+				assertThat(e).hasCauseInstanceOf(IOException.class);
+			}
+		}
+		List<String> lines = new ArrayList<>(Files.readAllLines(dir.resolve("out0.log")));
+		lines.addAll(Files.readAllLines(dir.resolve("out1.log")));
+		assertThat(lines).hasSize(written).allMatch(l -> l.matches("line-\\d+"));
+	}
+}
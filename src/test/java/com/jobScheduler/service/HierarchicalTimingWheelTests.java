@@ -0,0 +1,92 @@
+package com.jobScheduler.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HierarchicalTimingWheelTests {
+
+	@Test
+	void itemsOnEveryLevelComeOutOnTheFirstTickAtOrAfterTheirDeadline() {
+		HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(1, 0);
+		Random random = new Random(42);
+		Map<Integer, Long> deadlines = new HashMap<>();
+		for (int i = 0; i < 5000; i++) {
+			// up to 2^24 ticks, so items start on levels 0 to 2 and cascade down
+			long deadline = random.nextInt(1 << (random.nextInt(3) * 8 + 8));
+			deadlines.put(i, deadline);
+			wheel.schedule(i, deadline);
+		}
+
+		Map<Integer, Long> firedAt = new HashMap<>();
+		long step = 997;
+		for (long now = 0; now < (1 << 24) + step; now += step) {
+			long at = now;
+			wheel.advance(now, (item, deadline) -> {
+				assertThat(deadline).isEqualTo(deadlines.get(item));
+				assertThat(firedAt.put(item, at)).isNull();
+			});
+		}
+
+		assertThat(firedAt).hasSameSizeAs(deadlines);
+		firedAt.forEach((item, at) -> assertThat(at - deadlines.get(item)).isBetween(0L, step - 1));
+		assertThat(wheel.size()).isZero();
+	}
+
+	@Test
+	void itemsScheduledInThePastComeOutOnTheNextAdvance() {
+		HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 1000);
+		wheel.advance(5000, (item, deadline) -> { });
+		List<String> due = new ArrayList<>();
+
+		wheel.schedule("late", 1200);
+		wheel.schedule("later", 5100);
+		wheel.advance(5000, (item, deadline) -> due.add(item));
+		assertThat(due).isEmpty();
+
+		wheel.advance(5010, (item, deadline) -> due.add(item));
+		assertThat(due).containsExactly("late");
+		assertThat(wheel.nextTickAt()).isEqualTo(5020);
+
+		wheel.advance(5099, (item, deadline) -> due.add(item));
+		assertThat(due).containsExactly("late");
+		wheel.advance(5100, (item, deadline) -> due.add(item));
+		assertThat(due).containsExactly("late", "later");
+	}
+
+	@Test
+	void concurrentSchedulersLoseNothing() throws Exception {
+		HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(1, 0);
+		int threads = 4;
+		int perThread = 20_000;
+		List<Thread> schedulers = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			int offset = t * perThread;
+			Thread thread = new Thread(() -> {
+				for (int i = 0; i < perThread; i++) {
+					wheel.schedule(offset + i, i % 1000);
+				}
+			});
+			schedulers.add(thread);
+			thread.start();
+		}
+		Set<Integer> due = new HashSet<>();
+		long now = 0;
+		for (Thread thread : schedulers) {
+			// advance while the others are still scheduling
+			wheel.advance(now += 10, (item, deadline) -> due.add(item));
+			thread.join();
+		}
+		wheel.advance(1000, (item, deadline) -> due.add(item));
+
+		assertThat(due).hasSize(threads * perThread);
+	}
+}
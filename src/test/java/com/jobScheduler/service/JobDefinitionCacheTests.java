@@ -0,0 +1,83 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.model.Job;
+import com.jobScheduler.model.JobDefinition;
+import com.jobScheduler.repository.JobRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JobDefinitionCacheTests {
+
+	private final JobRepository jobRepository = mock(JobRepository.class);
+	private final JobPayloadStore payloadStore = mock(JobPayloadStore.class);
+	private final JobDefinitionCache cache = new JobDefinitionCache(jobRepository, payloadStore);
+
+	private static Job job(String payload) {
+		Job job = new Job();
+		job.setId("job-1");
+		job.setName("report");
+		job.setAction("PRINT_MESSAGE");
+		job.setPayload(payload);
+		return job;
+	}
+
+	@Test
+	void missesLoadOnceAndNewerRevisionsReload() {
+		Job v1 = job("v1");
+		when(jobRepository.findById("job-1")).thenReturn(Optional.of(v1));
+
+		assertThat(cache.get("job-1", 1).getPayload()).isEqualTo("v1");
+		assertThat(cache.get("job-1", 1).getPayload()).isEqualTo("v1");
+		verify(jobRepository, times(1)).findById("job-1");
+		// an offloaded payload is filled in before the definition is built
+		verify(payloadStore, times(1)).resolve(v1);
+
+		when(jobRepository.findById("job-1")).thenReturn(Optional.of(job("v2")));
+		assertThat(cache.get("job-1", 2).getPayload()).isEqualTo("v2");
+		assertThat(cache.get("job-1", 1).getVersion()).isEqualTo(2);
+		assertThat(cache.get("missing", 1)).isNull();
+		assertThat(cache.size()).isEqualTo(1);
+	}
+
+	@Test
+	void aLoadThatRacesWithAnInvalidationIsNotCached() throws Exception {
+		CountDownLatch reading = new CountDownLatch(1);
+		CountDownLatch saved = new CountDownLatch(1);
+		when(jobRepository.findById("job-1")).thenAnswer(inv -> {
+			reading.countDown();
+			assertThat(saved.await(5, TimeUnit.SECONDS)).isTrue();
+			return Optional.of(job("stale"));
+		}).thenReturn(Optional.of(job("fresh")));
+
+		CompletableFuture<JobDefinition> slowLoad = CompletableFuture.supplyAsync(() -> cache.get("job-1", 1));
+		assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+		// the job is saved while the first read is in flight
+		cache.invalidate("job-1");
+		saved.countDown();
+
+		assertThat(slowLoad.get(5, TimeUnit.SECONDS).getPayload()).isEqualTo("stale");
+		assertThat(cache.get("job-1", 1).getPayload()).isEqualTo("fresh");
+		verify(jobRepository, times(2)).findById("job-1");
+	}
+
+	@Test
+	void putReplacesTheDefinitionAndInvalidateDropsIt() {
+		cache.put(job("scheduled"), 5);
+		assertThat(cache.get("job-1", 5).getPayload()).isEqualTo("scheduled");
+
+		cache.invalidate("job-1");
+		when(jobRepository.findById("job-1")).thenReturn(Optional.of(job("saved")));
+		assertThat(cache.get("job-1", 5).getPayload()).isEqualTo("saved");
+		verify(jobRepository, times(1)).findById("job-1");
+	}
+}
@@ -0,0 +1,186 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.model.Job;
+import com.jobScheduler.model.JobDefinition;
+import com.jobScheduler.model.JobLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JobEventStreamTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	/** Collects what would be written to the client; sends wait on the latch if one is given. */
+	private static final class RecordingEmitter extends SseEmitter {
+		final List<JobEventStream.JobEvent> events = new CopyOnWriteArrayList<>();
+		final CountDownLatch release;
+		volatile boolean completed;
+
+		RecordingEmitter(CountDownLatch release) {
+			this.release = release;
+		}
+
+		@Override
+		public void send(SseEventBuilder builder) {
+			try {
+				if (release != null) release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			for (DataWithMediaType part : builder.build()) {
+				if (part.getData() instanceof JobEventStream.JobEvent event) events.add(event);
+			}
+		}
+
+		@Override
+		public void complete() {
+			completed = true;
+		}
+	}
+
+	private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("timed out").isLessThan(deadline);
+			Thread.sleep(5);
+		}
+	}
+
+	private static JobDefinition job(String id, String action) {
+		Job job = new Job();
+		job.setId(id);
+		job.setName("job " + id);
+		job.setAction(action);
+		return JobDefinition.of(job, 1);
+	}
+
+	private static JobLog log(String status, long durationMs) {
+		JobLog log = new JobLog();
+		log.setStatus(status);
+		log.setMessage("x".repeat(5000));
+		log.setAttempt(1);
+		log.setDurationMs(durationMs);
+		return log;
+	}
+
+	@Test
+	void subscribersGetTheEventsTheirFilterMatchesInOrder() throws Exception {
+		JobEventStream stream = new JobEventStream(registry, 16, 10, 0);
+		RecordingEmitter failures = new RecordingEmitter(null);
+		RecordingEmitter oneJob = new RecordingEmitter(null);
+		stream.subscribe(new JobEventStream.Filter(Set.of(), Set.of(), Set.of(JobEventStream.Type.FAILED)), failures);
+		stream.subscribe(new JobEventStream.Filter(Set.of("job-1"), Set.of("PRINT_MESSAGE"), Set.of()), oneJob);
+
+		stream.fired(job("job-1", "PRINT_MESSAGE"), 1);
+		stream.completed(job("job-1", "PRINT_MESSAGE"), log("SUCCESS", 12));
+		stream.fired(job("job-2", "CALL_API"), 1);
+		stream.completed(job("job-2", "CALL_API"), log("FAILED", 30));
+
+		awaitUntil(() -> oneJob.events.size() == 2 && failures.events.size() == 1);
+		assertThat(oneJob.events).extracting(JobEventStream.JobEvent::type)
+				.containsExactly(JobEventStream.Type.FIRED, JobEventStream.Type.SUCCESS);
+		assertThat(oneJob.events.get(1).durationMs()).isEqualTo(12);
+		assertThat(failures.events).singleElement().satisfies(event -> {
+			assertThat(event.jobId()).isEqualTo("job-2");
+			assertThat(event.message()).hasSize(JobEventStream.MAX_MESSAGE);
+		});
+	}
+
+	@Test
+	void slowSubscribersAreDroppedWithoutHoldingUpTheOthers() throws Exception {
+		JobEventStream stream = new JobEventStream(registry, 4, 10, 0);
+		CountDownLatch release = new CountDownLatch(1);
+		RecordingEmitter slow = new RecordingEmitter(release);
+		RecordingEmitter fast = new RecordingEmitter(null);
+		JobEventStream.Filter all = new JobEventStream.Filter(Set.of(), Set.of(), Set.of());
+		stream.subscribe(all, slow);
+		stream.subscribe(all, fast);
+
+		for (int i = 0; i < 20; i++) {
+			stream.fired(job("job-1", "PRINT_MESSAGE"), i);
+			// the fast client keeps up, so its buffer never fills
+			int sent = i + 1;
+			awaitUntil(() -> fast.events.size() == sent);
+		}
+
+		assertThat(stream.subscriberCount()).isEqualTo(1);
+		assertThat(registry.counter("jobscheduler.events.dropped").count()).isEqualTo(1);
+		release.countDown();
+		awaitUntil(() -> slow.completed);
+		assertThat(fast.completed).isFalse();
+	}
+
+	@Test
+	void refusesSubscribersOverTheLimit() {
+		JobEventStream stream = new JobEventStream(registry, 4, 1, 0);
+		JobEventStream.Filter all = new JobEventStream.Filter(Set.of(), Set.of(), Set.of());
+		stream.subscribe(all, new RecordingEmitter(null));
+
+		assertThatThrownBy(() -> stream.subscribe(all, new RecordingEmitter(null)))
+				.isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void concurrentSubscribersCannotPassTheLimit() throws Exception {
+		JobEventStream stream = new JobEventStream(registry, 4, 5, 0);
+		JobEventStream.Filter all = new JobEventStream.Filter(Set.of(), Set.of(), Set.of());
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger refused = new AtomicInteger();
+		ExecutorService clients = Executors.newFixedThreadPool(16);
+		try {
+			for (int i = 0; i < 64; i++) {
+				clients.execute(() -> {
+					try {
+						start.await();
+						stream.subscribe(all, new RecordingEmitter(null));
+					} catch (IllegalStateException e) {
+						refused.incrementAndGet();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				});
+			}
+			start.countDown();
+		} finally {
+			clients.shutdown();
+			assertThat(clients.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+		}
+
+		assertThat(stream.subscriberCount()).isEqualTo(5);
+		assertThat(refused.get()).isEqualTo(59);
+	}
+
+	@Test
+	void aDroppedSubscriberFreesItsSlot() throws Exception {
+		JobEventStream stream = new JobEventStream(registry, 1, 1, 0);
+		JobEventStream.Filter all = new JobEventStream.Filter(Set.of(), Set.of(), Set.of());
+		CountDownLatch release = new CountDownLatch(1);
+		RecordingEmitter slow = new RecordingEmitter(release);
+		stream.subscribe(all, slow);
+
+		// the sender holds one event and the buffer the next, so publishing soon drops the subscriber
+		for (int i = 0; i < 10 && stream.subscriberCount() > 0; i++) {
+			stream.fired(job("job-1", "PRINT_MESSAGE"), i);
+			Thread.sleep(10);
+		}
+		assertThat(stream.subscriberCount()).isZero();
+
+		stream.subscribe(all, new RecordingEmitter(null));
+		assertThat(stream.subscriberCount()).isEqualTo(1);
+		release.countDown();
+	}
+}
@@ -0,0 +1,156 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.jobs.PrintMessageJob;
+import com.jobScheduler.model.Job;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.JobBuilder;
+import org.quartz.JobKey;
+import org.quartz.ListenerManager;
+import org.quartz.Scheduler;
+import org.quartz.TriggerBuilder;
+import org.quartz.TriggerKey;
+import org.quartz.impl.StdSchedulerFactory;
+import org.quartz.impl.matchers.GroupMatcher;
+
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs against an in-memory scheduler that is never started; the scheduler still notifies its
+ * listeners of every change.
+ */
+class JobKeyIndexTests {
+
+	private Scheduler scheduler;
+	private JobKeyIndex index;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		Properties props = new Properties();
+		props.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, "index-" + UUID.randomUUID());
+		props.setProperty("org.quartz.threadPool.threadCount", "1");
+		scheduler = new StdSchedulerFactory(props).getScheduler();
+		index = new JobKeyIndex(scheduler, "group1", "tenant-", false);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		scheduler.shutdown();
+	}
+
+	private static Job job(String id, String name, String tenant) {
+		Job job = new Job();
+		job.setId(id);
+		job.setName(name);
+		job.setTenant(tenant);
+		return job;
+	}
+
+	private void schedule(Job job) throws Exception {
+		scheduler.scheduleJob(JobBuilder.newJob(PrintMessageJob.class).withIdentity(index.jobKeyFor(job)).build(),
+				Set.of(TriggerBuilder.newTrigger().withIdentity(index.triggerKeyFor(job))
+						.withSchedule(CronScheduleBuilder.cronSchedule("0 0 * * * ?")).build()), true);
+	}
+
+	@Test
+	void jobsWithTheSameNameKeepTheirOwnKeysAndTenantsGetTheirOwnGroups() throws Exception {
+		schedule(job("id-1", "report", null));
+		schedule(job("id-2", "report", null));
+		schedule(job("id-3", "report", "acme"));
+
+		assertThat(scheduler.getJobKeys(GroupMatcher.anyJobGroup())).hasSize(3);
+		assertThat(index.jobKey("id-1")).isEqualTo(new JobKey("id-1", "group1"));
+		assertThat(index.jobKey("id-2")).isEqualTo(new JobKey("id-2", "group1"));
+		assertThat(index.jobKey("id-3")).isEqualTo(new JobKey("id-3", "tenant-acme"));
+		assertThat(index.triggerKey("id-3")).isEqualTo(new TriggerKey("id-3", "tenant-acme"));
+		assertThat(index.size()).isEqualTo(3);
+	}
+
+	@Test
+	void followsPauseResumeAndDelete() throws Exception {
+		schedule(job("id-1", "report", "acme"));
+		assertThat(index.status("id-1")).isEqualTo("SCHEDULED");
+
+		scheduler.pauseJob(index.jobKey("id-1"));
+		assertThat(index.status("id-1")).isEqualTo("PAUSED");
+
+		scheduler.resumeJob(index.jobKey("id-1"));
+		assertThat(index.status("id-1")).isEqualTo("SCHEDULED");
+
+		scheduler.deleteJob(index.jobKey("id-1"));
+		assertThat(index.status("id-1")).isNull();
+		assertThat(index.jobKey("id-1")).isNull();
+		assertThat(index.size()).isZero();
+	}
+
+	@Test
+	void oneShotTriggersDoNotReplaceTheCronTrigger() throws Exception {
+		schedule(job("id-1", "report", null));
+		scheduler.scheduleJob(TriggerBuilder.newTrigger().withIdentity("id-1Retry1", RetryService.RETRY_GROUP)
+				.forJob(index.jobKey("id-1")).build());
+
+		assertThat(index.triggerKey("id-1")).isEqualTo(new TriggerKey("id-1", "group1"));
+	}
+
+	@Test
+	void clusteredLookupsFindJobsScheduledBehindItsBackInTheTenantsGroup() throws Exception {
+		JobKeyIndex clustered = new JobKeyIndex(scheduler, "group1", "tenant-", true);
+		scheduler.getListenerManager().removeSchedulerListener(clustered);
+		schedule(job("id-1", "report", "acme"));
+		scheduler.pauseJob(new JobKey("id-1", "tenant-acme"));
+
+		assertThat(clustered.jobKey("id-1")).isNull();
+		assertThat(clustered.jobKey("id-1", null)).isNull();
+		assertThat(clustered.jobKey("id-1", "acme")).isEqualTo(new JobKey("id-1", "tenant-acme"));
+		assertThat(clustered.status("id-1")).isEqualTo("PAUSED");
+	}
+
+	@Test
+	void rebuildsFromTheStore() throws Exception {
+		scheduler.getListenerManager().removeSchedulerListener(index);
+		schedule(job("id-1", "report", null));
+		schedule(job("id-2", "report", "acme"));
+
+		JobKeyIndex rebuilt = new JobKeyIndex(scheduler, "group1", "tenant-", false);
+		assertThat(rebuilt.size()).isEqualTo(2);
+		assertThat(rebuilt.jobKey("id-2")).isEqualTo(new JobKey("id-2", "tenant-acme"));
+		assertThat(rebuilt.jobKey("unknown")).isNull();
+	}
+
+	@Test
+	void missesOutsideClusteredModeNeverAskTheScheduler() throws Exception {
+		Scheduler store = mock(Scheduler.class);
+		when(store.getListenerManager()).thenReturn(mock(ListenerManager.class));
+		JobKeyIndex local = new JobKeyIndex(store, "group1", "tenant-", false);
+		clearInvocations(store);
+
+		assertThat(local.jobKey("stale")).isNull();
+		assertThat(local.jobKey("stale", "acme")).isNull();
+		assertThat(local.status("stale")).isNull();
+		verifyNoInteractions(store);
+	}
+
+	@Test
+	void clusteredMissesCheckOnlyTheTenantsGroup() throws Exception {
+		Scheduler store = mock(Scheduler.class);
+		when(store.getListenerManager()).thenReturn(mock(ListenerManager.class));
+		JobKeyIndex clustered = new JobKeyIndex(store, "group1", "tenant-", true);
+		clearInvocations(store);
+
+		assertThat(clustered.jobKey("stale", "acme")).isNull();
+		verify(store).checkExists(new JobKey("stale", "tenant-acme"));
+		verifyNoMoreInteractions(store);
+	}
+}
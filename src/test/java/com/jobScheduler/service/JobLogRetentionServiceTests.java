@@ -0,0 +1,53 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.model.JobLog;
+import com.mongodb.client.result.DeleteResult;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JobLogRetentionServiceTests {
+
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+	private final JobLogRetentionService retention = new JobLogRetentionService(mongoTemplate);
+
+	@Test
+	void keepsTheNewestMaxLogsAndDeletesWhatIsOlder() {
+		JobLog boundary = new JobLog();
+		boundary.setTimestamp(LocalDateTime.of(2026, 1, 1, 12, 0));
+		when(mongoTemplate.findOne(any(Query.class), eq(JobLog.class))).thenReturn(boundary);
+		when(mongoTemplate.remove(any(Query.class), eq(JobLog.class))).thenReturn(DeleteResult.acknowledged(40));
+
+		assertThat(retention.prune("job-1", 100)).isEqualTo(40);
+
+		ArgumentCaptor<Query> find = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).findOne(find.capture(), eq(JobLog.class));
+		// the 100th newest log is the oldest one kept
+		assertThat(find.getValue().getSkip()).isEqualTo(99);
+		assertThat(find.getValue().getLimit()).isEqualTo(1);
+		assertThat(find.getValue().getSortObject()).containsEntry("timestamp", -1);
+		ArgumentCaptor<Query> remove = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).remove(remove.capture(), eq(JobLog.class));
+		assertThat(remove.getValue().getQueryObject()).containsEntry("jobId", "job-1")
+				.containsEntry("timestamp", new Document("$lt", boundary.getTimestamp()));
+	}
+
+	@Test
+	void jobsWithFewerLogsThanTheCapAreLeftAlone() {
+		assertThat(retention.prune("job-1", 100)).isZero();
+
+		verify(mongoTemplate, never()).remove(any(Query.class), eq(JobLog.class));
+	}
+}
@@ -0,0 +1,293 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.model.Job;
+import com.mongodb.client.gridfs.GridFSFindIterable;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonObjectId;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * GridFS is stood in for by a map of file name to stored bytes and the time the file was last
+ * referenced; the jobs collection by the sets the sweep reads.
+ */
+class JobPayloadStoreTests {
+
+	private static final class StoredFile {
+		final ObjectId id = new ObjectId();
+		final byte[] bytes;
+		Date referencedAt = new Date();
+
+		StoredFile(byte[] bytes) {
+			this.bytes = bytes;
+		}
+
+		GridFSFile file(String name) {
+			return new GridFSFile(new BsonObjectId(id), name, bytes.length, 255 * 1024, new Date(),
+					new Document("referencedAt", referencedAt));
+		}
+	}
+
+	private final Map<String, StoredFile> files = new LinkedHashMap<>();
+	private final Set<String> distinctRefs = new HashSet<>();
+	private final Set<String> referencedNow = new HashSet<>();
+	private final GridFsTemplate gridFs = gridFs();
+	private final MongoTemplate mongoTemplate = mongoTemplate();
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private GridFsTemplate gridFs() {
+		GridFsTemplate gridFs = mock(GridFsTemplate.class);
+		when(gridFs.store(any(InputStream.class), anyString(), anyString(), any(Document.class))).thenAnswer(inv -> {
+			files.put(inv.getArgument(1), new StoredFile(inv.getArgument(0, InputStream.class).readAllBytes()));
+			return null;
+		});
+		when(gridFs.find(any(Query.class))).thenAnswer(inv -> {
+			Document query = inv.getArgument(0, Query.class).getQueryObject();
+			List<GridFSFile> found = new ArrayList<>();
+			if (query.containsKey("filename")) {
+				Collection<?> names = query.get("filename", Document.class).get("$in", Collection.class);
+				names.stream().filter(files::containsKey).forEach(name -> found.add(files.get(name).file((String) name)));
+			} else {
+				Date cutoff = query.get(JobPayloadStore.REFERENCED_AT, Document.class).getDate("$lt");
+				files.forEach((name, file) -> {
+					if (file.referencedAt.before(cutoff)) found.add(file.file(name));
+				});
+			}
+			GridFSFindIterable iterable = mock(GridFSFindIterable.class);
+			when(iterable.into(any())).thenAnswer(into -> {
+				into.<Collection<GridFSFile>>getArgument(0).addAll(found);
+				return into.getArgument(0);
+			});
+			return iterable;
+		});
+		when(gridFs.getResource(any(GridFSFile.class))).thenAnswer(inv -> {
+			GridFSFile file = inv.getArgument(0);
+			return new GridFsResource(file, new ByteArrayInputStream(files.get(file.getFilename()).bytes));
+		});
+		// deletes by id, and only while the file is still unreferenced since the cutoff
+		doAnswer(inv -> {
+			List<?> and = inv.getArgument(0, Query.class).getQueryObject().getList("$and", Document.class);
+			Object id = ((Document) and.get(0)).get("_id");
+			Date cutoff = ((Document) and.get(1)).get(JobPayloadStore.REFERENCED_AT, Document.class).getDate("$lt");
+			files.values().removeIf(file -> file.id.equals(id) && file.referencedAt.before(cutoff));
+			return null;
+		}).when(gridFs).delete(any(Query.class));
+		return gridFs;
+	}
+
+	private MongoTemplate mongoTemplate() {
+		MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+		when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq("fs.files"))).thenAnswer(inv -> {
+			StoredFile file = files.get(inv.getArgument(0, Query.class).getQueryObject().getString("filename"));
+			if (file != null) file.referencedAt = new Date();
+			return UpdateResult.acknowledged(file == null ? 0 : 1, file == null ? 0L : 1L, null);
+		});
+		when(mongoTemplate.findDistinct(any(Query.class), eq("payloadRef"), eq(Job.class), eq(String.class)))
+				.thenAnswer(inv -> List.copyOf(distinctRefs));
+		when(mongoTemplate.exists(any(Query.class), eq(Job.class)))
+				.thenAnswer(inv -> referencedNow.contains(inv.getArgument(0, Query.class).getQueryObject().getString("payloadRef")));
+		return mongoTemplate;
+	}
+
+	private JobPayloadStore store() {
+		return store(1 << 20);
+	}
+
+	private JobPayloadStore store(long cacheBytes) {
+		return new JobPayloadStore(gridFs, mongoTemplate, registry, "fs", 1024, cacheBytes);
+	}
+
+	private static Job job(String payload) {
+		Job job = new Job();
+		job.setId("job-1");
+		job.setPayload(payload);
+		return job;
+	}
+
+	private static Job stored(String ref) {
+		Job job = new Job();
+		job.setPayloadRef(ref);
+		return job;
+	}
+
+	private static Document saved(JobPayloadStore store, Job job) {
+		store.offload(job);
+		Document document = new Document("_id", job.getId()).append("payload", job.getPayload());
+		if (job.getPayloadRef() != null) document.append("payloadRef", job.getPayloadRef());
+		store.onBeforeSave(new BeforeSaveEvent<>(job, document, "jobs"));
+		return document;
+	}
+
+	private static String ref(String payload) {
+		return JobPayloadStore.hash(payload.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private void age(String ref, long hours) {
+		files.get(ref).referencedAt = new Date(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(hours));
+	}
+
+	@Test
+	void largePayloadsAreStoredCompressedOnceAndReferencedByHash() {
+		JobPayloadStore store = store();
+		String payload = "{\"rows\": [" + "\"a fairly repetitive row\", ".repeat(2000) + "]}";
+
+		Document document = saved(store, job(payload));
+		String ref = document.getString("payloadRef");
+		assertThat(document).doesNotContainKey("payload");
+		assertThat(ref).isEqualTo(ref(payload));
+		assertThat(files.get(ref).bytes.length).isLessThan(payload.length() / 10);
+
+		// saving the same payload again, from any job, uploads nothing
+		saved(store, job(payload));
+		verify(gridFs, times(1)).store(any(InputStream.class), anyString(), anyString(), any(Document.class));
+
+		Job shrunk = job("hello");
+		shrunk.setPayloadRef(ref);
+		Document small = saved(store, shrunk);
+		assertThat(small.getString("payload")).isEqualTo("hello");
+		assertThat(small).doesNotContainKey("payloadRef");
+	}
+
+	@Test
+	void aJobReadWithoutItsPayloadKeepsItsReference() {
+		Job unresolved = stored("abc");
+
+		Document document = saved(store(), unresolved);
+
+		assertThat(document.getString("payloadRef")).isEqualTo("abc");
+		verify(mongoTemplate, never()).updateFirst(any(Query.class), any(UpdateDefinition.class), anyString());
+	}
+
+	@Test
+	void readsNeverTouchGridFsAndResolvingFetchesTheMissingPayloadsInOneQuery() {
+		String first = "x".repeat(5000);
+		String second = "y".repeat(5000);
+		JobPayloadStore writer = store();
+		saved(writer, job(first));
+		saved(writer, job(second));
+		JobPayloadStore reader = store();
+
+		List<Job> loaded = List.of(stored(ref(first)), stored(ref(second)), stored(ref(first)), job("inline"));
+		loaded.forEach(job -> reader.onAfterConvert(new AfterConvertEvent<>(new Document(), job, "jobs")));
+		assertThat(loaded.get(0).getPayload()).isNull();
+		verify(gridFs, never()).find(any(Query.class));
+
+		reader.resolve(loaded);
+		assertThat(loaded).extracting(Job::getPayload).containsExactly(first, second, first, "inline");
+		verify(gridFs, times(1)).find(any(Query.class));
+		assertThat(registry.counter("jobscheduler.payload.fetched").count()).isEqualTo(2);
+
+		// now cached, so conversion alone fills them in
+		Job again = stored(ref(second));
+		reader.onAfterConvert(new AfterConvertEvent<>(new Document(), again, "jobs"));
+		assertThat(again.getPayload()).isEqualTo(second);
+	}
+
+	@Test
+	void streamsAreResolvedInBatches() {
+		String payload = "z".repeat(5000);
+		saved(store(), job(payload));
+		JobPayloadStore reader = store();
+
+		List<Job> jobs;
+		try (Stream<Job> resolved = reader.resolve(Stream.generate(() -> stored(ref(payload))).limit(150))) {
+			jobs = resolved.toList();
+		}
+
+		assertThat(jobs).hasSize(150).allSatisfy(job -> assertThat(job.getPayload()).isEqualTo(payload));
+		// the first batch fetches it; later batches find it cached
+		verify(gridFs, times(1)).find(any(Query.class));
+	}
+
+	@Test
+	void aSaveStoresThePayloadAgainWhenItWasSweptWhileCached() {
+		JobPayloadStore store = store();
+		String payload = "x".repeat(5000);
+		saved(store, job(payload));
+
+		// another node's sweep removed the file; this node still caches the payload
+		files.clear();
+		saved(store, job(payload));
+
+		assertThat(files).containsKey(ref(payload));
+		verify(gridFs, times(2)).store(any(InputStream.class), anyString(), anyString(), any(Document.class));
+	}
+
+	@Test
+	void sweepRemovesOnlyFilesNoJobRefersToOrHasJustReferenced() {
+		JobPayloadStore store = store();
+		String kept = "k".repeat(5000);
+		String savedMeanwhile = "s".repeat(5000);
+		String orphan = "o".repeat(5000);
+		String fresh = "f".repeat(5000);
+		String raced = "r".repeat(5000);
+		for (String payload : List.of(kept, savedMeanwhile, orphan, fresh, raced)) saved(store, job(payload));
+		for (String payload : List.of(kept, savedMeanwhile, orphan, raced)) age(ref(payload), 2);
+		distinctRefs.add(ref(kept));
+		// written after the distinct read
+		referencedNow.add(ref(savedMeanwhile));
+		// a save marks this one between the sweep's reads and its delete
+		doAnswer(inv -> {
+			String ref = inv.getArgument(0, Query.class).getQueryObject().getString("payloadRef");
+			if (ref.equals(ref(raced))) saved(store, job(raced));
+			return referencedNow.contains(ref);
+		}).when(mongoTemplate).exists(any(Query.class), eq(Job.class));
+
+		store.sweep();
+
+		assertThat(files.keySet()).containsExactlyInAnyOrder(ref(kept), ref(savedMeanwhile), ref(fresh), ref(raced));
+	}
+
+	@Test
+	void theCacheIsBoundedByUtf8Bytes() {
+		// 1000 chars but 2000 bytes each, so only one fits in 3000 bytes
+		String first = "é".repeat(1000);
+		String second = "ü".repeat(1000);
+		JobPayloadStore store = store(3000);
+		saved(store, job(first));
+		saved(store, job(second));
+
+		Job evicted = stored(ref(first));
+		Job cached = stored(ref(second));
+		store.resolve(List.of(evicted, cached));
+
+		assertThat(evicted.getPayload()).isEqualTo(first);
+		assertThat(cached.getPayload()).isEqualTo(second);
+		assertThat(registry.counter("jobscheduler.payload.fetched").count()).isEqualTo(1);
+	}
+}
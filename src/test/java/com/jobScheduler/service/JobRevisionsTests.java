@@ -0,0 +1,51 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.model.JobRevision;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JobRevisionsTests {
+
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+	private final JobRevisions revisions = new JobRevisions(mongoTemplate);
+
+	@Test
+	void nextIncrementsTheCounterInMongo() {
+		when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class), any(FindAndModifyOptions.class), eq(JobRevision.class)))
+				.thenReturn(new JobRevision("job-1", 4));
+
+		assertThat(revisions.next("job-1")).isEqualTo(4);
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		ArgumentCaptor<UpdateDefinition> update = ArgumentCaptor.forClass(UpdateDefinition.class);
+		ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+		verify(mongoTemplate).findAndModify(query.capture(), update.capture(), options.capture(), eq(JobRevision.class));
+		assertThat(query.getValue().getQueryObject()).containsEntry("_id", "job-1");
+		assertThat(update.getValue().getUpdateObject()).containsEntry("$inc", new Document("revision", 1));
+		assertThat(options.getValue().isUpsert()).isTrue();
+		assertThat(options.getValue().isReturnNew()).isTrue();
+	}
+
+	@Test
+	void jobsWithoutACounterAreAtRevisionZero() {
+		when(mongoTemplate.find(any(Query.class), eq(JobRevision.class))).thenReturn(List.of(new JobRevision("job-1", 2)));
+
+		assertThat(revisions.current(List.of("job-1", "job-2"))).containsOnly(entry("job-1", 2L));
+		assertThat(revisions.current(List.of())).isEmpty();
+	}
+}
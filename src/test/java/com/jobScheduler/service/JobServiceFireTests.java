@@ -0,0 +1,239 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.actions.ActionFailedException;
+import com.jobScheduler.actions.ExecutionKind;
+import com.jobScheduler.actions.JobActionHandler;
+import com.jobScheduler.actions.JobActionRegistry;
+import com.jobScheduler.jobs.SerialPrintMessageJob;
+import com.jobScheduler.model.Job;
+import com.jobScheduler.model.JobAction;
+import com.jobScheduler.model.JobDefinition;
+import com.jobScheduler.model.JobLog;
+import com.jobScheduler.repository.JobLogRepository;
+import com.jobScheduler.repository.JobRepository;
+import com.jobScheduler.utils.CronExpressionCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.Trigger;
+import org.quartz.impl.triggers.CronTriggerImpl;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TimeZone;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JobServiceFireTests {
+
+	private final List<JobLog> logs = new CopyOnWriteArrayList<>();
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final RetryService retryService = mock(RetryService.class);
+
+	private final TriggerEngine triggerEngine = mock(TriggerEngine.class);
+	private final JobKeyIndex jobKeyIndex = mock(JobKeyIndex.class);
+	private final JobRepository jobRepository = mock(JobRepository.class);
+	private final JobRevisions jobRevisions = mock(JobRevisions.class);
+
+	private JobService jobService(JobActionHandler handler) {
+		return jobService(handler, handler.getAction().name());
+	}
+
+	private JobService jobService(JobActionHandler handler, String storedAction) {
+		Job job = new Job();
+		job.setId("job-1");
+		job.setName("nightly");
+		job.setAction(storedAction);
+		when(jobRepository.findById(anyString())).thenReturn(Optional.of(job));
+		return new JobService(triggerEngine, jobRepository, mock(JobLogRepository.class), logs::add,
+				new JobDefinitionCache(jobRepository, mock(JobPayloadStore.class)), new JobActionRegistry(List.of(handler)), mock(MongoTemplate.class),
+				new FireMetrics(registry), retryService, jobKeyIndex,
+				new JobStatsService(mock(MongoTemplate.class), registry, 48, 90),
+				new JobEventStream(registry, 256, 100, 0), new CronExpressionCache(16), jobRevisions, mock(JobPayloadStore.class), 0, 0, true, 16 * 1024 * 1024);
+	}
+
+	private static JobActionHandler handler(JobAction action, String message, RuntimeException failure) {
+		return new JobActionHandler() {
+			@Override
+			public JobAction getAction() {
+				return action;
+			}
+
+			@Override
+			public ExecutionKind getExecutionKind() {
+				return ExecutionKind.CPU_BOUND;
+			}
+
+			@Override
+			public String execute(JobDefinition job) throws Exception {
+				Thread.sleep(20);
+				if (failure != null) throw failure;
+				return message;
+			}
+		};
+	}
+
+	@Test
+	void successfulFireFillsTheLogAndCountsSuccess() {
+		jobService(handler(JobAction.SEND_EMAIL, "sent", null)).doSomething("job-1").join();
+
+		assertThat(logs).singleElement().satisfies(log -> {
+			assertThat(log.getStatus()).isEqualTo("SUCCESS");
+			assertThat(log.getJobName()).isEqualTo("nightly");
+			assertThat(log.getMessage()).isEqualTo("sent");
+			assertThat(log.getAttempt()).isEqualTo(1);
+			assertThat(log.getDurationMs()).isGreaterThanOrEqualTo(20);
+		});
+		assertThat(registry.counter("jobscheduler.fire.succeeded", "action", "SEND_EMAIL").count()).isEqualTo(1);
+		assertThat(registry.timer("jobscheduler.fire.duration", "action", "SEND_EMAIL").count()).isEqualTo(1);
+	}
+
+	@Test
+	void failedActionIsLoggedAsFailedAndCounted() {
+		JobService service = jobService(handler(JobAction.CALL_API, null, new ActionFailedException("API call failed: HTTP 503")));
+
+		assertThatThrownBy(() -> service.doSomething("job-1", 0, 2).join()).isInstanceOf(CompletionException.class);
+		assertThat(logs).singleElement().satisfies(log -> {
+			assertThat(log.getStatus()).isEqualTo("FAILED");
+			assertThat(log.getMessage()).contains("HTTP 503");
+			assertThat(log.getAttempt()).isEqualTo(2);
+		});
+		verify(retryService).onFailure(any(JobDefinition.class), eq(2), any(ActionFailedException.class), any());
+		assertThat(registry.counter("jobscheduler.fire.failed", "action", "CALL_API").count()).isEqualTo(1);
+		assertThat(registry.counter("jobscheduler.fire.succeeded", "action", "CALL_API").count()).isZero();
+	}
+
+	@Test
+	void storedJobWithAnUnknownActionFailsOnceAndIsPaused() throws Exception {
+		JobKey key = new JobKey("job-1", "group1");
+		when(jobKeyIndex.jobKey("job-1")).thenReturn(key);
+		when(triggerEngine.checkExists(key)).thenReturn(true);
+		JobService service = jobService(handler(JobAction.SEND_EMAIL, "sent", null), "FAX");
+
+		JobDefinition job = service.definition("job-1", 1);
+		assertThat(job.getAction()).isNull();
+		assertThat(service.definition("job-1", 1)).isSameAs(job);
+		assertThatThrownBy(() -> service.doSomething(job, 1, Map.of()).join()).isInstanceOf(CompletionException.class);
+
+		verify(jobRepository, times(1)).findById("job-1");
+		verify(triggerEngine).pauseJob(key);
+		assertThat(logs).singleElement().satisfies(log -> {
+			assertThat(log.getStatus()).isEqualTo("FAILED");
+			assertThat(log.getMessage()).contains("Unknown job action");
+		});
+		verify(retryService, never()).onFailure(any(), anyInt(), any(), any());
+	}
+
+	@Test
+	void jobsThatMustNotOverlapGetTheSerialQuartzJob() {
+		JobService service = jobService(handler(JobAction.COUNTDOWN, "tick", null));
+		Job job = new Job();
+		job.setId("job-2");
+		job.setName("countdown");
+		job.setCronExpression("0/5 * * * * ?");
+		job.setAction("COUNTDOWN");
+
+		assertThat(service.buildSchedule(job, 1).jobDetail().isConcurrentExectionDisallowed()).isFalse();
+		job.setAllowConcurrent(false);
+		assertThat(service.buildSchedule(job, 1).jobDetail().getJobClass()).isEqualTo(SerialPrintMessageJob.class);
+		assertThat(service.buildSchedule(job, 1).jobDetail().isConcurrentExectionDisallowed()).isTrue();
+	}
+
+	@Test
+	void negativeFailureThresholdIsRejected() {
+		JobService service = jobService(handler(JobAction.COUNTDOWN, "tick", null));
+		Job job = new Job();
+		job.setId("job-2");
+		job.setName("countdown");
+		job.setCronExpression("0/5 * * * * ?");
+		job.setAction("COUNTDOWN");
+		job.setFailureThreshold(-1);
+
+		assertThatThrownBy(() -> service.buildSchedule(job, 1))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageContaining("failureThreshold");
+		job.setFailureThreshold(0);
+		assertThat(service.buildSchedule(job, 1)).isNotNull();
+	}
+
+	@Test
+	void schedulingAndSavingAScheduledJobStampANewRevisionFromMongo() throws Exception {
+		JobKey key = new JobKey("job-1", "group1");
+		when(jobKeyIndex.jobKey("job-1")).thenReturn(key);
+		when(jobKeyIndex.jobKey(eq("job-1"), any())).thenReturn(key);
+		when(jobKeyIndex.jobKeyFor(any(Job.class))).thenReturn(key);
+		when(triggerEngine.checkExists(key)).thenReturn(true);
+		when(jobRevisions.next("job-1")).thenReturn(3L, 4L);
+		JobService service = jobService(handler(JobAction.COUNTDOWN, "tick", null));
+		Job job = new Job();
+		job.setId("job-1");
+		job.setName("countdown");
+		job.setCronExpression("0/5 * * * * ?");
+		job.setAction("COUNTDOWN");
+		when(jobRepository.save(job)).thenReturn(job);
+
+		service.scheduleJob(job);
+		ArgumentCaptor<JobDetail> scheduled = ArgumentCaptor.forClass(JobDetail.class);
+		verify(triggerEngine).scheduleJob(scheduled.capture(), any(Trigger.class));
+		assertThat(scheduled.getValue().getJobDataMap().getString("revision")).isEqualTo("3");
+
+		// a save reaches fires on every node through the job data, not just this node's cache
+		service.saveJob(job);
+		verify(triggerEngine).setRevision(key, 4);
+
+		Job unsaved = new Job();
+		when(jobRepository.save(unsaved)).thenAnswer(inv -> {
+			unsaved.setId("job-9");
+			return unsaved;
+		});
+		service.saveJob(unsaved);
+		verify(jobRevisions, never()).next("job-9");
+	}
+
+	@Test
+	void triggersGetTheirOwnCopyOfTheCachedCronExpression() {
+		JobService service = jobService(handler(JobAction.COUNTDOWN, "tick", null));
+		Job job = new Job();
+		job.setId("job-2");
+		job.setName("countdown");
+		job.setCronExpression("0 0 9 * * ?");
+		job.setTimeZone("UTC");
+		job.setAction("COUNTDOWN");
+
+		CronTriggerImpl trigger = (CronTriggerImpl) service.buildSchedule(job, 1).trigger();
+		trigger.setTimeZone(TimeZone.getTimeZone("Asia/Tokyo"));
+
+		assertThat(service.compileCron("0 0 9 * * ?", TimeZone.getTimeZone("UTC")).getTimeZone().getID()).isEqualTo("UTC");
+	}
+
+	@Test
+	void jitterOffsetIsStablePerJobAndSpreadsJobsOverTheWindow() {
+		assertThat(JobService.jitterOffset("job-1", 30_000)).isEqualTo(JobService.jitterOffset("job-1", 30_000));
+		assertThat(JobService.jitterOffset("job-1", 0)).isZero();
+
+		int[] perSecond = new int[30];
+		for (int i = 0; i < 30_000; i++) {
+			long offset = JobService.jitterOffset("job-" + i, 30_000);
+			assertThat(offset).isBetween(0L, 29_999L);
+			perSecond[(int) (offset / 1000)]++;
+		}
+		for (int count : perSecond) {
+			assertThat(count).isBetween(800, 1200);
+		}
+	}
+}
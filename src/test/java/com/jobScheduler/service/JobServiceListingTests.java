@@ -0,0 +1,91 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.actions.JobActionRegistry;
+import com.jobScheduler.model.Job;
+import com.jobScheduler.repository.JobLogRepository;
+import com.jobScheduler.repository.JobRepository;
+import com.jobScheduler.utils.CronExpressionCache;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JobServiceListingTests {
+
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+	private final JobService jobService = new JobService(mock(TriggerEngine.class), mock(JobRepository.class),
+			mock(JobLogRepository.class), log -> { }, mock(JobDefinitionCache.class), mock(JobActionRegistry.class), mongoTemplate,
+			mock(FireMetrics.class), mock(RetryService.class), mock(JobKeyIndex.class), mock(JobStatsService.class),
+			mock(JobEventStream.class), new CronExpressionCache(16), mock(JobRevisions.class), mock(JobPayloadStore.class), 0, 0, true, 16 * 1024 * 1024);
+
+	private static List<Job> jobs(int count) {
+		return IntStream.range(0, count).mapToObj(i -> {
+			Job job = new Job();
+			job.setId(String.format("job-%03d", i));
+			return job;
+		}).toList();
+	}
+
+	private Query listedWith(int limit, List<String> fields) {
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		jobService.listJobs("SCHEDULED", null, null, "job-041", limit, fields);
+		verify(mongoTemplate).find(query.capture(), eq(Job.class));
+		return query.getValue();
+	}
+
+	@Test
+	void listingsAreProjectedToSummaryFieldsByDefault() {
+		Document projection = listedWith(100, null).getFieldsObject();
+
+		assertThat(projection.keySet()).containsExactlyInAnyOrderElementsOf(JobService.SUMMARY_FIELDS);
+	}
+
+	@Test
+	void callersChooseFieldsAndPayloadBringsItsReference() {
+		assertThat(listedWith(100, List.of("name", "payload")).getFieldsObject().keySet())
+				.containsExactlyInAnyOrder("name", "payload", "payloadRef");
+	}
+
+	@Test
+	void starReturnsWholeDocuments() {
+		assertThat(listedWith(100, List.of("*")).getFieldsObject()).isEmpty();
+	}
+
+	@Test
+	void pagesReadOneRowAheadAndFollowTheCursor() {
+		Query query = listedWith(100, null);
+
+		assertThat(query.getLimit()).isEqualTo(101);
+		assertThat(query.getQueryObject().toJson()).contains("{\"_id\": {\"$gt\": \"job-041\"}}");
+		assertThat(query.getSortObject()).containsEntry("_id", 1);
+	}
+
+	@Test
+	void nextCursorIsTheLastIdOfAFullPage() {
+		when(mongoTemplate.find(any(Query.class), eq(Job.class))).thenReturn(jobs(101));
+		JobService.JobPage full = jobService.listJobs(null, null, null, null, 100, null);
+		assertThat(full.jobs()).hasSize(100);
+		assertThat(full.nextCursor()).isEqualTo("job-099");
+
+		when(mongoTemplate.find(any(Query.class), eq(Job.class))).thenReturn(jobs(7));
+		JobService.JobPage last = jobService.listJobs(null, null, null, null, 100, null);
+		assertThat(last.jobs()).hasSize(7);
+		assertThat(last.nextCursor()).isNull();
+	}
+
+	@Test
+	void pageSizeIsCapped() {
+		assertThat(listedWith(1_000_000, null).getLimit()).isEqualTo(1001);
+	}
+}
@@ -0,0 +1,102 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.actions.JobActionRegistry;
+import com.jobScheduler.model.Job;
+import com.jobScheduler.model.JobDefinition;
+import com.jobScheduler.model.JobLog;
+import com.jobScheduler.repository.JobLogRepository;
+import com.jobScheduler.repository.JobRepository;
+import com.jobScheduler.utils.CronExpressionCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JobServiceLogsTests {
+
+	private static final LocalDateTime NOON = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+	private final JobLogRepository jobLogRepository = mock(JobLogRepository.class);
+	private final List<JobLog> written = new ArrayList<>();
+
+	private JobService jobService(int defaultRetentionDays) {
+		return new JobService(mock(TriggerEngine.class), mock(JobRepository.class), jobLogRepository, written::add,
+				mock(JobDefinitionCache.class), mock(JobActionRegistry.class), mock(MongoTemplate.class), mock(FireMetrics.class),
+				mock(RetryService.class), mock(JobKeyIndex.class), mock(JobStatsService.class), mock(JobEventStream.class),
+				new CronExpressionCache(16), mock(JobRevisions.class), mock(JobPayloadStore.class), defaultRetentionDays, 0, true, 16 * 1024 * 1024);
+	}
+
+	private static JobLog log(int minute) {
+		JobLog log = new JobLog();
+		log.setTimestamp(NOON.plusMinutes(minute));
+		return log;
+	}
+
+	private static JobDefinition job(Integer logRetentionDays) {
+		Job job = new Job();
+		job.setId("job-1");
+		job.setName("nightly");
+		job.setAction("PRINT_MESSAGE");
+		job.setLogRetentionDays(logRetentionDays);
+		return JobDefinition.of(job, 1);
+	}
+
+	@Test
+	void newestPageIsBoundedAndCapped() {
+		JobService service = jobService(0);
+
+		service.getJobLogs("job-1", 50, null, null);
+		service.getJobLogs("job-1", 1_000_000, null, null);
+		service.getJobLogs("job-1", 0, null, null);
+
+		verify(jobLogRepository).findByJobIdOrderByTimestampDesc("job-1", PageRequest.of(0, 50));
+		verify(jobLogRepository).findByJobIdOrderByTimestampDesc("job-1", PageRequest.of(0, 1000));
+		verify(jobLogRepository).findByJobIdOrderByTimestampDesc("job-1", PageRequest.of(0, 1));
+	}
+
+	@Test
+	void cursorsPickTheMatchingRangeQuery() {
+		JobService service = jobService(0);
+		LocalDateTime before = NOON.plusHours(1);
+
+		service.getJobLogs("job-1", 10, before, null);
+		service.getJobLogs("job-1", 10, before, NOON);
+
+		verify(jobLogRepository).findByJobIdAndTimestampBeforeOrderByTimestampDesc("job-1", before, PageRequest.of(0, 10));
+		verify(jobLogRepository).findByJobIdAndTimestampBetweenOrderByTimestampDesc("job-1", NOON, before, PageRequest.of(0, 10));
+	}
+
+	@Test
+	void pageAfterACursorIsTheOldestLogsAfterItNewestFirst() {
+		when(jobLogRepository.findByJobIdAndTimestampAfterOrderByTimestampAsc("job-1", NOON, PageRequest.of(0, 3)))
+				.thenReturn(List.of(log(1), log(2), log(3)));
+
+		List<JobLog> page = jobService(0).getJobLogs("job-1", 3, null, NOON);
+
+		assertThat(page).extracting(JobLog::getTimestamp)
+				.containsExactly(NOON.plusMinutes(3), NOON.plusMinutes(2), NOON.plusMinutes(1));
+	}
+
+	@Test
+	void logsExpireAfterTheJobsRetentionOrTheDefault() {
+		long now = System.currentTimeMillis();
+		jobService(30).shed(job(null), 1, Map.of(), "full");
+		jobService(30).shed(job(2), 1, Map.of(), "full");
+		jobService(0).shed(job(null), 1, Map.of(), "full");
+
+		assertThat(written.get(0).getExpireAt().getTime()).isCloseTo(now + TimeUnit.DAYS.toMillis(30), within(60_000L));
+		assertThat(written.get(1).getExpireAt().getTime()).isCloseTo(now + TimeUnit.DAYS.toMillis(2), within(60_000L));
+		assertThat(written.get(2).getExpireAt()).isNull();
+	}
+}
@@ -0,0 +1,85 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.actions.JobActionRegistry;
+import com.jobScheduler.actions.PrintMessageHandler;
+import com.jobScheduler.actions.PrintMessageSink;
+import com.jobScheduler.actions.SendEmailHandler;
+import com.jobScheduler.model.Job;
+import com.jobScheduler.repository.JobLogRepository;
+import com.jobScheduler.repository.JobRepository;
+import com.jobScheduler.utils.CronExpressionCache;
+import org.junit.jupiter.api.Test;
+import org.quartz.JobDetail;
+import org.quartz.Trigger;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class JobServiceValidationTests {
+
+	private final TriggerEngine triggerEngine = mock(TriggerEngine.class);
+	private final JobRepository jobRepository = mock(JobRepository.class);
+	private final JobPayloadStore payloadStore = mock(JobPayloadStore.class);
+	private final JobService jobService = new JobService(triggerEngine, jobRepository, mock(JobLogRepository.class), log -> { },
+			mock(JobDefinitionCache.class),
+			new JobActionRegistry(List.of(new PrintMessageHandler(PrintMessageSink.NONE, null, null), new SendEmailHandler())),
+			mock(MongoTemplate.class), mock(FireMetrics.class), mock(RetryService.class),
+			mock(JobKeyIndex.class), mock(JobStatsService.class), mock(JobEventStream.class),
+			new CronExpressionCache(16), mock(JobRevisions.class), payloadStore, 0, 0, true, 64);
+
+	private static Job job(String action, String payload) {
+		Job job = new Job();
+		job.setId("job-1");
+		job.setName("report");
+		job.setCronExpression("0 * * * * ?");
+		job.setAction(action);
+		job.setPayload(payload);
+		return job;
+	}
+
+	@Test
+	void payloadsAreLimitedInUtf8Bytes() {
+		assertThatCode(() -> jobService.validatePayload(job("PRINT_MESSAGE", "x".repeat(64)))).doesNotThrowAnyException();
+		assertThatThrownBy(() -> jobService.validatePayload(job("PRINT_MESSAGE", "x".repeat(65))))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("64 bytes");
+		// 40 chars, 80 bytes
+		assertThatThrownBy(() -> jobService.validatePayload(job("PRINT_MESSAGE", "é".repeat(40))))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void eachActionChecksItsOwnPayload() {
+		assertThatCode(() -> jobService.validatePayload(job("SEND_EMAIL", "ops@example.com"))).doesNotThrowAnyException();
+		assertThatThrownBy(() -> jobService.validatePayload(job("SEND_EMAIL", "ops")))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("SEND_EMAIL");
+	}
+
+	@Test
+	void aRejectedPayloadIsNeitherScheduledNorSaved() throws Exception {
+		assertThatThrownBy(() -> jobService.scheduleJob(job("SEND_EMAIL", "ops"))).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> jobService.saveJob(job("SEND_EMAIL", "x".repeat(65)))).isInstanceOf(IllegalArgumentException.class);
+
+		verify(triggerEngine, never()).scheduleJob(any(JobDetail.class), any(Trigger.class));
+		verify(payloadStore, never()).offload(any(Job.class));
+		verify(jobRepository, never()).save(any(Job.class));
+	}
+
+	@Test
+	void buildingAScheduleLeavesThePayloadAloneSoRehydrationKeepsStoredJobs() {
+		// stored before the rules tightened
+		JobService.QuartzSchedule schedule = jobService.buildSchedule(job("SEND_EMAIL", "ops"), 3);
+
+		assertThat(schedule.revision()).isEqualTo(3);
+		assertThat(schedule.jobDetail().getJobDataMap().getString("action")).isEqualTo("SEND_EMAIL");
+	}
+}
@@ -0,0 +1,111 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.model.JobAction;
+import com.jobScheduler.model.JobStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JobStatsServiceTests {
+
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+	private final BulkOperations bulk = mock(BulkOperations.class);
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final JobStatsService stats = new JobStatsService(mongoTemplate, registry, 48, 90);
+
+	@Test
+	void flushWritesOneIncUpsertPerBucketAndScope() {
+		Map<String, Document> upserts = new HashMap<>();
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, JobStats.class)).thenReturn(bulk);
+		doAnswer(inv -> {
+			upserts.put(((Query) inv.getArgument(0)).getQueryObject().getString("_id"), ((Update) inv.getArgument(1)).getUpdateObject());
+			return bulk;
+		}).when(bulk).upsert(any(Query.class), any(Update.class));
+
+		stats.recordExecution("job-1", JobAction.CALL_API, 40, true);
+		stats.recordExecution("job-1", JobAction.CALL_API, 700, false);
+		stats.recordShed("job-1", JobAction.CALL_API);
+		stats.flush();
+
+		// minute, hour and total buckets for the job and for its action
+		assertThat(upserts).hasSize(6);
+		assertThat(upserts.keySet()).filteredOn(id -> id.startsWith("JOB:job-1:")).hasSize(3);
+		assertThat(upserts).containsKey("ACTION:CALL_API:TOTAL:0");
+		Document total = upserts.get("JOB:job-1:TOTAL:0");
+		Document inc = total.get("$inc", Document.class);
+		assertThat(inc.get("executions")).isEqualTo(2L);
+		assertThat(inc.get("failures")).isEqualTo(1L);
+		assertThat(inc.get("shed")).isEqualTo(1L);
+		assertThat(inc.get("totalDurationMs")).isEqualTo(740L);
+		assertThat(inc.get("durations.le50ms")).isEqualTo(1L);
+		assertThat(inc.get("durations.le1000ms")).isEqualTo(1L);
+		assertThat(total.get("$max", Document.class).get("maxDurationMs")).isEqualTo(700L);
+		assertThat(total.get("$setOnInsert", Document.class)).doesNotContainKey("expireAt");
+		assertThat(upserts.entrySet()).filteredOn(e -> e.getKey().contains(":MINUTE:"))
+				.allSatisfy(e -> assertThat(e.getValue().get("$setOnInsert", Document.class)).containsKey("expireAt"));
+		verify(bulk).execute();
+
+		// nothing new, nothing written
+		stats.flush();
+		verify(mongoTemplate, times(1)).bulkOps(any(BulkOperations.BulkMode.class), eq(JobStats.class));
+		assertThat(registry.counter("jobscheduler.stats.flushed").count()).isEqualTo(6);
+	}
+
+	@Test
+	void percentilesAreTheUpperBoundOfTheirDurationBucket() {
+		JobStats bucket = new JobStats();
+		bucket.setBucketStart(new Date(0));
+		bucket.setExecutions(100);
+		bucket.setFailures(3);
+		bucket.setTotalDurationMs(9_000);
+		bucket.setMaxDurationMs(2_000);
+		bucket.setDurations(Map.of("le10ms", 60L, "le100ms", 36L, "le2500ms", 4L));
+
+		JobStatsService.Bucket served = JobStatsService.toBucket(bucket);
+		assertThat(served.p50Ms()).isEqualTo(10);
+		assertThat(served.p95Ms()).isEqualTo(100);
+		// capped at the longest execution rather than the bucket's 2500 ms bound
+		assertThat(served.p99Ms()).isEqualTo(2_000);
+		assertThat(served.avgMs()).isEqualTo(90);
+		assertThat(JobStatsService.toBucket(new JobStats()).p50Ms()).isNull();
+	}
+
+	@Test
+	void statsAreReadByIdAndBoundsAreChecked() {
+		JobStats total = new JobStats();
+		total.setId("JOB:job-1:TOTAL:0");
+		total.setExecutions(1);
+		total.setDurations(Map.of("le1ms", 1L));
+		when(mongoTemplate.find(any(Query.class), eq(JobStats.class))).thenAnswer(inv -> {
+			List<?> ids = ((Query) inv.getArgument(0)).getQueryObject().get("_id", Document.class).getList("$in", Object.class);
+			assertThat(ids).hasSize(60 + 24 + 1);
+			return List.of(total);
+		});
+
+		JobStatsService.Stats served = stats.getStats(JobStatsService.Scope.JOB, "job-1", 60, 24);
+		assertThat(served.total().executions()).isEqualTo(1);
+		assertThat(served.minutes()).isEmpty();
+
+		assertThatThrownBy(() -> stats.getStats(JobStatsService.Scope.JOB, "job-1", 100_000, 24))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
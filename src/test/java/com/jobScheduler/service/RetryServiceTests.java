@@ -0,0 +1,148 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.model.DeadLetter;
+import com.jobScheduler.model.Job;
+import com.jobScheduler.model.JobDefinition;
+import com.jobScheduler.repository.DeadLetterRepository;
+import com.jobScheduler.repository.JobRepository;
+import com.jobScheduler.jobs.PrintMessageJob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quartz.JobBuilder;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.Trigger;
+import org.quartz.impl.StdSchedulerFactory;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs against an in-memory scheduler that is never started, so retry triggers can be
+ * inspected without firing.
+ */
+class RetryServiceTests {
+
+	private static final JobKey JOB_KEY = new JobKey("job-1", "group1");
+
+	private Scheduler scheduler;
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+	private final DeadLetterRepository deadLetters = mock(DeadLetterRepository.class);
+
+	@BeforeEach
+	void setUp() throws Exception {
+		Properties props = new Properties();
+		props.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, "retry-" + UUID.randomUUID());
+		props.setProperty("org.quartz.threadPool.threadCount", "1");
+		scheduler = new StdSchedulerFactory(props).getScheduler();
+		scheduler.addJob(JobBuilder.newJob(PrintMessageJob.class).withIdentity(JOB_KEY).storeDurably().build(), false);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		scheduler.shutdown();
+	}
+
+	private RetryService retryService(int failureThreshold) throws Exception {
+		return new RetryService(scheduler, new JobKeyIndex(scheduler, "group1", "tenant-", false), mongoTemplate, new JobDefinitionCache(mock(JobRepository.class), mock(JobPayloadStore.class)), deadLetters,
+				1, 1000, 300_000, 0.5, failureThreshold);
+	}
+
+	private static JobDefinition job(Integer maxAttempts) {
+		Job job = new Job();
+		job.setId("job-1");
+		job.setName("flaky");
+		job.setAction("CALL_API");
+		job.setMaxAttempts(maxAttempts);
+		job.setRetryBackoffMs(2000L);
+		return JobDefinition.of(job, 1);
+	}
+
+	@Test
+	void backoffDoublesUpToTheCapAndJitterOnlyShortensIt() {
+		assertThat(RetryService.backoffDelay(1000, 60_000, 1, 0.5, 0)).isEqualTo(1000);
+		assertThat(RetryService.backoffDelay(1000, 60_000, 3, 0.5, 0)).isEqualTo(4000);
+		assertThat(RetryService.backoffDelay(1000, 60_000, 10, 0.5, 0)).isEqualTo(60_000);
+		assertThat(RetryService.backoffDelay(1000, 60_000, 3, 0.5, 0.999)).isBetween(2000L, 4000L);
+		assertThat(RetryService.backoffDelay(1000, 60_000, 200, 0.5, 0)).isEqualTo(60_000);
+	}
+
+	@Test
+	void failureWithAttemptsLeftSchedulesAOneShotRetryCarryingTheNextAttempt() throws Exception {
+		long before = System.currentTimeMillis();
+		boolean retried = retryService(0).onFailure(job(3), 1, new RuntimeException("boom"));
+
+		assertThat(retried).isTrue();
+		List<? extends Trigger> triggers = scheduler.getTriggersOfJob(JOB_KEY);
+		assertThat(triggers).singleElement().satisfies(trigger -> {
+			assertThat(trigger.getKey().getGroup()).isEqualTo(RetryService.RETRY_GROUP);
+			assertThat(trigger.getJobDataMap().getString("attempt")).isEqualTo("2");
+			assertThat(trigger.getStartTime().getTime() - before).isBetween(1000L, 2100L);
+			assertThat(trigger.getNextFireTime()).isEqualTo(trigger.getStartTime());
+		});
+		verify(deadLetters, never()).insert(any(DeadLetter.class));
+	}
+
+	@Test
+	void exhaustedRetriesAreDeadLetteredAndTheBreakerPausesTheJob() throws Exception {
+		RetryService retryService = retryService(2);
+		retryService.onFailure(job(2), 2, new RuntimeException("still down"));
+		assertThat(scheduler.getTriggerKeys(GroupMatcher.anyTriggerGroup())).isEmpty();
+		verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(Job.class));
+
+		retryService.onFailure(job(2), 2, new RuntimeException("still down"));
+		assertThat(retryService.getConsecutiveFailures("job-1")).isEqualTo(2);
+		// written off the reporting thread
+		verify(deadLetters, timeout(5000).times(2)).insert(any(DeadLetter.class));
+		verify(mongoTemplate, timeout(5000)).updateFirst(any(Query.class), any(Update.class), eq(Job.class));
+
+		retryService.onSuccess(job(2));
+		assertThat(retryService.getConsecutiveFailures("job-1")).isZero();
+	}
+
+	@Test
+	void resumingAJobClosesItsBreaker() throws Exception {
+		RetryService retryService = retryService(2);
+		retryService.onFailure(job(1), 1, new RuntimeException("down"));
+		assertThat(retryService.getConsecutiveFailures("job-1")).isEqualTo(1);
+
+		scheduler.resumeJob(JOB_KEY);
+
+		assertThat(retryService.getConsecutiveFailures("job-1")).isZero();
+		retryService.onFailure(job(1), 1, new RuntimeException("down"));
+		verify(mongoTemplate, after(200).never()).updateFirst(any(Query.class), any(Update.class), eq(Job.class));
+	}
+
+	@Test
+	void deadLettersAreNotWrittenOnTheReportingThread() throws Exception {
+		Thread reporter = Thread.currentThread();
+		List<Thread> writers = new CopyOnWriteArrayList<>();
+		when(deadLetters.insert(any(DeadLetter.class))).thenAnswer(inv -> {
+			writers.add(Thread.currentThread());
+			return inv.getArgument(0);
+		});
+
+		retryService(0).onFailure(job(1), 1, new RuntimeException("down"));
+
+		verify(deadLetters, timeout(5000)).insert(any(DeadLetter.class));
+		assertThat(writers).singleElement().isNotSameAs(reporter);
+	}
+}
@@ -0,0 +1,136 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.actions.JobActionRegistry;
+import com.jobScheduler.actions.PrintMessageHandler;
+import com.jobScheduler.actions.PrintMessageSink;
+import com.jobScheduler.model.Job;
+import com.jobScheduler.repository.DeadLetterRepository;
+import com.jobScheduler.repository.JobLogRepository;
+import com.jobScheduler.repository.JobRepository;
+import com.jobScheduler.utils.CronExpressionCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quartz.CronExpression;
+import org.quartz.Scheduler;
+import org.quartz.Trigger;
+import org.quartz.TriggerKey;
+import org.quartz.impl.StdSchedulerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Rehydrates a large set of stored jobs into an in-memory Quartz scheduler that is never started,
+ * so the triggers can be inspected without anything firing. Run at full scale with
+ * -Djobscheduler.rehydrate.jobs=100000.
+ */
+class ScheduleRehydratorTests {
+
+	private static final int JOBS = Integer.getInteger("jobscheduler.rehydrate.jobs", 10_000);
+	/** Half a minute past a full minute, so minutely crons have just missed one fire. */
+	private static final Date NOW = Date.from(Instant.parse("2026-01-01T12:00:30Z"));
+
+	private Scheduler scheduler;
+	private QuartzTriggerEngine engine;
+	private JobService jobService;
+	private JobDefinitionCache cache;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		Properties props = new Properties();
+		props.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, "rehydrate-" + UUID.randomUUID());
+		props.setProperty("org.quartz.threadPool.threadCount", "1");
+		scheduler = new StdSchedulerFactory(props).getScheduler();
+		JobRepository jobRepository = mock(JobRepository.class);
+		cache = new JobDefinitionCache(jobRepository, mock(JobPayloadStore.class));
+		JobKeyIndex jobKeyIndex = new JobKeyIndex(scheduler, "group1", "tenant-", false);
+		engine = new QuartzTriggerEngine(scheduler);
+		jobService = new JobService(engine, jobRepository, mock(JobLogRepository.class), log -> { },
+				cache, new JobActionRegistry(List.of(new PrintMessageHandler(PrintMessageSink.NONE, null, null))), mock(MongoTemplate.class),
+				new FireMetrics(new SimpleMeterRegistry()),
+				new RetryService(scheduler, jobKeyIndex, mock(MongoTemplate.class), cache, mock(DeadLetterRepository.class), 1, 1000, 300_000, 0.5, 0),
+				jobKeyIndex, new JobStatsService(mock(MongoTemplate.class), new SimpleMeterRegistry(), 48, 90),
+				new JobEventStream(new SimpleMeterRegistry(), 256, 100, 0), new CronExpressionCache(16), mock(JobRevisions.class), mock(JobPayloadStore.class), 0, 0, true, 16 * 1024 * 1024);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		scheduler.shutdown();
+	}
+
+	private ScheduleRehydrator rehydrator(ScheduleRehydrator.MisfirePolicy policy) {
+		return new ScheduleRehydrator(engine, jobService, cache, mock(MongoTemplate.class), mock(JobRevisions.class),
+				new SimpleMeterRegistry(),
+				true, false, policy, 3_600_000, 1000, 0);
+	}
+
+	private static Job job(int i, String cron, String status) {
+		Job job = new Job();
+		job.setId("id-" + i);
+		job.setName("job-" + i);
+		job.setCronExpression(cron);
+		job.setAction("PRINT_MESSAGE");
+		job.setPayload("hello " + i);
+		job.setStatus(status);
+		return job;
+	}
+
+	@Test
+	void rehydratesEveryStoredJobAndKeepsPausedOnesPaused() throws Exception {
+		List<Job> jobs = new ArrayList<>(JOBS + 1);
+		for (int i = 0; i < JOBS; i++) {
+			jobs.add(job(i, "0 0/" + (i % 59 + 1) + " * * * ?", i % 10 == 0 ? "PAUSED" : "SCHEDULED"));
+		}
+		jobs.add(job(JOBS, "not a cron", "SCHEDULED"));
+
+		ScheduleRehydrator.Result result = rehydrator(ScheduleRehydrator.MisfirePolicy.FIRE_ONCE).rehydrate(jobs.iterator(), NOW);
+
+		assertThat(result.scheduled()).isEqualTo(JOBS);
+		assertThat(result.paused()).isEqualTo(JOBS / 10);
+		assertThat(result.failed()).isEqualTo(1);
+		assertThat(scheduler.getJobKeys(org.quartz.impl.matchers.GroupMatcher.anyJobGroup())).hasSize(JOBS);
+		assertThat(scheduler.getTriggerState(new TriggerKey("id-0", "group1"))).isEqualTo(Trigger.TriggerState.PAUSED);
+		assertThat(scheduler.getTriggerState(new TriggerKey("id-1", "group1"))).isEqualTo(Trigger.TriggerState.NORMAL);
+		assertThat(cache.size()).isEqualTo(JOBS);
+	}
+
+	@Test
+	void fireOnceCatchesUpOnMissedFiresAndSkipWaits() throws Exception {
+		rehydrator(ScheduleRehydrator.MisfirePolicy.FIRE_ONCE).rehydrate(List.of(
+				job(1, "0 * * * * ?", "SCHEDULED"), job(3, "0 * * * * ?", "PAUSED")).iterator(), NOW);
+		rehydrator(ScheduleRehydrator.MisfirePolicy.SKIP).rehydrate(List.of(job(2, "0 * * * * ?", "SCHEDULED")).iterator(), NOW);
+
+		// the minute's fire at 12:00:00 was missed, the next one is at 12:01:00
+		Date missed = new Date(NOW.getTime() - 30_000);
+		Date next = new Date(NOW.getTime() + 30_000);
+		assertThat(scheduler.getTrigger(new TriggerKey("id-1", "group1")).getNextFireTime()).isEqualTo(missed);
+		assertThat(scheduler.getTrigger(new TriggerKey("id-2", "group1")).getNextFireTime()).isEqualTo(next);
+		// paused jobs never catch up
+		assertThat(scheduler.getTrigger(new TriggerKey("id-3", "group1")).getNextFireTime()).isEqualTo(next);
+		assertThat(scheduler.getTriggerState(new TriggerKey("id-3", "group1"))).isEqualTo(Trigger.TriggerState.PAUSED);
+	}
+
+	@Test
+	void lastFireBeforeMatchesAWalkOverEveryFireTime() throws Exception {
+		Date now = NOW;
+		for (String expression : List.of("* * * * * ?", "0/7 * * * * ?", "0 15 10 * * ?", "0 0 0 1 1 ? 2000")) {
+			CronExpression cron = new CronExpression(expression);
+			Date expected = null;
+			for (Date next = cron.getNextValidTimeAfter(new Date(now.getTime() - 3_600_000));
+				 next != null && next.before(now); next = cron.getNextValidTimeAfter(next)) {
+				expected = next;
+			}
+			assertThat(ScheduleRehydrator.lastFireBefore(cron, now, 3_600_000)).as(expression).isEqualTo(expected);
+		}
+	}
+}
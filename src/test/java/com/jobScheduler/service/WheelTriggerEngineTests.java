@@ -0,0 +1,211 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.jobs.PrintMessageJob;
+import com.jobScheduler.jobs.SerialPrintMessageJob;
+import com.jobScheduler.utils.CronExpressionCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.CronTrigger;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.quartz.impl.StdSchedulerFactory;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The engine is never started; tests advance its wheels by hand, a few seconds ahead of the
+ * clock, against an in-memory Quartz scheduler that is never started either.
+ */
+class WheelTriggerEngineTests {
+
+	private Scheduler scheduler;
+	private JobKeyIndex index;
+	private WheelTriggerEngine engine;
+	private final List<List<WheelTriggerEngine.Fire>> batches = new CopyOnWriteArrayList<>();
+
+	@BeforeEach
+	void setUp() throws Exception {
+		Properties props = new Properties();
+		props.setProperty(StdSchedulerFactory.PROP_SCHED_INSTANCE_NAME, "wheel-" + UUID.randomUUID());
+		props.setProperty("org.quartz.threadPool.threadCount", "1");
+		scheduler = new StdSchedulerFactory(props).getScheduler();
+		index = new JobKeyIndex(scheduler, "group1", "tenant-", false);
+		engine = new WheelTriggerEngine(scheduler, new SimpleMeterRegistry(), new CronExpressionCache(16), 10, 2, 2, false);
+		engine.setFireHandler(batches::add);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		scheduler.shutdown();
+	}
+
+	private static JobDetail jobDetail(String id, long jitterMs, boolean serial) {
+		return JobBuilder.newJob(serial ? SerialPrintMessageJob.class : PrintMessageJob.class)
+				.withIdentity(id, "group1")
+				.usingJobData("jobId", id)
+				.usingJobData("action", "PRINT_MESSAGE")
+				.usingJobData("revision", "7")
+				.usingJobData("jitterMs", String.valueOf(jitterMs))
+				.build();
+	}
+
+	private static Trigger everySecond(String id) {
+		return TriggerBuilder.newTrigger().withIdentity(id, "group1")
+				.withSchedule(CronScheduleBuilder.cronSchedule("* * * * * ?")).build();
+	}
+
+	private List<WheelTriggerEngine.Fire> advance(long aheadMs) {
+		batches.clear();
+		engine.advance(System.currentTimeMillis() + aheadMs);
+		return batches.stream().flatMap(List::stream).toList();
+	}
+
+	@Test
+	void firesEveryRegisteredJobInBatchesAndKeepsTheJobInQuartz() throws Exception {
+		for (int i = 0; i < 5; i++) {
+			engine.scheduleJob(jobDetail("id-" + i, 0, false), everySecond("id-" + i));
+		}
+
+		List<WheelTriggerEngine.Fire> fires = advance(1500);
+		assertThat(fires).hasSize(5);
+		assertThat(batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(2));
+		assertThat(fires).allSatisfy(fire -> {
+			assertThat(fire.recurring()).isTrue();
+			assertThat(fire.trigger().getRevision()).isEqualTo(7);
+		});
+		// the next fire is on the wheel already, one per job
+		assertThat(advance(3000)).hasSize(5);
+
+		assertThat(scheduler.checkExists(new JobKey("id-0", "group1"))).isTrue();
+		assertThat(index.status("id-0")).isEqualTo("SCHEDULED");
+		assertThat(engine.size()).isEqualTo(5);
+	}
+
+	@Test
+	void jobsRegisteredPausedFireOnlyOnceResumed() throws Exception {
+		JobKey key = new JobKey("id-0", "group1");
+		engine.scheduleJobs(Map.of(jobDetail("id-0", 0, false), Set.of(everySecond("id-0"))), Set.of(key));
+
+		assertThat(advance(1500)).isEmpty();
+		assertThat(index.status("id-0")).isEqualTo("PAUSED");
+
+		engine.resumeJob(key);
+		assertThat(advance(3000)).hasSize(1);
+	}
+
+	@Test
+	void newRevisionReachesWheelFiresAndTheQuartzJob() throws Exception {
+		engine.scheduleJob(jobDetail("id-0", 0, false), everySecond("id-0"));
+
+		engine.setRevision(new JobKey("id-0", "group1"), 8);
+
+		assertThat(advance(1500)).singleElement().satisfies(fire -> assertThat(fire.trigger().getRevision()).isEqualTo(8));
+		assertThat(scheduler.getJobDetail(new JobKey("id-0", "group1")).getJobDataMap().getString("revision")).isEqualTo("8");
+	}
+
+	@Test
+	void pausedReplacedAndDeletedTriggersStopFiring() throws Exception {
+		JobKey key = new JobKey("id-1", "group1");
+		engine.scheduleJob(jobDetail("id-1", 0, false), everySecond("id-1"));
+		engine.pauseJob(key);
+		assertThat(advance(1500)).isEmpty();
+		assertThat(index.status("id-1")).isEqualTo("PAUSED");
+
+		engine.resumeJob(key);
+		assertThat(advance(3000)).hasSize(1);
+		assertThat(index.status("id-1")).isEqualTo("SCHEDULED");
+
+		engine.scheduleJob(jobDetail("id-1", 0, false), everySecond("id-1"));
+		assertThat(advance(5000)).hasSize(1);
+
+		assertThat(engine.deleteJob(key)).isTrue();
+		assertThat(advance(7000)).isEmpty();
+		assertThat(engine.checkExists(key)).isFalse();
+		assertThat(scheduler.checkExists(key)).isFalse();
+		assertThat(index.jobKey("id-1")).isNull();
+	}
+
+	@Test
+	void jitterDelaysEveryFireByTheJobsOffset() throws Exception {
+		engine.scheduleJob(jobDetail("id-1", 250, false), everySecond("id-1"));
+
+		assertThat(advance(1500)).singleElement().satisfies(fire -> assertThat(fire.fireAt() % 1000).isEqualTo(250));
+		assertThat(advance(3000)).singleElement().satisfies(fire -> assertThat(fire.fireAt() % 1000).isEqualTo(250));
+	}
+
+	@Test
+	void deferredFiresRunOnceUnlessTheJobIsPausedMeanwhile() throws Exception {
+		engine.scheduleJob(jobDetail("id-1", 0, false), everySecond("id-1"));
+		WheelTriggerEngine.Fire fire = advance(1500).get(0);
+
+		engine.defer(fire, 4000);
+		assertThat(advance(2500)).singleElement().satisfies(next -> assertThat(next.recurring()).isTrue());
+		assertThat(advance(4500)).hasSize(2).anySatisfy(deferred -> assertThat(deferred.recurring()).isFalse());
+
+		engine.defer(fire, 1000);
+		engine.pauseJob(new JobKey("id-1", "group1"));
+		assertThat(advance(10_000)).isEmpty();
+	}
+
+	@Test
+	void fireOfASerialJobWaitsForTheRunningOne() throws Exception {
+		engine.scheduleJob(jobDetail("id-1", 0, true), everySecond("id-1"));
+		WheelTriggerEngine.WheelTrigger trigger = advance(1500).get(0).trigger();
+
+		assertThat(trigger.tryStart()).isTrue();
+		assertThat(trigger.tryStart()).isFalse();
+		assertThat(trigger.tryStart()).isFalse();
+		assertThat(trigger.finish()).isTrue(); // the two waiting fires run once
+		assertThat(trigger.finish()).isFalse();
+		assertThat(trigger.tryStart()).isTrue();
+	}
+
+	@Test
+	void firstFireIsNeverBeforeTheJobWasScheduled() throws Exception {
+		// Quartz cuts the start time down to the second, and would fire at it even if that has passed
+		long scheduledAt = System.currentTimeMillis();
+		engine.scheduleJob(jobDetail("id-1", 0, false), everySecond("id-1"));
+
+		assertThat(advance(1500)).singleElement().satisfies(fire -> assertThat(fire.fireAt()).isGreaterThanOrEqualTo(scheduledAt));
+	}
+
+	@Test
+	void aTriggerCatchingUpOnAMissedFireFiresOnceAtOnce() throws Exception {
+		long missed = System.currentTimeMillis() / 1000 * 1000 - 60_000;
+		Trigger trigger = TriggerBuilder.newTrigger().withIdentity("id-1", "group1").startAt(new Date(missed))
+				.withSchedule(CronScheduleBuilder.cronSchedule("0 * * * * ?").withMisfireHandlingInstructionFireAndProceed())
+				.build();
+		assertThat(((CronTrigger) trigger).getMisfireInstruction()).isEqualTo(CronTrigger.MISFIRE_INSTRUCTION_FIRE_ONCE_NOW);
+		engine.scheduleJob(jobDetail("id-1", 0, false), trigger);
+
+		assertThat(advance(50)).singleElement().satisfies(fire -> assertThat(fire.recurring()).isTrue());
+		assertThat(advance(100)).isEmpty();
+	}
+
+	@Test
+	void rejectsNonCronTriggersWithoutRegisteringAnything() {
+		Trigger oneShot = TriggerBuilder.newTrigger().withIdentity("id-2", "group1").startNow().build();
+
+		assertThatThrownBy(() -> engine.scheduleJobs(Map.of(
+				jobDetail("id-2", 0, false), Set.of(oneShot))))
+				.isInstanceOf(SchedulerException.class);
+		assertThat(engine.size()).isZero();
+	}
+}
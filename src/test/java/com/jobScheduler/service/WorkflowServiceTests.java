@@ -0,0 +1,254 @@
+package com.jobScheduler.service;
+
+import com.jobScheduler.model.Job;
+import com.jobScheduler.model.Workflow;
+import com.jobScheduler.model.WorkflowRun;
+import com.jobScheduler.model.WorkflowStep;
+import com.jobScheduler.repository.JobRepository;
+import com.jobScheduler.repository.WorkflowRepository;
+import com.jobScheduler.repository.WorkflowRunRepository;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.quartz.JobDataMap;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WorkflowServiceTests {
+
+	private final Scheduler scheduler = mock(Scheduler.class);
+	private final JobKeyIndex jobKeyIndex = mock(JobKeyIndex.class);
+	private final JobRepository jobRepository = mock(JobRepository.class);
+	private final WorkflowRepository workflowRepository = mock(WorkflowRepository.class);
+	private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+	private final WorkflowService service = new WorkflowService(scheduler, jobKeyIndex, mock(JobService.class), jobRepository,
+			workflowRepository, mock(WorkflowRunRepository.class), mongoTemplate, false, 60_000L);
+
+	private void knowJobs() {
+		when(jobRepository.findById(anyString())).thenAnswer(inv -> {
+			Job job = new Job();
+			job.setId(inv.getArgument(0));
+			job.setName("job-" + job.getId());
+			job.setAction("PRINT_MESSAGE");
+			return Optional.of(job);
+		});
+		when(jobKeyIndex.jobKey(anyString(), any())).thenAnswer(inv -> new JobKey(inv.getArgument(0), "group1"));
+	}
+
+	private static WorkflowRun run(String id, String workflowId, Set<String> dispatched, Set<String> completed) {
+		WorkflowRun run = new WorkflowRun();
+		run.setId(id);
+		run.setWorkflowId(workflowId);
+		run.setStatus("RUNNING");
+		run.setDispatched(new LinkedHashSet<>(dispatched));
+		run.setCompleted(new LinkedHashSet<>(completed));
+		return run;
+	}
+
+	private static Document updateOf(UpdateDefinition update) {
+		return update.getUpdateObject().get("$set", Document.class);
+	}
+
+	private static WorkflowStep step(String jobId, String... dependsOn) {
+		return new WorkflowStep(jobId, List.of(dependsOn));
+	}
+
+	/** extract fans out to two transforms that both feed load. */
+	private static Workflow diamond() {
+		return new Workflow("wf-1", "etl", List.of(
+				step("extract"), step("clean", "extract"), step("enrich", "extract"), step("load", "clean", "enrich")));
+	}
+
+	@Test
+	void downstreamStepWaitsForEveryUpstreamStep() {
+		Workflow workflow = diamond();
+
+		assertThat(WorkflowService.readySteps(workflow, Set.of(), Set.of())).containsExactly("extract");
+		assertThat(WorkflowService.readySteps(workflow, Set.of("extract"), Set.of("extract")))
+				.containsExactly("clean", "enrich");
+		assertThat(WorkflowService.readySteps(workflow, Set.of("extract", "clean"), Set.of("extract", "clean", "enrich")))
+				.isEmpty();
+		assertThat(WorkflowService.readySteps(workflow, Set.of("extract", "clean", "enrich"), Set.of("extract", "clean", "enrich")))
+				.containsExactly("load");
+	}
+
+	@Test
+	void rejectsCyclesUnknownStepsAndRepeatedJobs() {
+		WorkflowService.validate(diamond());
+
+		assertThatThrownBy(() -> WorkflowService.validate(new Workflow(null, "loop",
+				List.of(step("a", "c"), step("b", "a"), step("c", "b")))))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageContaining("cycle");
+		assertThatThrownBy(() -> WorkflowService.validate(new Workflow(null, "dangling", List.of(step("a", "missing")))))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageContaining("unknown step");
+		assertThatThrownBy(() -> WorkflowService.validate(new Workflow(null, "twice", List.of(step("a"), step("a")))))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageContaining("more than one step");
+	}
+
+	@Test
+	void startingARunTriggersEveryRootStepWithTheRunId() throws Exception {
+		knowJobs();
+		Workflow workflow = new Workflow("wf-2", "fan-out", List.of(step("a"), step("b"), step("c", "a", "b")));
+		when(workflowRepository.findById("wf-2")).thenReturn(Optional.of(workflow));
+		WorkflowRunRepository runRepository = mock(WorkflowRunRepository.class);
+		when(runRepository.insert(any(WorkflowRun.class))).thenAnswer(inv -> {
+			WorkflowRun run = inv.getArgument(0);
+			run.setId("run-1");
+			return run;
+		});
+		when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(WorkflowRun.class)))
+				.thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+		WorkflowService service = new WorkflowService(scheduler, jobKeyIndex, mock(JobService.class), jobRepository,
+				workflowRepository, runRepository, mongoTemplate, false, 86400000L);
+		service.startRun("wf-2");
+
+		JobDataMap data = new JobDataMap(Map.of(WorkflowService.RUN_KEY, "run-1", "action", "PRINT_MESSAGE"));
+		verify(scheduler).triggerJob(new JobKey("a", "group1"), data);
+		verify(scheduler).triggerJob(new JobKey("b", "group1"), data);
+		verify(scheduler, never()).triggerJob(eq(new JobKey("c", "group1")), any(JobDataMap.class));
+	}
+
+	@Test
+	void fanInStepStartsOnceWhenItsUpstreamStepsFinishTogether() throws Exception {
+		knowJobs();
+		when(workflowRepository.findById("wf-3")).thenReturn(Optional.of(
+				new Workflow("wf-3", "fan-in", List.of(step("a"), step("b"), step("c", "a", "b")))));
+		// both completions are recorded before either claims c, so both see it ready
+		CountDownLatch bothRecorded = new CountDownLatch(2);
+		when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class), any(FindAndModifyOptions.class), eq(WorkflowRun.class)))
+				.thenAnswer(inv -> {
+					bothRecorded.countDown();
+					assertThat(bothRecorded.await(5, TimeUnit.SECONDS)).isTrue();
+					return run("run-3", "wf-3", Set.of("a", "b"), Set.of("a", "b"));
+				});
+		// Mongo applies the conditional claim once
+		AtomicBoolean claimed = new AtomicBoolean();
+		when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(WorkflowRun.class)))
+				.thenAnswer(inv -> UpdateResult.acknowledged(1, claimed.compareAndSet(false, true) ? 1L : 0L, null));
+
+		CompletableFuture<Void> first = CompletableFuture.runAsync(() -> service.stepSucceeded("run-3", "a"));
+		CompletableFuture<Void> second = CompletableFuture.runAsync(() -> service.stepSucceeded("run-3", "b"));
+		CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+
+		verify(mongoTemplate, times(2)).updateFirst(any(Query.class), any(UpdateDefinition.class), eq(WorkflowRun.class));
+		verify(scheduler, times(1)).triggerJob(eq(new JobKey("c", "group1")), any(JobDataMap.class));
+	}
+
+	@Test
+	void recoverRestartsStepsInFlightAndFailsRunsOfDeletedWorkflows() throws Exception {
+		knowJobs();
+		when(workflowRepository.findById("wf-4")).thenReturn(Optional.of(
+				new Workflow("wf-4", "chain", List.of(step("a"), step("b", "a"), step("c", "b")))));
+		when(workflowRepository.findById("gone")).thenReturn(Optional.empty());
+		when(mongoTemplate.stream(any(Query.class), eq(WorkflowRun.class))).thenReturn(Stream.of(
+				run("run-4", "wf-4", Set.of("a", "b"), Set.of("a")),
+				run("run-5", "gone", Set.of("x"), Set.of())));
+		when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(WorkflowRun.class)))
+				.thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+		assertThat(service.recover()).isEqualTo(1);
+
+		// b was started but never reported back; a finished and c still waits for b
+		verify(scheduler).triggerJob(eq(new JobKey("b", "group1")), any(JobDataMap.class));
+		verify(scheduler, never()).triggerJob(eq(new JobKey("a", "group1")), any(JobDataMap.class));
+		verify(scheduler, never()).triggerJob(eq(new JobKey("c", "group1")), any(JobDataMap.class));
+		var query = ArgumentCaptor.forClass(Query.class);
+		var update = ArgumentCaptor.forClass(UpdateDefinition.class);
+		verify(mongoTemplate).updateFirst(query.capture(), update.capture(), eq(WorkflowRun.class));
+		assertThat(query.getValue().getQueryObject()).containsEntry("_id", "run-5").containsEntry("status", "RUNNING");
+		assertThat(updateOf(update.getValue())).containsEntry("status", "FAILED").containsEntry("error", "Workflow was deleted");
+	}
+
+	@Test
+	void stepsOfPausedJobsFailTheRunInsteadOfStarting() throws Exception {
+		knowJobs();
+		when(jobKeyIndex.status("a")).thenReturn("PAUSED");
+		when(workflowRepository.findById("wf-5")).thenReturn(Optional.of(new Workflow("wf-5", "one", List.of(step("a")))));
+		when(mongoTemplate.stream(any(Query.class), eq(WorkflowRun.class))).thenReturn(Stream.of(run("run-6", "wf-5", Set.of(), Set.of())));
+		when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(WorkflowRun.class)))
+				.thenReturn(UpdateResult.acknowledged(1, 1L, null));
+		when(mongoTemplate.updateMulti(any(Query.class), any(UpdateDefinition.class), eq(WorkflowRun.class)))
+				.thenReturn(UpdateResult.acknowledged(2, 2L, null));
+
+		service.recover();
+		verify(scheduler, never()).triggerJob(any(JobKey.class), any(JobDataMap.class));
+		var update = ArgumentCaptor.forClass(UpdateDefinition.class);
+		verify(mongoTemplate, times(2)).updateFirst(any(Query.class), update.capture(), eq(WorkflowRun.class));
+		assertThat(updateOf(update.getValue())).containsEntry("status", "FAILED").containsEntry("error", "Job job-a is paused");
+
+		// pausing a job that running steps wait on fails those runs
+		service.stepPaused("b");
+		var query = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).updateMulti(query.capture(), update.capture(), eq(WorkflowRun.class));
+		assertThat(query.getValue().getQueryObject()).containsEntry("status", "RUNNING").containsEntry("dispatched", "b")
+				.containsEntry("completed", new Document("$ne", "b"));
+		assertThat(updateOf(update.getValue())).containsEntry("status", "FAILED").containsEntry("failedStep", "b");
+	}
+
+	@Test
+	void abandonedFiresFailTheRunOffTheReportingThread() throws Exception {
+		AtomicReference<String> recordedOn = new AtomicReference<>();
+		when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), eq(WorkflowRun.class))).thenAnswer(inv -> {
+			recordedOn.set(Thread.currentThread().getName());
+			return UpdateResult.acknowledged(1, 1L, null);
+		});
+
+		service.fireAbandoned("a", Map.of(WorkflowService.RUN_KEY, "run-7"), "Job a no longer exists");
+		service.fireAbandoned("a", Map.of(), "not part of a run");
+		service.shutdown();
+
+		var update = ArgumentCaptor.forClass(UpdateDefinition.class);
+		verify(mongoTemplate).updateFirst(any(Query.class), update.capture(), eq(WorkflowRun.class));
+		assertThat(updateOf(update.getValue())).containsEntry("status", "FAILED").containsEntry("failedStep", "a")
+				.containsEntry("error", "Job a no longer exists");
+		assertThat(recordedOn.get()).isEqualTo("workflow-steps");
+	}
+
+	@Test
+	void runsPastTheTimeoutAreFailed() {
+		when(mongoTemplate.updateMulti(any(Query.class), any(UpdateDefinition.class), eq(WorkflowRun.class)))
+				.thenReturn(UpdateResult.acknowledged(3, 3L, null));
+
+		assertThat(service.failTimedOutRuns()).isEqualTo(3);
+
+		var query = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).updateMulti(query.capture(), any(UpdateDefinition.class), eq(WorkflowRun.class));
+		Document startedAt = query.getValue().getQueryObject().get("startedAt", Document.class);
+		assertThat((LocalDateTime) startedAt.get("$lt")).isBefore(LocalDateTime.now().minusSeconds(59));
+		assertThat(new WorkflowService(scheduler, jobKeyIndex, mock(JobService.class), jobRepository, workflowRepository,
+				mock(WorkflowRunRepository.class), mongoTemplate, false, 0).failTimedOutRuns()).isZero();
+		assertThatThrownBy(() -> new WorkflowService(scheduler, jobKeyIndex, mock(JobService.class), jobRepository,
+				workflowRepository, mock(WorkflowRunRepository.class), mongoTemplate, false, -1))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
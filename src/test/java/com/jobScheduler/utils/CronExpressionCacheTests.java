@@ -0,0 +1,54 @@
+package com.jobScheduler.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.ParseException;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CronExpressionCacheTests {
+
+	private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+	private static final TimeZone TOKYO = TimeZone.getTimeZone("Asia/Tokyo");
+
+	@Test
+	void reusesParsedExpressionPerTimeZone() throws ParseException {
+		CronExpressionCache cache = new CronExpressionCache(10);
+
+		assertThat(cache.get("0 * * * * ?", UTC)).isSameAs(cache.get("0 * * * * ?", UTC));
+		assertThat(cache.get("0 * * * * ?", TOKYO)).isNotSameAs(cache.get("0 * * * * ?", UTC));
+		assertThat(cache.get("0 * * * * ?", TOKYO).getTimeZone()).isEqualTo(TOKYO);
+	}
+
+	@Test
+	void evictsLeastRecentlyUsed() throws ParseException {
+		CronExpressionCache cache = new CronExpressionCache(2);
+		var first = cache.get("0 1 * * * ?", UTC);
+		cache.get("0 2 * * * ?", UTC);
+		cache.get("0 1 * * * ?", UTC);
+		cache.get("0 3 * * * ?", UTC);
+
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.get("0 1 * * * ?", UTC)).isSameAs(first);
+	}
+
+	@Test
+	void doesNotCacheInvalidExpressions() {
+		CronExpressionCache cache = new CronExpressionCache(10);
+
+		assertThatThrownBy(() -> cache.get("not a cron", UTC)).isInstanceOf(ParseException.class);
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void computesNextFireTimes() throws ParseException {
+		Date start = new Date(0);
+		List<Date> times = CronUtils.nextFireTimes(new CronExpressionCache(10).get("0 0 * * * ?", UTC), start, 3);
+
+		assertThat(times).containsExactly(new Date(3_600_000), new Date(7_200_000), new Date(10_800_000));
+	}
+}
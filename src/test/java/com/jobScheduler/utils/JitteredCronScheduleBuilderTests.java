@@ -0,0 +1,66 @@
+package com.jobScheduler.utils;
+
+import org.junit.jupiter.api.Test;
+import org.quartz.CronExpression;
+import org.quartz.CronTrigger;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.quartz.impl.triggers.CronTriggerImpl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.time.Instant;
+import java.util.Date;
+import java.util.TimeZone;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JitteredCronScheduleBuilderTests {
+
+	private static final Date START = Date.from(Instant.parse("2026-01-01T12:00:30Z"));
+
+	private static JitteredCronScheduleBuilder.JitteredCronTrigger trigger(long offsetMs) throws Exception {
+		CronExpression cron = new CronExpression("0 * * * * ?");
+		cron.setTimeZone(TimeZone.getTimeZone("UTC"));
+		return (JitteredCronScheduleBuilder.JitteredCronTrigger) TriggerBuilder.newTrigger()
+				.withIdentity("job-1")
+				.startAt(START)
+				.withSchedule(JitteredCronScheduleBuilder.jitteredCronSchedule(cron, offsetMs).withMisfireHandlingInstructionDoNothing())
+				.build();
+	}
+
+	@Test
+	void firesAtTheOffsetTimeInsteadOfTheCronTime() throws Exception {
+		JitteredCronScheduleBuilder.JitteredCronTrigger trigger = trigger(7_000);
+
+		assertThat(trigger.computeFirstFireTime(null)).isEqualTo(Instant.parse("2026-01-01T12:01:07Z"));
+		trigger.triggered(null);
+		assertThat(trigger.getNextFireTime()).isEqualTo(Instant.parse("2026-01-01T12:02:07Z"));
+
+		// the 12:00:00 cron time moved past the start time still fires
+		assertThat(trigger(35_000).computeFirstFireTime(null)).isEqualTo(Instant.parse("2026-01-01T12:00:35Z"));
+	}
+
+	@Test
+	void rebuiltAndStoredTriggersKeepTheirOffset() throws Exception {
+		JitteredCronScheduleBuilder.JitteredCronTrigger trigger = trigger(7_000);
+
+		// the rehydrator restarts triggers through their builder
+		Trigger rebuilt = trigger.getTriggerBuilder().startAt(Date.from(Instant.parse("2026-01-01T12:05:00Z"))).build();
+		assertThat(rebuilt).isInstanceOf(JitteredCronScheduleBuilder.JitteredCronTrigger.class);
+		assertThat(((CronTrigger) rebuilt).getMisfireInstruction()).isEqualTo(CronTrigger.MISFIRE_INSTRUCTION_DO_NOTHING);
+		assertThat(((CronTriggerImpl) rebuilt).computeFirstFireTime(null)).isEqualTo(Instant.parse("2026-01-01T12:05:07Z"));
+
+		// a JDBC job store serializes it rather than storing a plain cron trigger
+		assertThat(trigger.hasAdditionalProperties()).isTrue();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(trigger);
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			assertThat(((JitteredCronScheduleBuilder.JitteredCronTrigger) in.readObject()).getOffsetMs()).isEqualTo(7_000);
+		}
+	}
+}